@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Starts the backend in one mode and reports the time from process start to the first
+# successful response of a non-AI endpoint. The configured database must be reachable.
+#
+#   scripts/time-to-first-request.sh jvm        # target/Backend-0.0.1-SNAPSHOT.jar (./mvnw package)
+#   scripts/time-to-first-request.sh fast-start # AOT + CDS (./mvnw -Pfast-start package)
+#   scripts/time-to-first-request.sh native     # target/Backend (./mvnw -Pnative native:compile)
+#
+# RUNS (default 5) starts are made; each one is printed, then the median.
+set -euo pipefail
+
+MODE=${1:-jvm}
+RUNS=${RUNS:-5}
+PORT=${PORT:-3001}
+URL=${URL:-http://localhost:${PORT}/api/v1/contracts/types}
+JAR=Backend-0.0.1-SNAPSHOT.jar
+
+cd "$(dirname "$0")/.."
+
+case "$MODE" in
+  jvm)        CMD=(java -jar "target/$JAR") ;;
+  fast-start) CMD=(java -XX:SharedArchiveFile=target/fast-start/application.jsa -Dspring.aot.enabled=true
+                   -jar "target/fast-start/$JAR" --spring.profiles.active=fast-start) ;;
+  native)     CMD=(target/Backend) ;;
+  *) echo "unknown mode $MODE (jvm, fast-start or native)" >&2; exit 2 ;;
+esac
+
+now_ms() { date +%s%3N; }
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  "${CMD[@]}" --server.port="$PORT" > "target/ttfr-$MODE-$run.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "run $run: backend exited, see target/ttfr-$MODE-$run.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "run $run: ${elapsed} ms"
+  results+=("$elapsed")
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+echo "$MODE: median time to first request ${median} ms over $RUNS runs"
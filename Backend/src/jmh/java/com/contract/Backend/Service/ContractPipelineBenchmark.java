@@ -0,0 +1,71 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftRequest;
+import com.contract.Backend.DTO.ContractDraftResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot path of POST /api/v1/contracts/draft, minus the model call: prompt building,
+ * decoding the Ollama envelope, JSON extraction, JSON parsing and the text fallback.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContractPipelineBenchmark {
+
+    private ContractService contractService;
+    private ContractDraftRequest request;
+    private String ollamaEnvelope;
+    private String modelOutput;
+    private String malformedOutput;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        contractService = new ContractService(BenchmarkFixtures.MAPPER, null,
+                new GenerationMetrics(new SimpleMeterRegistry()), null, null, new PayloadLogger(512, 0, 0, 0));
+        request = BenchmarkFixtures.json("contract-draft-request.json", ContractDraftRequest.class);
+        ollamaEnvelope = BenchmarkFixtures.text("ollama-generate-response.json");
+        modelOutput = BenchmarkFixtures.MAPPER.readTree(ollamaEnvelope).path("response").asText();
+        malformedOutput = ModelOutputCorpus.load("truncated-json");
+    }
+
+    @Benchmark
+    public String buildContractPrompt() {
+        return contractService.buildContractPrompt(request);
+    }
+
+    @Benchmark
+    public String decodeOllamaEnvelope() throws JsonProcessingException {
+        return BenchmarkFixtures.MAPPER.readTree(ollamaEnvelope).path("response").asText();
+    }
+
+    @Benchmark
+    public String extractJsonFromResponse() {
+        return contractService.extractJsonFromResponse(modelOutput);
+    }
+
+    @Benchmark
+    public ContractDraftResponse parseAiResponseJson() {
+        return contractService.parseAiResponseJson(modelOutput, request);
+    }
+
+    /**
+     * Malformed JSON: includes the failed Jackson parse before the text fallback kicks in.
+     */
+    @Benchmark
+    public ContractDraftResponse parseAiResponseJsonFallingBack() {
+        return contractService.parseAiResponseJson(malformedOutput, request);
+    }
+
+    @Benchmark
+    public ContractDraftResponse parseAiResponseText() {
+        return contractService.parseAiResponseText(malformedOutput, request);
+    }
+}
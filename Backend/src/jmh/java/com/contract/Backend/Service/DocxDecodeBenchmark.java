@@ -0,0 +1,41 @@
+package com.contract.Backend.Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base64 DOCX decode as done in saveDraft/saveTemplate, on a ~70 KB document.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocxDecodeBenchmark {
+
+    private String docxBase64;
+    private byte[] docxBase64Bytes;
+
+    @Setup
+    public void setUp() {
+        docxBase64 = BenchmarkFixtures.text("template.docx.b64");
+        docxBase64Bytes = docxBase64.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Benchmark
+    public byte[] decodeString() {
+        return Base64.getDecoder().decode(docxBase64);
+    }
+
+    /**
+     * Lower bound: decoding the ASCII bytes directly, without the String-to-bytes copy.
+     */
+    @Benchmark
+    public byte[] decodeBytes() {
+        return Base64.getDecoder().decode(docxBase64Bytes);
+    }
+}
@@ -0,0 +1,127 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftRequest;
+import com.contract.Backend.DTO.DraftResponse;
+import com.contract.Backend.DTO.TemplateResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response encodings offered through content negotiation, on the payloads of the draft and
+ * template list endpoints and a generated contract. Encoded sizes are printed at setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"json-indented", "json", "json-gzip", "smile", "cbor"})
+    public String encoding;
+
+    @Param({"draftList", "templateList", "contractDraft"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private boolean gzip;
+    private Object body;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (encoding) {
+            case "smile" -> configure(new ObjectMapper(new SmileFactory()));
+            case "cbor" -> configure(new ObjectMapper(new CBORFactory()));
+            case "json-indented" -> configure(new ObjectMapper()).enable(SerializationFeature.INDENT_OUTPUT);
+            default -> configure(new ObjectMapper());
+        };
+        gzip = encoding.equals("json-gzip");
+        body = switch (payload) {
+            case "draftList" -> draftList();
+            case "templateList" -> templateList();
+            default -> contractDraft();
+        };
+        System.out.printf("%n%s as %s: %d bytes%n", payload, encoding, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(body);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(out, body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static List<DraftResponse> draftList() {
+        String content = BenchmarkFixtures.text("draft-content.json");
+        List<DraftResponse> drafts = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            drafts.add(DraftResponse.builder()
+                    .id(i)
+                    .title("Master Services Agreement " + i)
+                    .contractType("Service Agreement")
+                    .content(content)
+                    .version((int) (i % 4) + 1)
+                    .isFinal(false)
+                    .requestId(i)
+                    .hasDocx(true)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return drafts;
+    }
+
+    private static List<TemplateResponse> templateList() {
+        String content = BenchmarkFixtures.text("template-content.json");
+        List<TemplateResponse> templates = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            templates.add(TemplateResponse.builder()
+                    .id(i)
+                    .title("Standard Services Template " + i)
+                    .contractType("Service Agreement")
+                    .description("Default template for professional services engagements")
+                    .content(content)
+                    .timesUsed((int) i)
+                    .hasDocx(true)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return templates;
+    }
+
+    private static Object contractDraft() throws IOException {
+        ContractService contractService = new ContractService(BenchmarkFixtures.MAPPER, null,
+                new GenerationMetrics(new SimpleMeterRegistry()), null, null, new PayloadLogger(512, 0, 0, 0));
+        ContractDraftRequest request = BenchmarkFixtures.json("contract-draft-request.json", ContractDraftRequest.class);
+        String envelope = BenchmarkFixtures.text("ollama-generate-response.json");
+        String modelOutput = BenchmarkFixtures.MAPPER.readTree(envelope).path("response").asText();
+        return contractService.parseAiResponseJson(modelOutput, request);
+    }
+}
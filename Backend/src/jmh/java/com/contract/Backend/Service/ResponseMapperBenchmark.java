@@ -0,0 +1,131 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractRequestResponse;
+import com.contract.Backend.DTO.DraftResponse;
+import com.contract.Backend.DTO.TemplateResponse;
+import com.contract.Backend.model.ContractDraft;
+import com.contract.Backend.model.ContractRequest;
+import com.contract.Backend.model.ContractTemplate;
+import com.contract.Backend.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-DTO mappers behind the list and detail endpoints, on realistic entity sizes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private DraftService draftService;
+    private ContractRequestService requestService;
+    private TemplateLibraryService templateService;
+
+    private ContractDraft draft;
+    private ContractTemplate template;
+    private List<ContractRequest> requests;
+
+    @Setup
+    public void setUp() {
+        draftService = BenchmarkFixtures.withNullDependencies(DraftService.class);
+        requestService = BenchmarkFixtures.withNullDependencies(ContractRequestService.class);
+        templateService = BenchmarkFixtures.withNullDependencies(TemplateLibraryService.class);
+
+        User employee = user(1L, "employee", "John Employee", "Sales");
+        User legal = user(2L, "legal", "Sarah Wilson", "Legal");
+        byte[] docx = Base64.getDecoder().decode(BenchmarkFixtures.text("template.docx.b64"));
+
+        requests = new ArrayList<>(PAGE_SIZE);
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            requests.add(ContractRequest.builder()
+                    .id(i)
+                    .title("Service agreement for analytics engagement #" + i)
+                    .contractType("Service Agreement")
+                    .description("Twelve month professional services engagement for contract analytics with GDPR obligations and a 12 month non-solicitation clause.")
+                    .status(ContractRequest.RequestStatus.PENDING)
+                    .priority(ContractRequest.Priority.values()[(int) (i % 3)])
+                    .requestedBy(employee)
+                    .assignedTo(i % 2 == 0 ? legal : null)
+                    .dueDate(LocalDate.now().plusDays(i))
+                    .tags(List.of("gdpr", "services", "priority-" + (i % 3)))
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        draft = ContractDraft.builder()
+                .id(10L)
+                .title("Master Services Agreement")
+                .contractType("Service Agreement")
+                .content(BenchmarkFixtures.text("draft-content.json"))
+                .docxBytes(docx)
+                .version(3)
+                .isFinal(false)
+                .contractRequest(requests.get(0))
+                .createdBy(legal)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        template = ContractTemplate.builder()
+                .id(20L)
+                .title("Standard Services Template")
+                .contractType("Service Agreement")
+                .description("Default template for professional services engagements")
+                .content(BenchmarkFixtures.text("template-content.json"))
+                .docxBytes(docx)
+                .createdBy(legal)
+                .timesUsed(42)
+                .isActive(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public DraftResponse mapDraft() {
+        return draftService.mapToResponse(draft);
+    }
+
+    @Benchmark
+    public TemplateResponse mapTemplate() {
+        return templateService.mapToResponse(template);
+    }
+
+    @Benchmark
+    public ContractRequestResponse mapRequest() {
+        return requestService.mapToResponse(requests.get(1));
+    }
+
+    @Benchmark
+    public List<ContractRequestResponse> mapRequestPage() {
+        return requests.stream()
+                .map(requestService::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private static User user(Long id, String username, String fullName, String department) {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@company.com")
+                .password("password")
+                .fullName(fullName)
+                .department(department)
+                .role(User.UserRole.EMPLOYEE)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.contract.Backend.Service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text fallback parser: single-pass scanner vs the original split/regex implementation.
+ * Run with the gc profiler (the jmh profile adds it) to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextFallbackParserBenchmark {
+
+    @Param({
+            "numbered-plain",
+            "numbered-large",
+            "caps-headings",
+            "crlf-markdown",
+            "truncated-json",
+            "json-trailing-commas",
+            "prose-no-headings"
+    })
+    public String corpus;
+
+    private String response;
+
+    @Setup
+    public void load() {
+        response = ModelOutputCorpus.load(corpus);
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        bh.consume(ContractTextParser.parse(response));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        bh.consume(LegacyTextFallback.extractPreamble(response));
+        bh.consume(LegacyTextFallback.extractSectionsFromText(response));
+        bh.consume(LegacyTextFallback.extractConclusion(response));
+    }
+}
@@ -0,0 +1,21 @@
+package com.contract.Backend.Config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@link com.contract.Backend.Service.UserPrincipal} controller parameter to the user
+ * named by the X-USER header
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+
+    /**
+     * Query parameter naming the user when the header is absent, for clients such as
+     * EventSource that cannot set headers; none by default
+     */
+    String param() default "";
+}
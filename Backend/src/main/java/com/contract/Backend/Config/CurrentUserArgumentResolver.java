@@ -0,0 +1,57 @@
+package com.contract.Backend.Config;
+
+import com.contract.Backend.Service.UserDirectory;
+import com.contract.Backend.Service.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves {@link CurrentUser} parameters through the {@link UserDirectory}, once per request.
+ * A missing header is a 400 and a name that is no user a 401.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String HEADER = "X-USER";
+    private static final String ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".principal";
+
+    private final UserDirectory userDirectory;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && UserPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public UserPrincipal resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                         NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object resolved = webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved instanceof UserPrincipal principal) {
+            return principal;
+        }
+        CurrentUser annotation = parameter.getParameterAnnotation(CurrentUser.class);
+        String username = webRequest.getHeader(HEADER);
+        if ((username == null || username.isBlank()) && !annotation.param().isEmpty()) {
+            username = webRequest.getParameter(annotation.param());
+        }
+        if (username == null || username.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, annotation.param().isEmpty()
+                    ? HEADER + " header is required"
+                    : HEADER + " header or " + annotation.param() + " parameter is required");
+        }
+        UserPrincipal principal = userDirectory.find(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unknown user"));
+        webRequest.setAttribute(ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
+        return principal;
+    }
+}
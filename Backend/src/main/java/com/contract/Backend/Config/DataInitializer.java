@@ -3,6 +3,7 @@ import com.contract.Backend.Repository.UserRepository;
 import com.contract.Backend.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -13,9 +14,13 @@ public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
 
+    // Off in the fast-start profile: the seed users only matter on a fresh dev database
+    @Value("${app.seed-default-users:true}")
+    private boolean seedDefaultUsers;
+
     @Override
     public void run(String... args) {
-        if (userRepository.count() == 0) {
+        if (seedDefaultUsers && userRepository.count() == 0) {
             // Create employee user
             User employee = User.builder()
                     .username("employee")
@@ -0,0 +1,82 @@
+package com.contract.Backend.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Database instrumentation on top of what Actuator already provides (Spring Data
+ * repository timers, Hikari pool meters, Hibernate statistics): slow repository call
+ * logging, per-request statement counts and a pool saturation gauge.
+ */
+@Configuration
+public class DatabaseMetricsConfig {
+
+    /**
+     * Adds SlowRepositoryCallInterceptor to every repository proxy. Static so the post
+     * processor is registered before the repository factory beans are created; the meter
+     * registry is only looked up on the first slow call.
+     */
+    @Bean
+    static BeanPostProcessor slowRepositoryCallPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                             Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    Duration threshold = environment.getProperty("app.db.slow-query-threshold", Duration.class, Duration.ofMillis(200));
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new SlowRepositoryCallInterceptor(
+                                    repositoryInformation.getRepositoryInterface(), threshold, registry::getObject))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryStatsCustomizer() {
+        RequestQueryStats stats = new RequestQueryStats();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, stats);
+            properties.put(AvailableSettings.INTERCEPTOR, stats);
+        };
+    }
+
+    /**
+     * Share of the pool in use. Hikari's own meters report active and pending counts;
+     * this divides by the pool size so one alert threshold fits any pool configuration.
+     */
+    @Bean
+    public MeterBinder connectionPoolSaturation(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof HikariDataSource hikari) {
+                Gauge.builder("db.pool.saturation", hikari, DatabaseMetricsConfig::saturation)
+                        .description("Active connections divided by the maximum pool size")
+                        .tag("pool", String.valueOf(hikari.getPoolName()))
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null || hikari.getMaximumPoolSize() <= 0) {
+            return 0.0;
+        }
+        return (double) pool.getActiveConnections() / hikari.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,60 @@
+package com.contract.Backend.Config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes the Spring AI beans (Ollama chat and embedding models, the pgvector store and their
+ * auto-configurations) lazy, so startup and the non-AI endpoints do not wait for them; they
+ * are created on the first generation instead. Generation traffic still finds the model loaded,
+ * because the warm-up probes go through {@link com.contract.Backend.Service.OllamaClient}.
+ *
+ * Switched off with app.startup.lazy-ai-beans=false. With the AOT-processed context (fast-start
+ * profile) this runs at build time, so the setting is fixed when the jar is built.
+ */
+@Component
+public class LazyAiBeansConfig implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String AI_PACKAGE = "org.springframework.ai.";
+
+    private boolean enabled = true;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        enabled = environment.getProperty("app.startup.lazy-ai-beans", Boolean.class, true);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (!enabled) {
+            return;
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (isAiBean(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    /**
+     * Declared by a Spring AI class, or by a @Bean method of a Spring AI auto-configuration
+     */
+    private static boolean isAiBean(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        if (inAiPackage(definition.getBeanClassName())) {
+            return true;
+        }
+        String factoryBean = definition.getFactoryBeanName();
+        return factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)
+                && inAiPackage(beanFactory.getBeanDefinition(factoryBean).getBeanClassName());
+    }
+
+    private static boolean inAiPackage(String className) {
+        return className != null && className.startsWith(AI_PACKAGE);
+    }
+}
@@ -0,0 +1,31 @@
+package com.contract.Backend.Config;
+
+import com.contract.Backend.DTO.ContractChangeEvent;
+import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the native image (./mvnw -Pnative native:compile) that
+ * AOT processing cannot infer: the Hibernate JSON type named in @Type, the change-feed events
+ * Jackson writes to SSE streams, and the SQL script run at startup.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHints.Registrar.class)
+@RegisterReflectionForBinding(ContractChangeEvent.class)
+public class NativeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(JsonBinaryType.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.resources().registerPattern("db/schema-extras.sql");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.contract.Backend.Config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records SQL statements and entity loads per HTTP request, tagged by route, and warns
+ * when a single request issues more statements than expected (usually an N+1).
+ */
+@Component
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public QueryCountFilter(MeterRegistry registry,
+                            @Value("${app.db.queries-per-request-warn:25}") int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = RequestQueryStats.statements();
+            long entityLoads = RequestQueryStats.entityLoads();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("SQL statements issued per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry)
+                    .record(statements);
+            DistributionSummary.builder("http.server.requests.entity.loads")
+                    .description("Entities loaded per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(entityLoads);
+
+            if (statements > warnThreshold) {
+                log.warn("{} {} issued {} SQL statements and loaded {} entities (threshold {}), possible N+1",
+                        request.getMethod(), uri, statements, entityLoads, warnThreshold);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.contract.Backend.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generation quotas and scheduling, bound from app.generation.*
+ */
+@Component
+@ConfigurationProperties(prefix = "app.generation")
+@Data
+public class QuotaProperties {
+
+    private Limit user = new Limit(6, 3, 60_000, 20_000);
+    private Limit department = new Limit(30, 10, 400_000, 100_000);
+
+    /** Generations sent to the model at the same time */
+    private int maxConcurrent = 2;
+    /** Callers allowed to wait for a slot before new ones are turned away */
+    private int maxQueued = 32;
+    /** Retry-After sent when the queue is full */
+    private Duration queueFullRetryAfter = Duration.ofSeconds(15);
+    /** Fair-share weight per department; departments not listed get 1 */
+    private Map<String, Double> departmentWeights = new HashMap<>();
+
+    @Data
+    public static class Limit {
+        private double requestsPerMinute;
+        private double requestBurst;
+        private double tokensPerHour;
+        private double tokenBurst;
+
+        public Limit() {
+        }
+
+        Limit(double requestsPerMinute, double requestBurst, double tokensPerHour, double tokenBurst) {
+            this.requestsPerMinute = requestsPerMinute;
+            this.requestBurst = requestBurst;
+            this.tokensPerHour = tokensPerHour;
+            this.tokenBurst = tokenBurst;
+        }
+    }
+
+    public double weightOf(String department) {
+        return Math.max(0.01, departmentWeights.getOrDefault(department, 1.0));
+    }
+}
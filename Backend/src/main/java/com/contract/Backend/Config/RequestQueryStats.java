@@ -0,0 +1,44 @@
+package com.contract.Backend.Config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts SQL statements and entity loads on the current thread. Registered with Hibernate
+ * as both statement inspector and interceptor; QueryCountFilter resets and reads the
+ * counters around each HTTP request.
+ */
+public class RequestQueryStats implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    static void reset() {
+        long[] counters = COUNTERS.get();
+        counters[STATEMENTS] = 0;
+        counters[ENTITY_LOADS] = 0;
+    }
+
+    static long statements() {
+        return COUNTERS.get()[STATEMENTS];
+    }
+
+    static long entityLoads() {
+        return COUNTERS.get()[ENTITY_LOADS];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTERS.get()[STATEMENTS]++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        COUNTERS.get()[ENTITY_LOADS]++;
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.contract.Backend.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs (change feed heartbeats)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
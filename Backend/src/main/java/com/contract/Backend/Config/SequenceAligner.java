@@ -0,0 +1,52 @@
+package com.contract.Backend.Config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves each entity sequence past the highest existing id.
+ *
+ * Ids used to come from IDENTITY columns; ddl-auto creates the new sequences starting at 1,
+ * which would collide with rows inserted before the switch. Only touches a sequence that is
+ * behind its table.
+ *
+ * Runs once every singleton exists, so after Hibernate's schema update and schema-extras.sql,
+ * but still inside the context refresh: the web server only starts accepting requests after
+ * it, so no insert can draw an id from a sequence that has not been moved yet.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceAligner implements SmartInitializingSingleton {
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users_seq", "users",
+            "contract_requests_seq", "contract_requests",
+            "contract_drafts_seq", "contract_drafts",
+            "contract_templates_seq", "contract_templates");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SEQUENCES.forEach((sequence, table) -> {
+            // names are constants above, never user input
+            Long realigned = jdbcTemplate.query(
+                    "SELECT setval('" + sequence + "', m.max_id + " + ALLOCATION_SIZE + ") " +
+                    "FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM " + table + ") m, " + sequence + " s " +
+                    "WHERE s.last_value < m.max_id",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (realigned != null) {
+                log.info("Moved sequence {} to {} to clear existing ids in {}", sequence, realigned, table);
+            }
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.contract.Backend.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Logs repository calls slower than the configured threshold together with the shape of
+ * their bind parameters (types, string lengths, collection sizes) but never the values,
+ * so the log tells you which query and which kind of input without leaking contract data.
+ */
+@Slf4j
+class SlowRepositoryCallInterceptor implements MethodInterceptor {
+
+    private final String repository;
+    private final Duration threshold;
+    private final Supplier<MeterRegistry> registry;
+
+    SlowRepositoryCallInterceptor(Class<?> repositoryInterface, Duration threshold, Supplier<MeterRegistry> registry) {
+        this.repository = repositoryInterface.getSimpleName();
+        this.threshold = threshold;
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            if (elapsed > threshold.toNanos()) {
+                String method = invocation.getMethod().getName();
+                Counter.builder("repository.slow.invocations")
+                        .description("Repository calls slower than app.db.slow-query-threshold")
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .register(registry.get())
+                        .increment();
+                log.warn("Slow repository call {}.{}{} took {} ms (threshold {} ms)",
+                        repository, method, shapeOf(invocation.getArguments()),
+                        elapsed / 1_000_000, threshold.toMillis());
+            }
+        }
+    }
+
+    static String shapeOf(Object[] arguments) {
+        StringJoiner joiner = new StringJoiner(", ", "(", ")");
+        for (Object argument : arguments) {
+            joiner.add(shapeOf(argument));
+        }
+        return joiner.toString();
+    }
+
+    private static String shapeOf(Object argument) {
+        if (argument == null) {
+            return "null";
+        }
+        if (argument instanceof CharSequence text) {
+            return "String[len=" + text.length() + "]";
+        }
+        if (argument instanceof Collection<?> collection) {
+            return argument.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (argument instanceof Map<?, ?> map) {
+            return argument.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (argument instanceof Pageable pageable) {
+            return pageable.isPaged()
+                    ? "Page[number=" + pageable.getPageNumber() + ", size=" + pageable.getPageSize() + ", sort=" + pageable.getSort() + "]"
+                    : "Unpaged";
+        }
+        if (argument instanceof Enum<?> value) {
+            return value.getDeclaringClass().getSimpleName() + "." + value.name();
+        }
+        if (argument.getClass().isArray()) {
+            return argument.getClass().getComponentType().getSimpleName() + "[" + java.lang.reflect.Array.getLength(argument) + "]";
+        }
+        return argument.getClass().getSimpleName();
+    }
+}
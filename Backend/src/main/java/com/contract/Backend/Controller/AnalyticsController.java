@@ -0,0 +1,33 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.DTO.AnalyticsSummaryResponse;
+import com.contract.Backend.Service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<AnalyticsSummaryResponse> getSummary(
+            @RequestParam(value = "topTemplates", defaultValue = "5") int topTemplates) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(analyticsService.summary(Math.max(0, Math.min(topTemplates, 50))));
+    }
+
+    /**
+     * Recomputes the counters from the tables, for after manual data fixes
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<AnalyticsSummaryResponse> rebuild() {
+        analyticsService.rebuild();
+        return ResponseEntity.ok(analyticsService.summary(5));
+    }
+}
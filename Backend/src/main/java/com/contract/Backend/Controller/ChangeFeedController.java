@@ -0,0 +1,51 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.Config.CurrentUser;
+import com.contract.Backend.Service.ChangeFeedService;
+import com.contract.Backend.Service.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Server-sent events for the given views. EventSource cannot set headers, so the user
+     * and resume position may also come as the user and since query parameters.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @CurrentUser(param = "user") UserPrincipal user,
+            @RequestParam(value = "view", required = false) List<String> views,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "since", required = false) String since) {
+        return changeFeedService.subscribe(user.username(), parseViews(views), lastEventId != null ? lastEventId : since);
+    }
+
+    private Set<ChangeFeedService.View> parseViews(List<String> views) {
+        if (views == null || views.isEmpty()) {
+            return EnumSet.of(ChangeFeedService.View.ALL);
+        }
+        Set<ChangeFeedService.View> parsed = EnumSet.noneOf(ChangeFeedService.View.class);
+        for (String view : views) {
+            try {
+                parsed.add(ChangeFeedService.View.valueOf(view.trim().toUpperCase().replace('-', '_')));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown view: " + view);
+            }
+        }
+        return parsed;
+    }
+}
@@ -3,11 +3,16 @@ package com.contract.Backend.Controller;
 import com.contract.Backend.DTO.ContractDraftRequest;
 import com.contract.Backend.DTO.ContractDraftResponse;
 import com.contract.Backend.Service.ContractService;
+import com.contract.Backend.Service.DocxRenderService;
+import com.contract.Backend.Service.ModelWarmupService;
+import com.contract.Backend.Service.QuotaExceededException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.util.HashMap;
@@ -23,29 +28,43 @@ import java.util.Map;
 public class ContractController {
 
     private final ContractService contractService;
+    private final ModelWarmupService modelWarmupService;
+    private final DocxRenderService docxRenderService;
 
-    public ContractController(ContractService contractService) {
+    public ContractController(ContractService contractService,
+                              ModelWarmupService modelWarmupService,
+                              DocxRenderService docxRenderService) {
         this.contractService = contractService;
+        this.modelWarmupService = modelWarmupService;
+        this.docxRenderService = docxRenderService;
     }
 
     /**
      * Generate a contract draft based on user input
      * 
      * @param request Contract draft request containing type, parties, and prompt
-     * @return Structured contract response with formatted content
+     * @param username Caller, used for per-user and per-department generation quotas
+     * @return Structured contract response with formatted content, or 429 with Retry-After when over quota
      */
     @PostMapping("/draft")
-    public ResponseEntity<?> generateContractDraft( @RequestBody ContractDraftRequest request) {
+    public ResponseEntity<?> generateContractDraft( @RequestBody ContractDraftRequest request,
+                                                    @RequestHeader(value = "X-USER", required = false) String username) {
         try {
 
             
             // Generate the contract draft using AI service
-            ContractDraftResponse response = contractService.generateContractDraft(request);
-            
+            ContractDraftResponse response = contractService.generateContractDraft(request, username);
+            // The DOCX download usually follows; have it ready in the render cache
+            docxRenderService.prerender(response);
 
-            
             return ResponseEntity.ok(response);
             
+        } catch (QuotaExceededException e) {
+
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)))
+                    .body(quotaErrorResponse(e));
+
         } catch (IllegalArgumentException e) {
 
             return ResponseEntity.badRequest()
@@ -59,15 +78,26 @@ public class ContractController {
     }
 
     /**
-     * Health check endpoint for the contract service
+     * DOCX of a generated draft, laid out like the editor shows it. Served from the render
+     * cache when the draft was generated by this instance.
+     */
+    @PostMapping("/docx")
+    public ResponseEntity<StreamingResponseBody> renderDraftDocx(@RequestBody ContractDraftResponse response) {
+        DocxRenderService.Source docx = docxRenderService.generated(response);
+        return DraftController.docxResponse(docx.title()).body(out -> docxRenderService.write(docx, out));
+    }
+
+    /**
+     * Health check endpoint for the contract service: 503 until the models have warmed up
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> healthCheck() {
+        boolean ready = modelWarmupService.isReady();
         Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", ready ? "UP" : "WARMING_UP");
         response.put("service", "Contract Service");
         response.put("timestamp", java.time.LocalDateTime.now().toString());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 
     /**
@@ -84,6 +114,17 @@ public class ContractController {
     /**
      * Create standardized error response
      */
+    /**
+     * 429 body naming the exhausted limit, e.g. scope "department" and resource "tokens"
+     */
+    private Map<String, Object> quotaErrorResponse(QuotaExceededException e) {
+        Map<String, Object> errorResponse = createErrorResponse("Generation quota exceeded", e.getMessage());
+        errorResponse.put("scope", e.getScope());
+        errorResponse.put("resource", e.getResource());
+        errorResponse.put("retryAfterSeconds", Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000));
+        return errorResponse;
+    }
+
     private Map<String, Object> createErrorResponse(String error, String message) {
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("error", error);
@@ -0,0 +1,53 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.DTO.ContractDiffResponse;
+import com.contract.Backend.Service.CollectionVersions;
+import com.contract.Backend.Service.ContractDiffService;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/diff")
+@RequiredArgsConstructor
+public class ContractDiffController {
+
+    private final ContractDiffService diffService;
+
+    /**
+     * Compares two stored contracts, e.g. left=template:3&right=draft:12
+     */
+    @GetMapping
+    public ResponseEntity<ContractDiffResponse> diffStored(
+            @RequestParam("left") String left,
+            @RequestParam("right") String right,
+            WebRequest webRequest) {
+        ContractDiffService.Side leftSide = diffService.stored(left);
+        ContractDiffService.Side rightSide = diffService.stored(right);
+        // Same two contents, same diff
+        if (webRequest.checkNotModified(CollectionVersions.weakETag("diff",
+                leftSide.hash().substring(0, 16), rightSide.hash().substring(0, 16)))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(diffService.diff(leftSide, rightSide));
+    }
+
+    /**
+     * Compares two editor documents sent as {"left": {...}, "right": {...}}, e.g. unsaved
+     * edits against the stored draft
+     */
+    @PostMapping
+    public ResponseEntity<ContractDiffResponse> diffDocuments(@RequestBody JsonNode body) {
+        if (!body.path("left").isObject() || !body.path("right").isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected {\"left\": {...}, \"right\": {...}}");
+        }
+        return ResponseEntity.ok(diffService.diff(diffService.document(body.get("left")), diffService.document(body.get("right"))));
+    }
+}
@@ -1,15 +1,26 @@
 package com.contract.Backend.Controller;
 
+import com.contract.Backend.Config.CurrentUser;
+import com.contract.Backend.DTO.BulkStatusUpdateRequest;
+import com.contract.Backend.DTO.BulkStatusUpdateResponse;
 import com.contract.Backend.DTO.ContractRequestDTO;
+import com.contract.Backend.DTO.ContractRequestFilter;
 import com.contract.Backend.DTO.ContractRequestResponse;
+import com.contract.Backend.DTO.ContractRequestSearchResponse;
+import com.contract.Backend.Service.CollectionVersions;
+import com.contract.Backend.Service.ContractRequestSearchService;
 import com.contract.Backend.Service.ContractRequestService;
+import com.contract.Backend.Service.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,51 +31,107 @@ import java.util.List;
 public class ContractRequestController {
 
     private final ContractRequestService contractRequestService;
+    private final ContractRequestSearchService searchService;
+    private final CollectionVersions collectionVersions;
 
     @PostMapping
     public ResponseEntity<ContractRequestResponse> createRequest(
             @Valid @RequestBody ContractRequestDTO request,
-            @RequestHeader("X-USER") String username) {
+            @CurrentUser UserPrincipal user) {
 
-        ContractRequestResponse response = contractRequestService.createRequest(request, username);
+        ContractRequestResponse response = contractRequestService.createRequest(request, user);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ContractRequestResponse>> createRequests(
+            @RequestBody List<@Valid ContractRequestDTO> requests,
+            @CurrentUser UserPrincipal user) {
+        return ResponseEntity.ok(contractRequestService.createRequests(requests, user));
+    }
+
+    @PutMapping("/bulk/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(contractRequestService.updateStatuses(request));
+    }
+
     @GetMapping("/my-requests")
     public ResponseEntity<List<ContractRequestResponse>> getMyRequests(
-            @RequestHeader("X-USER") String username) {
-
-        List<ContractRequestResponse> requests = contractRequestService.getMyRequests(username);
-        return ResponseEntity.ok(requests);
+            @CurrentUser UserPrincipal user,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "my:" + user.username())) {
+            return null;
+        }
+        List<ContractRequestResponse> requests = contractRequestService.getMyRequests(user);
+        return listResponse().varyBy("X-USER").body(requests);
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<ContractRequestResponse>> getPendingRequests() {
+    public ResponseEntity<List<ContractRequestResponse>> getPendingRequests(WebRequest webRequest) {
+        if (notModified(webRequest, "pending")) {
+            return null;
+        }
         List<ContractRequestResponse> requests = contractRequestService.getPendingRequests();
-        return ResponseEntity.ok(requests);
+        return listResponse().body(requests);
     }
 
     @GetMapping("/assigned")
     public ResponseEntity<List<ContractRequestResponse>> getAssignedRequests(
-            @RequestHeader("X-USER") String username) {
-        List<ContractRequestResponse> requests = contractRequestService.getAssignedRequests(username);
-        return ResponseEntity.ok(requests);
+            @CurrentUser UserPrincipal user,
+            WebRequest webRequest) {
+        if (notModified(webRequest, "assigned:" + user.username())) {
+            return null;
+        }
+        List<ContractRequestResponse> requests = contractRequestService.getAssignedRequests(user);
+        return listResponse().varyBy("X-USER").body(requests);
+    }
+
+    /**
+     * Filtered page of requests with facet counts, e.g. ?status=pending&tag=nda&dueTo=2025-12-31
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ContractRequestSearchResponse> searchRequests(
+            ContractRequestFilter filter,
+            WebRequest webRequest) {
+        // The due facet moves with the date
+        if (notModified(webRequest, "search:" + LocalDate.now() + ":" + filter)) {
+            return null;
+        }
+        return listResponse().body(searchService.search(filter));
     }
 
     @GetMapping("/unassigned")
-    public ResponseEntity<List<ContractRequestResponse>> getUnassignedRequests() {
+    public ResponseEntity<List<ContractRequestResponse>> getUnassignedRequests(WebRequest webRequest) {
+        if (notModified(webRequest, "unassigned")) {
+            return null;
+        }
         List<ContractRequestResponse> requests = contractRequestService.getUnassignedRequests();
-        return ResponseEntity.ok(requests);
+        return listResponse().body(requests);
     }
 
     @PutMapping("/{id}/assign")
     public ResponseEntity<ContractRequestResponse> assignRequest(
             @PathVariable Long id,
-            @RequestHeader("X-USER") String username) {
-        ContractRequestResponse response = contractRequestService.assignRequest(id, username);
+            @CurrentUser UserPrincipal user) {
+        ContractRequestResponse response = contractRequestService.assignRequest(id, user);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Claims the next request from the unassigned queue for the caller.
+     * Returns 204 when nothing matches.
+     */
+    @PostMapping("/claim-next")
+    public ResponseEntity<ContractRequestResponse> claimNext(
+            @CurrentUser UserPrincipal user,
+            @RequestParam(value = "contractType", required = false) List<String> contractTypes,
+            @RequestParam(value = "skill", required = false) List<String> skills) {
+        return contractRequestService.claimNext(user, contractTypes, skills)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<ContractRequestResponse> updateStatus(
             @PathVariable Long id,
@@ -74,6 +141,21 @@ public class ContractRequestController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ContractRequestResponse> getRequestById(@PathVariable Long id) {
-        return ResponseEntity.ok(contractRequestService.getRequestById(id));
+        ContractRequestResponse request = contractRequestService.getRequestById(id);
+        return ResponseEntity.ok()
+                .eTag(CollectionVersions.weakETag("request", request.getId(), request.getUpdatedAt()))
+                .cacheControl(CacheControl.noCache())
+                .body(request);
+    }
+
+    /**
+     * Answers If-None-Match from the requests version stamp, before any query runs
+     */
+    private boolean notModified(WebRequest webRequest, String view) {
+        return webRequest.checkNotModified(collectionVersions.weakETag(CollectionVersions.Collection.REQUESTS, view));
+    }
+
+    private static ResponseEntity.BodyBuilder listResponse() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache());
     }
 }
\ No newline at end of file
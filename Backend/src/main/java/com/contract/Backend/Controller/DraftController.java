@@ -1,18 +1,35 @@
 package com.contract.Backend.Controller;
 
+import com.contract.Backend.Config.CurrentUser;
+import com.contract.Backend.DTO.DraftPatchResponse;
 import com.contract.Backend.DTO.DraftResponse;
+import com.contract.Backend.DTO.ExtractedDocument;
 import com.contract.Backend.DTO.SaveDraftRequest;
+import com.contract.Backend.Service.CollectionVersions;
+import com.contract.Backend.Service.DocxExtractionService;
+import com.contract.Backend.Service.DocxRenderService;
+import com.contract.Backend.Service.DraftAutosaveService;
+import com.contract.Backend.Service.DraftConflictException;
 import com.contract.Backend.Service.DraftService;
+import com.contract.Backend.Service.UserPrincipal;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/drafts")
@@ -22,41 +39,144 @@ import java.util.List;
 public class DraftController {
 
     private final DraftService draftService;
+    private final DraftAutosaveService draftAutosaveService;
+    private final CollectionVersions collectionVersions;
+    private final DocxRenderService docxRenderService;
+    private final DocxExtractionService docxExtractionService;
 
     @PostMapping
     public ResponseEntity<DraftResponse> saveDraft(
             @Valid @RequestBody SaveDraftRequest request,
-            @RequestHeader("X-USER") String username) {
-        DraftResponse response = draftService.saveDraft(request, username);
+            @CurrentUser UserPrincipal user) {
+        DraftResponse response = draftService.saveDraft(request, user);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Autosave: applies an RFC 6902 JSON Patch to the draft. The revision the patch was made
+     * against comes from If-Match (the ETag of the previous PATCH) or the revision parameter.
+     * If earlier patches could not be saved the reply is 409 with the server revision (also as
+     * the ETag) and the unsaved document, to be rebased and patched against that revision.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/json-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchDraft(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(value = "revision", required = false) Long revision,
+            @RequestBody JsonNode patch) {
+        try {
+            DraftPatchResponse response = draftAutosaveService.patch(id, baseRevision(id, ifMatch, revision), patch);
+            return ResponseEntity.ok()
+                    .eTag(CollectionVersions.strongETag("draft", id, response.getRevision()))
+                    .body(response);
+        } catch (DraftConflictException e) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("error", "Autosaved revisions not saved");
+            body.put("message", e.getReason());
+            body.put("serverRevision", e.getServerRevision());
+            body.put("final", e.isFinalDraft());
+            body.put("unsavedRevision", e.getUnsavedRevision());
+            body.put("unsavedDocument", e.getUnsavedDocument());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .eTag(CollectionVersions.strongETag("draft", id, e.getServerRevision()))
+                    .body(body);
+        }
+    }
+
     @GetMapping("/my")
     public ResponseEntity<List<DraftResponse>> getMyDrafts(
-            @RequestHeader("X-USER") String username) {
-        return ResponseEntity.ok(draftService.getMyDrafts(username));
+            @CurrentUser UserPrincipal user,
+            WebRequest webRequest) {
+        // 304 straight from the version stamp, no query
+        if (webRequest.checkNotModified(collectionVersions.weakETag(CollectionVersions.Collection.DRAFTS, "my:" + user.username()))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy("X-USER")
+                .body(draftService.getMyDrafts(user));
     }
 
     @GetMapping("/by-request/{id}")
-    public ResponseEntity<List<DraftResponse>> getDraftsByRequest(@PathVariable Long id) {
-        return ResponseEntity.ok(draftService.getDraftsByRequest(id));
+    public ResponseEntity<List<DraftResponse>> getDraftsByRequest(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersions.weakETag(CollectionVersions.Collection.DRAFTS, "request:" + id))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(draftService.getDraftsByRequest(id));
     }
 
     @PostMapping("/complete-request/{requestId}")
     public ResponseEntity<DraftResponse> completeRequestWithDraft(
             @PathVariable Long requestId,
             @RequestParam("draftId") Long draftId,
-            @RequestHeader("X-USER") String username) {
-        return ResponseEntity.ok(draftService.markRequestCompletedWithDraft(requestId, draftId, username));
+            @CurrentUser UserPrincipal user) {
+        return ResponseEntity.ok(draftService.markRequestCompletedWithDraft(requestId, draftId, user));
     }
 
+    /**
+     * DOCX of the draft's current content, rendered on the server (and cached by content
+     * hash). source=uploaded returns the file uploaded with the draft instead, if there is one.
+     */
     @GetMapping("/{id}/docx")
-    public ResponseEntity<byte[]> downloadDraftDocx(@PathVariable Long id) {
-        byte[] bytes = draftService.getDraftDocx(id);
-        String title = draftService.getDraftTitle(id);
+    public ResponseEntity<StreamingResponseBody> downloadDraftDocx(
+            @PathVariable Long id,
+            @RequestParam(value = "source", defaultValue = "rendered") String source,
+            WebRequest webRequest) {
+        if ("uploaded".equals(source)) {
+            byte[] bytes = draftService.getDraftDocx(id);
+            return docxResponse(draftService.getDraftTitle(id)).body(out -> out.write(bytes));
+        }
+        DocxRenderService.Source docx = docxRenderService.draft(id);
+        if (webRequest.checkNotModified(CollectionVersions.strongETag("docx", docx.key().substring(0, 32)))) {
+            return null;
+        }
+        return docxResponse(docx.title()).body(out -> docxRenderService.write(docx, out));
+    }
+
+    /**
+     * Renders an editor document (TipTap JSON) that has not been saved, e.g. the editor's
+     * current state
+     */
+    @PostMapping("/docx")
+    public ResponseEntity<StreamingResponseBody> renderDocx(
+            @RequestParam(value = "title", defaultValue = "contract-draft") String title,
+            @RequestBody JsonNode document) {
+        DocxRenderService.Source docx = docxRenderService.document(title, document);
+        return docxResponse(docx.title()).body(out -> docxRenderService.write(docx, out));
+    }
+
+    /**
+     * Headings, clauses and paragraphs of the DOCX uploaded with the draft
+     */
+    @GetMapping("/{id}/sections")
+    public ResponseEntity<ExtractedDocument> getDraftSections(@PathVariable Long id) {
+        return ResponseEntity.ok(docxExtractionService.sections(DocxExtractionService.Owner.DRAFT, id));
+    }
+
+    static ResponseEntity.BodyBuilder docxResponse(String title) {
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + title + ".docx\"")
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.wordprocessingml.document"))
-                .body(bytes);
+                .contentType(MediaType.parseMediaType(DocxRenderService.CONTENT_TYPE));
+    }
+
+    private static long baseRevision(Long id, String ifMatch, Long revision) {
+        if (ifMatch != null) {
+            String prefix = "\"draft-" + id + "-";
+            String tag = ifMatch.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException ignored) {
+                    // falls through to 412
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a revision of draft " + id);
+        }
+        if (revision == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED, "Send If-Match or the revision parameter");
+        }
+        return revision;
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.DTO.EmbeddingIndexStatus;
+import com.contract.Backend.Service.EmbeddingIndexer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/embeddings")
+@RequiredArgsConstructor
+public class EmbeddingIndexController {
+
+    private final EmbeddingIndexer embeddingIndexer;
+
+    @GetMapping("/status")
+    public ResponseEntity<List<EmbeddingIndexStatus>> getStatus() {
+        return ResponseEntity.ok(embeddingIndexer.status());
+    }
+
+    /**
+     * Queues every template or draft for re-embedding on the next pass, e.g. after switching
+     * the embedding model
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<List<EmbeddingIndexStatus>> reindex(@RequestParam("kind") String kind) {
+        embeddingIndexer.reindex(kind);
+        return ResponseEntity.accepted().body(embeddingIndexer.status());
+    }
+}
@@ -0,0 +1,26 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.Service.GenerationMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/generation) summarising model latency, time-to-first-token,
+ * tokens/sec, token counts, parse time and fallback rates per model
+ */
+@Component
+@Endpoint(id = "generation")
+@RequiredArgsConstructor
+public class GenerationEndpoint {
+
+    private final GenerationMetrics generationMetrics;
+
+    @ReadOperation
+    public Map<String, Object> generation() {
+        return generationMetrics.snapshot();
+    }
+}
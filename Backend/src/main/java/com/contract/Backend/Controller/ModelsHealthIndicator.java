@@ -0,0 +1,41 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.Service.ModelWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * "models" health contributor: OUT_OF_SERVICE until every configured model has answered its
+ * warm-up probe. Part of the readiness group, so traffic is only routed to a warm instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class ModelsHealthIndicator implements HealthIndicator {
+
+    private final ModelWarmupService modelWarmupService;
+
+    @Override
+    public Health health() {
+        if (!modelWarmupService.isEnabled()) {
+            return Health.up().withDetail("warmup", "disabled").build();
+        }
+        Health.Builder builder = modelWarmupService.isReady() ? Health.up() : Health.outOfService();
+        modelWarmupService.getModels().forEach((model, state) -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("warm", state.isWarm());
+            details.put("loadDurationMs", state.getLoadDurationMillis());
+            details.put("lastProbeMs", state.getProbeMillis());
+            details.put("lastProbeAt", state.getLastProbeAt());
+            if (state.getLastError() != null) {
+                details.put("lastError", state.getLastError());
+            }
+            builder.withDetail(model, details);
+        });
+        return builder.build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.DTO.SlaEvent;
+import com.contract.Backend.Service.SlaTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/sla")
+@RequiredArgsConstructor
+public class SlaController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final SlaTracker slaTracker;
+
+    @GetMapping("/summary")
+    public ResponseEntity<Map<String, Long>> getSummary() {
+        return ResponseEntity.ok(slaTracker.summary());
+    }
+
+    @GetMapping("/requests")
+    public ResponseEntity<List<SlaEvent>> getRequestsInStage(
+            @RequestParam(value = "stage", defaultValue = "overdue") String stage,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(slaTracker.requestsInStage(parseStage(stage), clamp(limit)));
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<List<SlaEvent>> getRecentEvents(
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(slaTracker.recentEvents(clamp(limit)));
+    }
+
+    private static SlaEvent.Stage parseStage(String stage) {
+        try {
+            return SlaEvent.Stage.valueOf(stage.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown stage: " + stage);
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(0, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,50 @@
+package com.contract.Backend.Controller;
+
+import com.contract.Backend.Config.CurrentUser;
+import com.contract.Backend.DTO.TemplateImportJob;
+import com.contract.Backend.Service.TemplateImportService;
+import com.contract.Backend.Service.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Bulk import of templates from a zip archive or a server-side directory; jobs run in the
+ * background and are polled for progress
+ */
+@RestController
+@RequestMapping("/api/v1/templates/import")
+@RequiredArgsConstructor
+public class TemplateImportController {
+
+    private final TemplateImportService importService;
+
+    @PostMapping(consumes = {"application/zip", "application/octet-stream"})
+    public ResponseEntity<TemplateImportJob> importArchive(
+            InputStream archive,
+            @CurrentUser UserPrincipal user) throws IOException {
+        return ResponseEntity.accepted().body(importService.importArchive(archive, user));
+    }
+
+    @PostMapping(params = "directory")
+    public ResponseEntity<TemplateImportJob> importDirectory(
+            @RequestParam("directory") String directory,
+            @CurrentUser UserPrincipal user) {
+        return ResponseEntity.accepted().body(importService.importDirectory(directory, user));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TemplateImportJob> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(importService.status(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<TemplateImportJob> resumeImport(
+            @PathVariable Long id,
+            @CurrentUser UserPrincipal user) {
+        return ResponseEntity.accepted().body(importService.resume(id, user));
+    }
+}
@@ -1,15 +1,23 @@
 package com.contract.Backend.Controller;
 
+import com.contract.Backend.Config.CurrentUser;
+import com.contract.Backend.DTO.ExtractedDocument;
 import com.contract.Backend.DTO.SaveTemplateRequest;
 import com.contract.Backend.DTO.TemplateResponse;
+import com.contract.Backend.Service.CollectionVersions;
+import com.contract.Backend.Service.DocxExtractionService;
+import com.contract.Backend.Service.DocxRenderService;
 import com.contract.Backend.Service.TemplateLibraryService;
+import com.contract.Backend.Service.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,25 +30,41 @@ import java.util.List;
 public class TemplateLibraryController {
 
     private final TemplateLibraryService templateService;
+    private final CollectionVersions collectionVersions;
+    private final DocxExtractionService docxExtractionService;
 
     @PostMapping
     public ResponseEntity<TemplateResponse> saveTemplate(
             @Valid @RequestBody SaveTemplateRequest request,
-            @RequestHeader("X-USER") String username) {
-        TemplateResponse response = templateService.saveTemplate(request, username);
+            @CurrentUser UserPrincipal user) {
+        TemplateResponse response = templateService.saveTemplate(request, user);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<TemplateResponse>> importTemplates(
+            @RequestBody List<@Valid SaveTemplateRequest> requests,
+            @CurrentUser UserPrincipal user) {
+        return ResponseEntity.ok(templateService.saveTemplates(requests, user));
+    }
+
     @GetMapping
-    public ResponseEntity<List<TemplateResponse>> getAllTemplates() {
+    public ResponseEntity<List<TemplateResponse>> getAllTemplates(WebRequest webRequest) {
+        // 304 straight from the version stamp, no query
+        if (webRequest.checkNotModified(collectionVersions.weakETag(CollectionVersions.Collection.TEMPLATES, "active"))) {
+            return null;
+        }
         List<TemplateResponse> templates = templateService.getAllTemplates();
-        return ResponseEntity.ok(templates);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(templates);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TemplateResponse> getTemplate(@PathVariable Long id) {
         TemplateResponse template = templateService.getTemplateById(id);
-        return ResponseEntity.ok(template);
+        return ResponseEntity.ok()
+                .eTag(CollectionVersions.weakETag("template", template.getId(), template.getUpdatedAt()))
+                .cacheControl(CacheControl.noCache())
+                .body(template);
     }
 
     @PutMapping("/{id}")
@@ -66,11 +90,19 @@ public class TemplateLibraryController {
 
     @GetMapping("/{id}/docx")
     public ResponseEntity<byte[]> downloadTemplateDocx(@PathVariable Long id) {
-        byte[] bytes = templateLibraryService.getTemplateDocx(id);
-        String title = templateLibraryService.getTemplateTitle(id);
+        byte[] bytes = templateService.getTemplateDocx(id);
+        String title = templateService.getTemplateTitle(id);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + title + ".docx\"")
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.wordprocessingml.document"))
+                .contentType(MediaType.parseMediaType(DocxRenderService.CONTENT_TYPE))
                 .body(bytes);
     }
-}
\ No newline at end of file
+
+    /**
+     * Headings, clauses and paragraphs of the DOCX uploaded with the template
+     */
+    @GetMapping("/{id}/sections")
+    public ResponseEntity<ExtractedDocument> getTemplateSections(@PathVariable Long id) {
+        return ResponseEntity.ok(docxExtractionService.sections(DocxExtractionService.Owner.TEMPLATE, id));
+    }
+}
@@ -1,5 +1,7 @@
 package com.contract.Backend.Controller;
+import com.contract.Backend.DTO.UserSearchResponse;
 import com.contract.Backend.Repository.UserRepository;
+import com.contract.Backend.Service.UserDirectory;
 import com.contract.Backend.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +18,7 @@ import java.util.List;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
 
     /**
      * Get all users
@@ -25,6 +28,19 @@ public class UserController {
         return ResponseEntity.ok(userRepository.findAll());
     }
 
+    /**
+     * Search for assignment pickers: matches username, full name, email and department,
+     * optionally only users with the given role (EMPLOYEE or LEGAL_TEAM)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<UserSearchResponse> searchUsers(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "role", required = false) User.UserRole role,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(userDirectory.search(query, role, page, size));
+    }
+
     /**
      * Get user by ID
      */
@@ -49,6 +65,8 @@ public class UserController {
     public ResponseEntity<User> addUser(@RequestBody User user) {
         log.info("Creating new user: {}", user.getUsername());
         User savedUser = userRepository.save(user);
+        // save() also overwrites an existing user when the body carries its id
+        userDirectory.invalidate(savedUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedUser);
     }
 }
\ No newline at end of file
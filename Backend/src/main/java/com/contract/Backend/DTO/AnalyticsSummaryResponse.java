@@ -0,0 +1,36 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsSummaryResponse {
+    private long totalRequests;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byPriority;
+    private Map<String, Long> byContractType;
+    private Map<String, Long> byDepartment; // department of the requester
+    private long completedRequests;
+    private Double averageTurnaroundHours; // createdAt to COMPLETED, null until something completes
+    private long finalDrafts;
+    private List<TemplateUsage> topTemplates;
+    private LocalDateTime asOf;
+
+    @Data
+    @Builder
+    public static class TemplateUsage {
+        private Long id;
+        private String title;
+        private String contractType;
+        private Long timesUsed;
+    }
+}
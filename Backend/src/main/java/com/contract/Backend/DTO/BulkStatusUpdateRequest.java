@@ -0,0 +1,23 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateRequest {
+
+    @NotEmpty(message = "At least one request id is required")
+    private List<Long> ids;
+
+    @NotBlank(message = "Status is required")
+    private String status; // PENDING, IN_PROGRESS, COMPLETED, REJECTED
+}
@@ -0,0 +1,39 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A change to a contract request or draft, pushed to clients by the change feed.
+ * Carries just enough to filter per user and to refresh the affected row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ContractChangeEvent {
+
+    public enum Type {
+        REQUEST_CREATED, REQUEST_ASSIGNED, REQUEST_STATUS_CHANGED, DRAFT_SAVED
+    }
+
+    // Position in the feed, assigned when the event is published after commit
+    private long offset;
+    private Type type;
+    private Long requestId;
+    private Long draftId;
+    private String status;
+    private LocalDate dueDate;
+    // Usernames
+    private String requestedBy;
+    private String assignedTo;
+    private String actor;
+    // The request is, or was until this change, in the unassigned queue
+    private boolean unassignedQueue;
+    private LocalDateTime occurredAt;
+}
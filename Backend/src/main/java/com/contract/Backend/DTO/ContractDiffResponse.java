@@ -0,0 +1,47 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Section-by-section comparison of two contracts, with word-level changes inside the sections
+ * that were matched
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractDiffResponse {
+
+    private String leftHash; // SHA-256 of each side's content, the cache key
+    private String rightHash;
+    private int wordsInserted;
+    private int wordsDeleted;
+    private int sectionsChanged; // modified, added or removed
+    private List<SectionDiff> sections;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SectionDiff {
+        private String status; // UNCHANGED, MODIFIED, ADDED or REMOVED
+        private String leftTitle;
+        private String rightTitle;
+        private double similarity; // of the two sections' words, 0 to 1
+        private List<Span> spans;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Span {
+        private String op; // EQUAL, DELETE or INSERT
+        private String text;
+    }
+}
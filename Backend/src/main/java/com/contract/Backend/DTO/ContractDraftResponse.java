@@ -23,6 +23,8 @@ public class ContractDraftResponse {
     private String partyA;
     private String partyB;
     private LocalDateTime generatedAt;
+    // Correlation id, matches the generationId in the server logs for this draft
+    private String generationId;
     
     // Contract sections
     private String preamble;
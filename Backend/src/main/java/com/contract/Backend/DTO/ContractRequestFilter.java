@@ -0,0 +1,39 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filters for GET /api/v1/requests/search, bound from query parameters. Values of one
+ * dimension are alternatives (any may match); dimensions are combined with AND. Empty lists
+ * do not filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractRequestFilter {
+
+    private List<String> status; // pending, in_progress, completed, rejected
+    private List<String> priority; // low, medium, high
+    private List<String> contractType;
+    private List<String> tag;
+    private List<String> department; // of the requester
+    private boolean noDepartment; // also requesters without a department
+    private List<String> assignee; // usernames
+    private boolean unassigned; // also requests without an assignee
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom; // inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo; // inclusive
+    @Builder.Default
+    private int page = 0;
+    @Builder.Default
+    private int size = 20;
+}
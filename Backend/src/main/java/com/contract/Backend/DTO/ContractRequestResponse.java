@@ -28,6 +28,8 @@ public class ContractRequestResponse {
     private LocalDateTime updatedAt;
 
     @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
     @Builder
     public static class UserInfo {
         private Long id;
@@ -0,0 +1,27 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of filtered contract requests, newest first, with facet counts
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractRequestSearchResponse {
+
+    private List<ContractRequestResponse> requests;
+    private long total; // requests matching every filter
+    private int page;
+    private int size;
+    // Per dimension (status, priority, contractType, tag, department, assignee, due), the
+    // number of requests per value, counted with every filter except that dimension's own
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,22 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One heading, numbered clause or paragraph of an uploaded DOCX, in document order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSection {
+
+    private int position;
+    private String kind; // HEADING, CLAUSE or PARAGRAPH
+    private int level; // heading level (0 for Title), clause depth from 1, 0 for paragraphs
+    private String number; // e.g. "4.2." or "(a)", null if none
+    private String text;
+}
@@ -0,0 +1,18 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DraftPatchResponse {
+    private Long id;
+    // Revision after this patch; send it with the next one
+    private long revision;
+    // Latest revision written to the database, behind revision while a write is pending
+    private long persistedRevision;
+}
@@ -17,6 +17,7 @@ public class DraftResponse {
     private String contractType;
     private String content;
     private Integer version;
+    private Long revision;
     private Boolean isFinal;
     private Long requestId;
     private Boolean hasDocx;
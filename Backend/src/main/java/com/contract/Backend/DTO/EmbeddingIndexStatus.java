@@ -0,0 +1,24 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background embedding indexer for one kind of entity
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmbeddingIndexStatus {
+
+    private String kind; // template or draft
+    private long indexed; // entities with a current embedding
+    private long cursor; // last id of the pass in progress, 0 between passes
+    private LocalDateTime lastPassCompletedAt;
+    private String lastError;
+}
@@ -0,0 +1,27 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Text extracted from the DOCX uploaded with a template or draft
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExtractedDocument {
+
+    private String ownerKind; // template or draft
+    private Long ownerId;
+    private String status; // PENDING, DONE or FAILED
+    private int sectionCount;
+    private String error;
+    private LocalDateTime extractedAt;
+    private List<DocumentSection> sections;
+}
@@ -0,0 +1,30 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An open request's position against its due date: either an event the SLA tracker raised
+ * or the current state of a tracked request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlaEvent {
+
+    public enum Stage {
+        ON_TRACK, AT_RISK, OVERDUE, ESCALATED
+    }
+
+    private Long requestId;
+    private Stage stage;
+    private LocalDate dueDate;
+    private String assignedTo; // username, null while unassigned
+    private LocalDateTime since;
+}
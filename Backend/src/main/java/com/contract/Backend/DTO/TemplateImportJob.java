@@ -0,0 +1,42 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk template import, as of its last persisted batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TemplateImportJob {
+
+    private Long id;
+    private String source; // archive or directory being imported
+    private String status; // RUNNING, DONE, FAILED or INTERRUPTED
+    private int files; // files processed so far
+    private int imported;
+    private int duplicates; // same bytes as a file imported before
+    private int failed;
+    private int templates; // templates created; a JSON file may hold several
+    private double filesPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private List<FileError> failures; // the first few
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FileError {
+        private String name;
+        private String error;
+    }
+}
@@ -19,6 +19,6 @@ public class TemplateResponse {
     private String content;
     private Integer timesUsed;
     private Boolean hasDocx;
-    private String createdAt;
+    private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
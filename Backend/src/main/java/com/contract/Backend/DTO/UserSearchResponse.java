@@ -0,0 +1,39 @@
+package com.contract.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user directory search, best matches first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchResponse {
+
+    private List<UserSummary> users;
+    private int page;
+    private int size;
+    private boolean hasMore; // another page exists; no total is counted
+
+    /**
+     * What an assignment picker shows for a user
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class UserSummary {
+        private Long id;
+        private String username;
+        private String fullName;
+        private String email;
+        private String department;
+        private String role; // EMPLOYEE or LEGAL_TEAM
+    }
+}
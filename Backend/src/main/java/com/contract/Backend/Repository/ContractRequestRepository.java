@@ -2,8 +2,12 @@ package com.contract.Backend.Repository;
 import com.contract.Backend.model.ContractRequest;
 import com.contract.Backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,20 @@ public interface ContractRequestRepository extends JpaRepository<ContractRequest
     List<ContractRequest> findByAssignedTo(User user);
     List<ContractRequest> findByStatus(ContractRequest.RequestStatus status);
     List<ContractRequest> findByAssignedToIsNull();
+
+    /**
+     * Assigns the request only if nobody holds it yet (or the caller already does)
+     *
+     * @return 1 if assigned, 0 if it is held by someone else or does not exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE ContractRequest r
+            SET r.assignedTo = :user, r.status = :status, r.updatedAt = :now, r.completedAt = null
+            WHERE r.id = :id AND (r.assignedTo IS NULL OR r.assignedTo = :user)
+            """)
+    int assignIfUnclaimed(@Param("id") Long id,
+                          @Param("user") User user,
+                          @Param("status") ContractRequest.RequestStatus status,
+                          @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,287 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.AnalyticsSummaryResponse;
+import com.contract.Backend.Repository.ContractTemplateRepository;
+import com.contract.Backend.model.ContractRequest;
+import com.contract.Backend.model.ContractTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard aggregates kept as in-memory counters, so reading them costs the same whatever
+ * the size of the tables.
+ *
+ * The request and draft services report each change (creation, status transition, final
+ * draft, template use) and the deltas are applied once the transaction commits. Counters are
+ * checkpointed to analytics_counters every app.analytics.checkpoint-ms and on shutdown. A
+ * clean shutdown marks the checkpoint as exact; after a crash (or on an empty checkpoint)
+ * they are rebuilt from the tables once at startup.
+ *
+ * Like {@link CollectionVersions} the counters are per instance; several instances behind a
+ * load balancer would each only see their own writes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsService {
+
+    static final String STATUS = "status.";
+    static final String PRIORITY = "priority.";
+    static final String CONTRACT_TYPE = "contract_type.";
+    static final String DEPARTMENT = "department.";
+    static final String TEMPLATE = "template.";
+    static final String COMPLETED = "completed.count";
+    static final String TURNAROUND_SECONDS = "completed.turnaround_seconds";
+    static final String FINAL_DRAFTS = "drafts.final";
+    private static final String CLEAN_SHUTDOWN = "checkpoint.clean";
+    private static final String UNKNOWN_DEPARTMENT = "Unknown";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ContractTemplateRepository templateRepository;
+
+    @Value("${app.analytics.rebuild-after-unclean-stop:true}")
+    private boolean rebuildAfterUncleanStop;
+
+    private volatile Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    @PostConstruct
+    void load() {
+        Map<String, Long> checkpoint = new HashMap<>();
+        jdbcTemplate.query("SELECT name, value FROM analytics_counters",
+                (RowCallbackHandler) rs -> checkpoint.put(rs.getString(1), rs.getLong(2)));
+        boolean clean = Long.valueOf(1).equals(checkpoint.remove(CLEAN_SHUTDOWN));
+
+        if (checkpoint.isEmpty() || (!clean && rebuildAfterUncleanStop)) {
+            rebuild();
+        } else {
+            counters = toAdders(checkpoint);
+            log.info("Loaded {} analytics counters from checkpoint{}", checkpoint.size(), clean ? "" : " (unclean stop, may be behind)");
+        }
+        // From here on only a clean shutdown makes the checkpoint exact again
+        writeCheckpoint(false);
+    }
+
+    /**
+     * Recomputes every counter with GROUP BY queries over the tables. Runs at startup when
+     * the checkpoint cannot be trusted; writes committing while it runs may be counted twice
+     * or not at all, so run it by hand only when the system is quiet.
+     */
+    public void rebuild() {
+        Map<String, Long> values = new HashMap<>();
+        groupCount(values, STATUS, "SELECT status, count(*) FROM contract_requests GROUP BY status");
+        groupCount(values, PRIORITY, "SELECT priority, count(*) FROM contract_requests GROUP BY priority");
+        groupCount(values, CONTRACT_TYPE, "SELECT contract_type, count(*) FROM contract_requests GROUP BY contract_type");
+        groupCount(values, DEPARTMENT, "SELECT COALESCE(u.department, '" + UNKNOWN_DEPARTMENT + "'), count(*) " +
+                "FROM contract_requests cr JOIN users u ON u.id = cr.requested_by GROUP BY 1");
+        groupCount(values, TEMPLATE, "SELECT id, times_used FROM contract_templates WHERE times_used > 0");
+        jdbcTemplate.query("SELECT count(*), COALESCE(SUM(EXTRACT(EPOCH FROM completed_at - created_at)), 0) " +
+                        "FROM contract_requests WHERE status = 'COMPLETED' AND completed_at IS NOT NULL",
+                (RowCallbackHandler) rs -> {
+                    values.put(COMPLETED, rs.getLong(1));
+                    values.put(TURNAROUND_SECONDS, rs.getLong(2));
+                });
+        values.put(FINAL_DRAFTS, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM contract_drafts WHERE is_final = true", Long.class));
+
+        counters = toAdders(values);
+        jdbcTemplate.update("DELETE FROM analytics_counters");
+        writeCheckpoint(false);
+        log.info("Rebuilt {} analytics counters from the tables", values.size());
+    }
+
+    public void recordCreated(ContractRequest request) {
+        Map<String, Long> delta = new HashMap<>();
+        delta.put(STATUS + request.getStatus().name(), 1L);
+        delta.put(PRIORITY + request.getPriority().name(), 1L);
+        delta.put(CONTRACT_TYPE + request.getContractType(), 1L);
+        delta.put(DEPARTMENT + department(request), 1L);
+        applyAfterCommit(delta);
+    }
+
+    /**
+     * Moves the request to {@code status}, stamping or clearing completedAt, and counts the
+     * transition. Use this instead of setStatus wherever the status changes.
+     */
+    public void applyStatus(ContractRequest request, ContractRequest.RequestStatus status) {
+        ContractRequest.RequestStatus previous = request.getStatus();
+        if (previous == status) {
+            return;
+        }
+        LocalDateTime completedBefore = request.getCompletedAt();
+        request.setStatus(status);
+        request.setCompletedAt(status == ContractRequest.RequestStatus.COMPLETED ? LocalDateTime.now() : null);
+        recordTransition(previous, completedBefore, request);
+    }
+
+    /**
+     * Counts a status change made outside {@link #applyStatus}, e.g. by a conditional UPDATE
+     *
+     * @param completedBefore completedAt before the change
+     * @param after           the request as it is now
+     */
+    public void recordTransition(ContractRequest.RequestStatus previous, LocalDateTime completedBefore, ContractRequest after) {
+        if (previous == after.getStatus()) {
+            return;
+        }
+        Map<String, Long> delta = new HashMap<>();
+        delta.merge(STATUS + previous.name(), -1L, Long::sum);
+        delta.merge(STATUS + after.getStatus().name(), 1L, Long::sum);
+        if (previous == ContractRequest.RequestStatus.COMPLETED && completedBefore != null) {
+            delta.merge(COMPLETED, -1L, Long::sum);
+            delta.merge(TURNAROUND_SECONDS, -secondsBetween(after.getCreatedAt(), completedBefore), Long::sum);
+        }
+        if (after.getStatus() == ContractRequest.RequestStatus.COMPLETED && after.getCompletedAt() != null) {
+            delta.merge(COMPLETED, 1L, Long::sum);
+            delta.merge(TURNAROUND_SECONDS, secondsBetween(after.getCreatedAt(), after.getCompletedAt()), Long::sum);
+        }
+        applyAfterCommit(delta);
+    }
+
+    public void recordFinalDraft() {
+        applyAfterCommit(Map.of(FINAL_DRAFTS, 1L));
+    }
+
+    public void recordTemplateUse(Long templateId) {
+        applyAfterCommit(Map.of(TEMPLATE + templateId, 1L));
+    }
+
+    public AnalyticsSummaryResponse summary(int topTemplates) {
+        Map<String, Long> values = new HashMap<>();
+        counters.forEach((name, adder) -> values.put(name, adder.sum()));
+
+        Map<String, Long> byStatus = dimension(values, STATUS, name -> name.toLowerCase());
+        long completed = values.getOrDefault(COMPLETED, 0L);
+        long turnaroundSeconds = values.getOrDefault(TURNAROUND_SECONDS, 0L);
+
+        return AnalyticsSummaryResponse.builder()
+                .totalRequests(byStatus.values().stream().mapToLong(Long::longValue).sum())
+                .byStatus(byStatus)
+                .byPriority(dimension(values, PRIORITY, name -> name.toLowerCase()))
+                .byContractType(dimension(values, CONTRACT_TYPE, Function.identity()))
+                .byDepartment(dimension(values, DEPARTMENT, Function.identity()))
+                .completedRequests(completed)
+                .averageTurnaroundHours(completed > 0 ? turnaroundSeconds / 3600.0 / completed : null)
+                .finalDrafts(values.getOrDefault(FINAL_DRAFTS, 0L))
+                .topTemplates(topTemplates(values, topTemplates))
+                .asOf(LocalDateTime.now())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.checkpoint-ms:30000}",
+            initialDelayString = "${app.analytics.checkpoint-ms:30000}")
+    public void checkpoint() {
+        if (dirty) {
+            writeCheckpoint(false);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writeCheckpoint(true);
+        log.info("Wrote final analytics checkpoint");
+    }
+
+    private void applyAfterCommit(Map<String, Long> delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    private void apply(Map<String, Long> delta) {
+        Map<String, LongAdder> current = counters;
+        delta.forEach((name, amount) -> current.computeIfAbsent(name, k -> new LongAdder()).add(amount));
+        dirty = true;
+    }
+
+    private synchronized void writeCheckpoint(boolean clean) {
+        dirty = false;
+        List<Object[]> rows = new ArrayList<>();
+        counters.forEach((name, adder) -> rows.add(new Object[]{name, adder.sum()}));
+        rows.add(new Object[]{CLEAN_SHUTDOWN, clean ? 1L : 0L});
+        jdbcTemplate.batchUpdate("INSERT INTO analytics_counters (name, value, updated_at) VALUES (?, ?, now()) " +
+                "ON CONFLICT (name) DO UPDATE SET value = EXCLUDED.value, updated_at = EXCLUDED.updated_at", rows);
+    }
+
+    private void groupCount(Map<String, Long> values, String prefix, String sql) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> values.put(prefix + rs.getString(1), rs.getLong(2)));
+    }
+
+    private List<AnalyticsSummaryResponse.TemplateUsage> topTemplates(Map<String, Long> values, int limit) {
+        Map<Long, Long> uses = values.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(TEMPLATE) && entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(entry -> Long.valueOf(entry.getKey().substring(TEMPLATE.length())),
+                        Map.Entry::getValue));
+        // Only the few top ids are looked up, never the whole table
+        return templateRepository.findAllById(uses.keySet()).stream()
+                .filter(ContractTemplate::getIsActive)
+                .map(template -> AnalyticsSummaryResponse.TemplateUsage.builder()
+                        .id(template.getId())
+                        .title(template.getTitle())
+                        .contractType(template.getContractType())
+                        .timesUsed(uses.get(template.getId()))
+                        .build())
+                .sorted(Comparator.comparing(AnalyticsSummaryResponse.TemplateUsage::getTimesUsed).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Long> dimension(Map<String, Long> values, String prefix, Function<String, String> label) {
+        Map<String, Long> result = new TreeMap<>();
+        values.forEach((name, value) -> {
+            if (name.startsWith(prefix) && value != 0) {
+                result.merge(label.apply(name.substring(prefix.length())), value, Long::sum);
+            }
+        });
+        return result;
+    }
+
+    private static Map<String, LongAdder> toAdders(Map<String, Long> values) {
+        Map<String, LongAdder> adders = new ConcurrentHashMap<>();
+        values.forEach((name, value) -> {
+            LongAdder adder = new LongAdder();
+            adder.add(value);
+            adders.put(name, adder);
+        });
+        return adders;
+    }
+
+    private static String department(ContractRequest request) {
+        String department = request.getRequestedBy().getDepartment();
+        return department != null ? department : UNKNOWN_DEPARTMENT;
+    }
+
+    private static long secondsBetween(LocalDateTime from, LocalDateTime to) {
+        return from != null && to != null ? Duration.between(from, to).getSeconds() : 0;
+    }
+}
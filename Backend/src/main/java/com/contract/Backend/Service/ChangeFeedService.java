@@ -0,0 +1,303 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent change feed for the request queue and drafts.
+ *
+ * Services publish {@link ContractChangeEvent}s; once their transaction commits the event
+ * gets the next offset, goes into a bounded ring buffer and is queued for every subscriber
+ * whose views match. Event ids are "epoch-offset": a client reconnecting with Last-Event-ID
+ * gets the events it missed replayed from the buffer, or a "reset" event (refetch
+ * everything) if the server restarted or the buffer no longer reaches back that far.
+ *
+ * One dispatcher thread fans events out in offset order (each fan-out is queued under the
+ * lock that assigns its offset), but it only appends to each subscriber's pending queue and
+ * never writes to a connection. A subscriber's queue is
+ * drained by one sender task at a time, so a slow client only holds back its own events. A
+ * subscriber whose queue reaches {@code app.events.subscriber-queue} is dropped and
+ * reconnects with Last-Event-ID like after any other disconnect. Idle subscribers cost an
+ * async servlet request and an entry in a set, no thread.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    public enum View {
+        MY_REQUESTS, ASSIGNED, UNASSIGNED, MY_DRAFTS, ALL
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final ContractChangeEvent[] ring;
+    private long nextOffset = 1;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // threads only live while some subscriber has events queued
+    private final ExecutorService senders = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "change-feed-send");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter evicted;
+
+    public ChangeFeedService(@Value("${app.events.buffer-size:10000}") int bufferSize,
+                             @Value("${app.events.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${app.events.subscriber-queue:256}") int maxPending,
+                             MeterRegistry registry) {
+        this.ring = new ContractChangeEvent[bufferSize];
+        this.timeoutMillis = timeoutMillis;
+        this.maxPending = maxPending;
+        Gauge.builder("contract.events.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(registry);
+        this.evicted = Counter.builder("contract.events.evicted")
+                .description("Change feed connections dropped because the client fell behind")
+                .register(registry);
+    }
+
+    private final class Subscriber {
+        final String username;
+        final Set<View> views;
+        final SseEmitter emitter;
+        // guarded by this: events and control messages waiting to be written
+        private final Deque<Object> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        // only touched by the running sender task
+        long lastSent;
+
+        Subscriber(String username, Set<View> views, SseEmitter emitter) {
+            this.username = username;
+            this.views = views;
+            this.emitter = emitter;
+        }
+
+        boolean wants(ContractChangeEvent event) {
+            for (View view : views) {
+                boolean match = switch (view) {
+                    case ALL -> true;
+                    case MY_REQUESTS -> username.equals(event.getRequestedBy());
+                    case ASSIGNED -> username.equals(event.getAssignedTo());
+                    case UNASSIGNED -> event.isUnassignedQueue();
+                    case MY_DRAFTS -> event.getType() == ContractChangeEvent.Type.DRAFT_SAVED
+                            && username.equals(event.getActor());
+                };
+                if (match) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Queues {@code items} and starts a sender if none is running
+         *
+         * @param bounded whether to refuse when the queue is already at its limit
+         * @return false if refused
+         */
+        synchronized boolean offer(List<?> items, boolean bounded) {
+            if (closed) {
+                return true;
+            }
+            if (bounded && pending.size() + items.size() > maxPending) {
+                return false;
+            }
+            pending.addAll(items);
+            if (!draining) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+            return true;
+        }
+
+        synchronized Object next() {
+            Object item = closed ? null : pending.poll();
+            if (item == null) {
+                draining = false;
+            }
+            return item;
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        private void drain() {
+            try {
+                for (Object item = next(); item != null; item = next()) {
+                    if (item instanceof ContractChangeEvent event) {
+                        // replay and fan-out can both carry an event committed while the subscriber registered
+                        if (event.getOffset() <= lastSent) {
+                            continue;
+                        }
+                        emitter.send(SseEmitter.event()
+                                .id(epoch + "-" + event.getOffset())
+                                .name(event.getType().name().toLowerCase())
+                                .data(event));
+                        lastSent = event.getOffset();
+                    } else {
+                        emitter.send((SseEmitter.SseEventBuilder) item);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(this, e);
+            }
+        }
+    }
+
+    /**
+     * Opens a feed for the user. {@code lastEventId} is the Last-Event-ID header (or the
+     * since parameter) of a reconnecting client, null on first connect.
+     */
+    public SseEmitter subscribe(String username, Set<View> views, String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(username, views, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        List<Object> first = new ArrayList<>();
+        synchronized (this) {
+            // registering under the offset lock: every later event is fanned out to the
+            // subscriber, every earlier one is in the replay below
+            long oldest = Math.max(1, nextOffset - ring.length);
+            long from = resumeOffset(lastEventId);
+            boolean reset = false;
+            if (lastEventId == null || lastEventId.isBlank()) {
+                // first connect: the client has just loaded its lists, only new events matter
+                subscriber.lastSent = nextOffset - 1;
+            } else if (from < 0 || from + 1 < oldest) {
+                reset = true;
+                subscriber.lastSent = nextOffset - 1;
+            } else {
+                subscriber.lastSent = from;
+            }
+            // Carries an id so that even a client that has seen no events yet can resume
+            first.add(SseEmitter.event()
+                    .id(epoch + "-" + subscriber.lastSent)
+                    .name(reset ? "reset" : "ready")
+                    .data(reset ? "Missed events are no longer available, reload" : "connected"));
+            for (long offset = subscriber.lastSent + 1; offset < nextOffset; offset++) {
+                ContractChangeEvent event = ring[(int) (offset % ring.length)];
+                if (subscriber.wants(event)) {
+                    first.add(event);
+                }
+            }
+            // queued before the subscriber is visible to the dispatcher, so no live event can
+            // overtake the replay; the replay may be longer than the live queue limit
+            subscriber.offer(first, false);
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ContractChangeEvent change) {
+        synchronized (this) {
+            ContractChangeEvent event = change.toBuilder().offset(nextOffset).build();
+            ring[(int) (nextOffset % ring.length)] = event;
+            nextOffset++;
+            // queued under the lock, so fan-outs reach the dispatcher in offset order
+            dispatcher.execute(() -> {
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.wants(event)) {
+                        enqueue(subscriber, event);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Comment line to every subscriber so proxies keep idle connections open and dead ones
+     * are noticed
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        dispatcher.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Offset to resume after, -1 when the id is missing, from another server run or unreadable
+     */
+    private long resumeOffset(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        int dash = lastEventId.indexOf('-');
+        try {
+            if (dash < 0 || Long.parseLong(lastEventId.substring(0, dash)) != epoch) {
+                return -1;
+            }
+            long offset = Long.parseLong(lastEventId.substring(dash + 1));
+            return offset >= nextOffset ? -1 : offset;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Object item) {
+        if (!subscriber.offer(List.of(item), true)) {
+            evicted.increment();
+            drop(subscriber, new IOException("Client fell " + maxPending + " events behind"));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.close();
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        log.debug("Dropping change feed subscriber {}: {}", subscriber.username, e.getMessage());
+        remove(subscriber);
+        subscriber.emitter.completeWithError(e);
+    }
+}
@@ -0,0 +1,94 @@
+package com.contract.Backend.Service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version stamps for the polled collections, bumped by the services after every
+ * committed write. List endpoints turn them into weak ETags so an unchanged poll is answered
+ * with 304 before any query runs.
+ *
+ * Stamps start from the boot time, so ETags handed out before a restart never match again.
+ * They are per instance; running several instances behind a load balancer needs a shared
+ * counter instead.
+ */
+@Component
+public class CollectionVersions {
+
+    public enum Collection {
+        REQUESTS, TEMPLATES, DRAFTS
+    }
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+
+    public CollectionVersions() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    /**
+     * Bumps the collections once the current transaction commits, or right away outside one.
+     * Bumping after commit means a poll can never cache a stamp for data it could not see yet.
+     */
+    public void bumpAfterCommit(Collection... collections) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(collections);
+                }
+            });
+        } else {
+            bump(collections);
+        }
+    }
+
+    public long version(Collection collection) {
+        return versions.get(collection).get();
+    }
+
+    /**
+     * Weak ETag for a view of the collection. Read it before querying: a write that commits
+     * in between then only costs the client one extra full response.
+     *
+     * @param view distinguishes views of the same collection, e.g. "pending" or "my:alice"
+     */
+    public String weakETag(Collection collection, String view) {
+        return "W/\"" + collection.name().toLowerCase() + "-" + epoch + "-" + version(collection)
+                + "-" + Integer.toHexString(view.hashCode()) + "\"";
+    }
+
+    /**
+     * Weak ETag for a single JSON resource, from its id and updatedAt. Weak because the same
+     * representation may be sent gzipped or not, and Tomcat does not compress responses
+     * that carry a strong ETag; If-None-Match compares weakly anyway.
+     */
+    public static String weakETag(String kind, Object... parts) {
+        return "W/" + strongETag(kind, parts);
+    }
+
+    /**
+     * Strong ETag, for validators used with If-Match (draft revisions) and for byte-exact
+     * downloads
+     */
+    public static String strongETag(String kind, Object... parts) {
+        StringBuilder tag = new StringBuilder("\"").append(kind);
+        for (Object part : parts) {
+            tag.append('-').append(part);
+        }
+        return tag.append('"').toString();
+    }
+
+    private void bump(Collection... collections) {
+        for (Collection collection : collections) {
+            versions.get(collection).incrementAndGet();
+        }
+    }
+}
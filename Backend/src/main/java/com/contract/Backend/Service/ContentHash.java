@@ -0,0 +1,42 @@
+package com.contract.Backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 fingerprints of text and file content
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    public static String sha256Hex(String content) {
+        return HexFormat.of().formatHex(sha256(content));
+    }
+
+    public static String sha256Hex(byte[] content) {
+        return HexFormat.of().formatHex(sha256(content));
+    }
+
+    /**
+     * First {@code hexChars} hex digits of the SHA-256, enough to tell payloads apart in logs
+     */
+    public static String shortSha256(String content, int hexChars) {
+        return sha256Hex(content).substring(0, hexChars);
+    }
+
+    public static byte[] sha256(String content) {
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
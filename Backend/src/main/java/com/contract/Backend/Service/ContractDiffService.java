@@ -0,0 +1,330 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDiffResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Compares two contracts (templates, drafts or unsaved editor documents) section by section.
+ *
+ * Each side is split into sections at its headings. Sections are aligned in order, preferring
+ * pairs whose titles match once numbering is ignored, then pairs whose words overlap by at
+ * least MIN_SIMILARITY (Jaccard); the rest are reported as added or removed. Matched sections
+ * are compared word by word with {@link WordDiff}.
+ *
+ * Results are cached by the SHA-256 of both sides' content, LRU within
+ * app.diff.cache.max-entries, so comparing the same two versions again costs the two content
+ * reads only. The cache is per instance.
+ */
+@Service
+public class ContractDiffService {
+
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final Pattern NUMBERING = Pattern.compile("^(?:(?:section|article|clause)\\s+)?\\d+(?:\\.\\d+)*[.)]?\\s*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * One side of a comparison; {@code hash} identifies its content
+     */
+    public record Side(String hash, Supplier<JsonNode> document) {
+    }
+
+    record Section(String title, String key, String[] words, Set<String> vocabulary) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DraftAutosaveService draftAutosaveService;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, ContractDiffResponse> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+    public ContractDiffService(JdbcTemplate jdbcTemplate,
+                               DraftAutosaveService draftAutosaveService,
+                               ObjectMapper objectMapper,
+                               MeterRegistry registry,
+                               @Value("${app.diff.cache.max-entries:256}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.draftAutosaveService = draftAutosaveService;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("contract.diff.cache").tag("result", "hit")
+                .description("Contract diffs by cache outcome").register(registry);
+        this.misses = Counter.builder("contract.diff.cache").tag("result", "miss")
+                .description("Contract diffs by cache outcome").register(registry);
+    }
+
+    /**
+     * A stored contract, named as template:{id} or draft:{id}; a draft includes autosave
+     * patches not written yet
+     */
+    public Side stored(String reference) {
+        String[] parts = reference.split(":", 2);
+        Long id;
+        try {
+            id = parts.length == 2 ? Long.valueOf(parts[1]) : null;
+        } catch (NumberFormatException e) {
+            id = null;
+        }
+        if (id == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected template:{id} or draft:{id}, got " + reference);
+        }
+        return switch (parts[0]) {
+            case "template" -> load("contract_templates", "Template", id);
+            case "draft" -> {
+                draftAutosaveService.flush(id);
+                yield load("contract_drafts", "Draft", id);
+            }
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected template:{id} or draft:{id}, got " + reference);
+        };
+    }
+
+    /**
+     * An editor document sent by the client
+     */
+    public Side document(JsonNode document) {
+        return new Side(ContentHash.sha256Hex(document.toString()), () -> document);
+    }
+
+    public ContractDiffResponse diff(Side left, Side right) {
+        String key = left.hash() + ":" + right.hash();
+        ContractDiffResponse cached = cached(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        ContractDiffResponse response = compare(sections(left.document().get()), sections(right.document().get()));
+        response.setLeftHash(left.hash());
+        response.setRightHash(right.hash());
+        put(key, response);
+        return response;
+    }
+
+    static ContractDiffResponse compare(List<Section> left, List<Section> right) {
+        List<ContractDiffResponse.SectionDiff> diffs = new ArrayList<>();
+        int inserted = 0;
+        int deleted = 0;
+        int changed = 0;
+        int i = 0;
+        int j = 0;
+        for (int[] pair : align(left, right)) {
+            for (; i < pair[0]; i++) {
+                diffs.add(unmatched("REMOVED", left.get(i), null));
+                deleted += left.get(i).words().length;
+                changed++;
+            }
+            for (; j < pair[1]; j++) {
+                diffs.add(unmatched("ADDED", null, right.get(j)));
+                inserted += right.get(j).words().length;
+                changed++;
+            }
+            if (pair[0] == left.size()) {
+                break; // the sentinel
+            }
+            Section l = left.get(i++);
+            Section r = right.get(j++);
+            List<ContractDiffResponse.Span> spans = new ArrayList<>();
+            boolean modified = !l.title().equals(r.title());
+            for (WordDiff.Span span : WordDiff.diff(l.words(), r.words())) {
+                String[] words = span.op() == WordDiff.Op.INSERT ? r.words() : l.words();
+                spans.add(new ContractDiffResponse.Span(span.op().name(),
+                        String.join(" ", Arrays.copyOfRange(words, span.from(), span.to()))));
+                if (span.op() == WordDiff.Op.INSERT) {
+                    inserted += span.length();
+                    modified = true;
+                } else if (span.op() == WordDiff.Op.DELETE) {
+                    deleted += span.length();
+                    modified = true;
+                }
+            }
+            if (modified) {
+                changed++;
+            }
+            diffs.add(ContractDiffResponse.SectionDiff.builder()
+                    .status(modified ? "MODIFIED" : "UNCHANGED")
+                    .leftTitle(l.title())
+                    .rightTitle(r.title())
+                    .similarity(similarity(l, r))
+                    .spans(spans)
+                    .build());
+        }
+        return ContractDiffResponse.builder()
+                .wordsInserted(inserted)
+                .wordsDeleted(deleted)
+                .sectionsChanged(changed)
+                .sections(diffs)
+                .build();
+    }
+
+    /**
+     * Order-preserving alignment with the highest total score, by dynamic programming over
+     * the two section lists; returns the matched index pairs in order, followed by a sentinel
+     * pair at the ends of both lists
+     */
+    static List<int[]> align(List<Section> left, List<Section> right) {
+        int n = left.size();
+        int m = right.size();
+        double[][] best = new double[n + 1][m + 1];
+        double[][] score = new double[n][m];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                score[i][j] = score(left.get(i), right.get(j));
+                double skip = Math.max(best[i + 1][j], best[i][j + 1]);
+                best[i][j] = score[i][j] > 0 ? Math.max(skip, best[i + 1][j + 1] + score[i][j]) : skip;
+            }
+        }
+        List<int[]> pairs = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            if (score[i][j] > 0 && best[i][j] == best[i + 1][j + 1] + score[i][j]) {
+                pairs.add(new int[]{i++, j++});
+            } else if (best[i][j] == best[i + 1][j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        pairs.add(new int[]{n, m});
+        return pairs;
+    }
+
+    /**
+     * How well two sections match; 0 means they are not candidates
+     */
+    private static double score(Section left, Section right) {
+        double similarity = similarity(left, right);
+        if (!left.key().isEmpty() && left.key().equals(right.key())) {
+            return 1 + similarity;
+        }
+        return similarity >= MIN_SIMILARITY ? similarity : 0;
+    }
+
+    private static double similarity(Section left, Section right) {
+        Set<String> smaller = left.vocabulary().size() <= right.vocabulary().size() ? left.vocabulary() : right.vocabulary();
+        Set<String> larger = smaller == left.vocabulary() ? right.vocabulary() : left.vocabulary();
+        if (larger.isEmpty()) {
+            return left.key().equals(right.key()) ? 1 : 0;
+        }
+        int common = 0;
+        for (String word : smaller) {
+            if (larger.contains(word)) {
+                common++;
+            }
+        }
+        return (double) common / (smaller.size() + larger.size() - common);
+    }
+
+    /**
+     * Splits an editor (TipTap) document at its headings; text before the first heading is a
+     * section with an empty title
+     */
+    static List<Section> sections(JsonNode document) {
+        List<Section> sections = new ArrayList<>();
+        String title = "";
+        StringBuilder body = new StringBuilder();
+        for (JsonNode block : document.path("content")) {
+            if ("heading".equals(block.path("type").asText())) {
+                addSection(sections, title, body);
+                StringBuilder heading = new StringBuilder();
+                appendText(block, heading);
+                title = WHITESPACE.matcher(heading).replaceAll(" ").strip();
+                body.setLength(0);
+            } else {
+                appendText(block, body);
+            }
+        }
+        addSection(sections, title, body);
+        return sections;
+    }
+
+    private static void addSection(List<Section> sections, String title, StringBuilder body) {
+        String text = body.toString().strip();
+        if (title.isEmpty() && text.isEmpty()) {
+            return;
+        }
+        String[] words = text.isEmpty() ? new String[0] : WHITESPACE.split(text);
+        Set<String> vocabulary = new HashSet<>();
+        for (String word : words) {
+            vocabulary.add(word.toLowerCase(Locale.ROOT));
+        }
+        String key = NUMBERING.matcher(title.toLowerCase(Locale.ROOT)).replaceFirst("").strip();
+        sections.add(new Section(title, key, words, vocabulary));
+    }
+
+    private static void appendText(JsonNode node, StringBuilder text) {
+        if (node.has("text")) {
+            // marks split text into nodes in the middle of words
+            text.append(node.get("text").asText());
+            return;
+        }
+        for (JsonNode child : node.path("content")) {
+            appendText(child, text);
+        }
+        // blocks and hard breaks separate words
+        text.append(' ');
+    }
+
+    private static ContractDiffResponse.SectionDiff unmatched(String status, Section left, Section right) {
+        Section section = left != null ? left : right;
+        return ContractDiffResponse.SectionDiff.builder()
+                .status(status)
+                .leftTitle(left != null ? left.title() : null)
+                .rightTitle(right != null ? right.title() : null)
+                .spans(section.words().length == 0 ? List.of() : List.of(new ContractDiffResponse.Span(
+                        left != null ? "DELETE" : "INSERT", String.join(" ", section.words()))))
+                .build();
+    }
+
+    private Side load(String table, String label, Long id) {
+        String content = jdbcTemplate.query("SELECT content::text FROM " + table + " WHERE id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, id);
+        if (content == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, label + " not found");
+        }
+        return new Side(ContentHash.sha256Hex(content), () -> {
+            try {
+                return objectMapper.readTree(content);
+            } catch (JsonProcessingException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, label + " " + id + " content is not valid JSON");
+            }
+        });
+    }
+
+    private synchronized ContractDiffResponse cached(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void put(String key, ContractDiffResponse response) {
+        cache.put(key, response);
+        Iterator<Map.Entry<String, ContractDiffResponse>> eldest = cache.entrySet().iterator();
+        while (cache.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
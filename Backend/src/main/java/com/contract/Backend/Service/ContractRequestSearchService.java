@@ -0,0 +1,236 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractRequestFilter;
+import com.contract.Backend.DTO.ContractRequestSearchResponse;
+import com.contract.Backend.model.ContractRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Faceted search over contract requests.
+ *
+ * One statement returns the page, the total and every facet as a single JSON document, so a
+ * search is one round trip whatever the filters. Each filter is a predicate over the request
+ * (r), its requester (rb) and its assignee (a), added only when the filter is set. The page and
+ * total use all of them; each facet uses all but its own dimension, so with status=pending the
+ * status facet still shows how many requests each other status would give. Tag filters and
+ * counts go through contract_request_tags and its (tag, request_id) index
+ * (db/schema-extras.sql).
+ *
+ * Requests without an assignee, and requesters without a department, are counted under the
+ * empty key of their facet and selected with the unassigned and noDepartment flags rather than
+ * a value, which could be a real username or department.
+ */
+@Service
+public class ContractRequestSearchService {
+
+    private static final String FROM = " FROM contract_requests r"
+            + " JOIN users rb ON rb.id = r.requested_by"
+            + " LEFT JOIN users a ON a.id = r.assigned_to";
+
+    private static final String REQUEST_JSON = """
+            json_build_object(
+                'id', r.id, 'title', r.title, 'contractType', r.contract_type, 'description', r.description,
+                'status', lower(r.status), 'priority', lower(r.priority),
+                'requestedBy', json_build_object('id', rb.id, 'fullName', rb.full_name, 'email', rb.email, 'department', rb.department),
+                'assignedTo', CASE WHEN a.id IS NULL THEN NULL
+                    ELSE json_build_object('id', a.id, 'fullName', a.full_name, 'email', a.email, 'department', a.department) END,
+                'dueDate', r.due_date,
+                'tags', (SELECT coalesce(json_agg(t.tag), '[]') FROM contract_request_tags t WHERE t.request_id = r.id),
+                'createdAt', r.created_at, 'updatedAt', r.updated_at)""";
+
+    enum Facet {
+        STATUS("status", "lower(r.status)"),
+        PRIORITY("priority", "lower(r.priority)"),
+        CONTRACT_TYPE("contractType", "r.contract_type"),
+        TAG("tag", "t.tag"),
+        DEPARTMENT("department", "coalesce(rb.department, '')"),
+        ASSIGNEE("assignee", "coalesce(a.username, '')"),
+        DUE("due", "CASE WHEN r.due_date IS NULL THEN 'none'"
+                + " WHEN r.due_date < :today THEN 'overdue'"
+                + " WHEN r.due_date < :weekEnd THEN 'next7days' ELSE 'later' END");
+
+        final String key;
+        final String value;
+
+        Facet(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int facetValues;
+
+    public ContractRequestSearchService(NamedParameterJdbcTemplate jdbcTemplate,
+                                        ObjectMapper objectMapper,
+                                        @Value("${app.requests.search.max-page-size:100}") int maxPageSize,
+                                        @Value("${app.requests.search.facet-values:20}") int facetValues) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.facetValues = facetValues;
+    }
+
+    @Transactional(readOnly = true)
+    public ContractRequestSearchResponse search(ContractRequestFilter filter) {
+        if (filter.getPage() < 0 || filter.getSize() < 1 || filter.getSize() > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be 0 or more and size between 1 and " + maxPageSize);
+        }
+        LocalDate today = LocalDate.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("today", today)
+                .addValue("weekEnd", today.plusDays(7))
+                .addValue("facetValues", facetValues)
+                .addValue("limit", filter.getSize())
+                .addValue("offset", (long) filter.getPage() * filter.getSize());
+        Map<Facet, String> predicates = predicates(filter, params);
+
+        String all = where(predicates, null);
+        StringBuilder sql = new StringBuilder("SELECT json_build_object(")
+                .append("'total', (SELECT count(*)").append(FROM).append(all).append("), ")
+                .append("'requests', (SELECT coalesce(json_agg(p.request ORDER BY p.created_at DESC, p.id DESC), '[]') FROM (")
+                .append("SELECT ").append(REQUEST_JSON).append(" AS request, r.created_at, r.id").append(FROM).append(all)
+                .append(" ORDER BY r.created_at DESC, r.id DESC LIMIT :limit OFFSET :offset) p), ")
+                .append("'facets', json_build_object(");
+        for (Facet facet : Facet.values()) {
+            String from = facet == Facet.TAG
+                    ? " FROM contract_request_tags t JOIN contract_requests r ON r.id = t.request_id AND t.tag IS NOT NULL"
+                    + " JOIN users rb ON rb.id = r.requested_by LEFT JOIN users a ON a.id = r.assigned_to"
+                    : FROM;
+            if (facet.ordinal() > 0) {
+                sql.append(", ");
+            }
+            sql.append('\'').append(facet.key).append("', (SELECT coalesce(json_object_agg(f.k, f.n ORDER BY f.n DESC, f.k), '{}') FROM (")
+                    .append("SELECT ").append(facet.value).append(" AS k, count(DISTINCT r.id) AS n").append(from)
+                    .append(where(predicates, facet))
+                    .append(" GROUP BY 1 ORDER BY n DESC, k LIMIT :facetValues) f)");
+        }
+        sql.append("))::text");
+
+        String json = jdbcTemplate.queryForObject(sql.toString(), params, String.class);
+        try {
+            ContractRequestSearchResponse response = objectMapper.readValue(json, ContractRequestSearchResponse.class);
+            response.setPage(filter.getPage());
+            response.setSize(filter.getSize());
+            return response;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable search result", e);
+        }
+    }
+
+    /**
+     * The predicate of every filter that is set, binding its values into {@code params}
+     */
+    static Map<Facet, String> predicates(ContractRequestFilter filter, MapSqlParameterSource params) {
+        Map<Facet, String> predicates = new EnumMap<>(Facet.class);
+        if (isSet(filter.getStatus())) {
+            params.addValue("status", names(filter.getStatus(), ContractRequest.RequestStatus::valueOf, "status"));
+            predicates.put(Facet.STATUS, "r.status IN (:status)");
+        }
+        if (isSet(filter.getPriority())) {
+            params.addValue("priority", names(filter.getPriority(), ContractRequest.Priority::valueOf, "priority"));
+            predicates.put(Facet.PRIORITY, "r.priority IN (:priority)");
+        }
+        if (isSet(filter.getContractType())) {
+            params.addValue("contractType", present(filter.getContractType()));
+            predicates.put(Facet.CONTRACT_TYPE, "r.contract_type IN (:contractType)");
+        }
+        if (isSet(filter.getTag())) {
+            params.addValue("tag", present(filter.getTag()));
+            predicates.put(Facet.TAG, "EXISTS (SELECT 1 FROM contract_request_tags ft WHERE ft.request_id = r.id AND ft.tag IN (:tag))");
+        }
+        if (isSet(filter.getDepartment()) || filter.isNoDepartment()) {
+            predicates.put(Facet.DEPARTMENT, anyOf("rb.department", "department", filter.getDepartment(),
+                    filter.isNoDepartment() ? "coalesce(rb.department, '') = ''" : null, params));
+        }
+        if (isSet(filter.getAssignee()) || filter.isUnassigned()) {
+            predicates.put(Facet.ASSIGNEE, anyOf("a.username", "assignee", filter.getAssignee(),
+                    filter.isUnassigned() ? "a.id IS NULL" : null, params));
+        }
+        if (filter.getDueFrom() != null || filter.getDueTo() != null) {
+            StringBuilder due = new StringBuilder("r.due_date IS NOT NULL");
+            if (filter.getDueFrom() != null) {
+                params.addValue("dueFrom", filter.getDueFrom());
+                due.append(" AND r.due_date >= :dueFrom");
+            }
+            if (filter.getDueTo() != null) {
+                params.addValue("dueTo", filter.getDueTo());
+                due.append(" AND r.due_date <= :dueTo");
+            }
+            predicates.put(Facet.DUE, due.toString());
+        }
+        return predicates;
+    }
+
+    /**
+     * WHERE clause of all predicates except the one for {@code excluded}
+     */
+    static String where(Map<Facet, String> predicates, Facet excluded) {
+        StringBuilder where = new StringBuilder(" WHERE TRUE");
+        predicates.forEach((facet, predicate) -> {
+            if (facet != excluded) {
+                where.append(" AND ").append(predicate);
+            }
+        });
+        return where.toString();
+    }
+
+    /**
+     * {@code column} is one of {@code values}, or {@code orMissing} holds if it is given
+     */
+    private static String anyOf(String column, String name, List<String> values, String orMissing,
+                                MapSqlParameterSource params) {
+        List<String> alternatives = new ArrayList<>();
+        if (isSet(values)) {
+            params.addValue(name, present(values));
+            alternatives.add(column + " IN (:" + name + ")");
+        }
+        if (orMissing != null) {
+            alternatives.add(orMissing);
+        }
+        return "(" + String.join(" OR ", alternatives) + ")";
+    }
+
+    private static boolean isSet(List<String> values) {
+        return values != null && !present(values).isEmpty();
+    }
+
+    private static List<String> present(List<String> values) {
+        return values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::strip)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<String> values, Function<String, Enum<?>> parse, String dimension) {
+        try {
+            return present(values).stream()
+                    .map(value -> parse.apply(value.toUpperCase(Locale.ROOT)).name())
+                    .distinct()
+                    .collect(Collectors.toList());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown " + dimension + " in " + values);
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package com.contract.Backend.Service;
 
+import com.contract.Backend.DTO.BulkStatusUpdateRequest;
+import com.contract.Backend.DTO.BulkStatusUpdateResponse;
+import com.contract.Backend.DTO.ContractChangeEvent;
 import com.contract.Backend.DTO.ContractRequestDTO;
 import com.contract.Backend.DTO.ContractRequestResponse;
 
 import com.contract.Backend.Repository.ContractRequestRepository;
-import com.contract.Backend.Repository.UserRepository;
 import com.contract.Backend.model.ContractRequest;
 import com.contract.Backend.model.User;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,38 +34,55 @@ import java.util.stream.Collectors;
 public class ContractRequestService {
 
     private final ContractRequestRepository contractRequestRepository;
-    private final UserRepository userRepository;
+    private final CollectionVersions collectionVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnalyticsService analyticsService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
 
     @Transactional
-    public ContractRequestResponse createRequest(ContractRequestDTO dto, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ContractRequestResponse createRequest(ContractRequestDTO dto, UserPrincipal user) {
+        ContractRequest saved = contractRequestRepository.save(toEntity(dto, user.reference()));
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.REQUESTS);
+        analyticsService.recordCreated(saved);
+        publish(ContractChangeEvent.Type.REQUEST_CREATED, saved, user.username(), true);
+        log.info("Created contract request: {} by user: {}", saved.getId(), user.username());
 
-        ContractRequest request = ContractRequest.builder()
-                .title(dto.getTitle())
-                .contractType(dto.getContractType())
-                .description(dto.getDescription())
-                .priority(ContractRequest.Priority.valueOf(dto.getPriority().toUpperCase()))
-                .dueDate(dto.getDueDate())
-                .tags(dto.getTags())
-                .requestedBy(user)
-                .status(ContractRequest.RequestStatus.PENDING)
-                .build();
+        return mapToResponse(saved);
+    }
 
-        ContractRequest saved = contractRequestRepository.save(request);
-        log.info("Created contract request: {} by user: {}", saved.getId(), username);
+    /**
+     * Creates all requests in one transaction; with sequence ids the inserts (and their tag
+     * rows) go out as JDBC batches.
+     */
+    @Transactional
+    public List<ContractRequestResponse> createRequests(List<ContractRequestDTO> dtos, UserPrincipal user) {
+        checkBulkSize(dtos.size());
+        User requester = user.reference();
 
-        return mapToResponse(saved);
+        List<ContractRequest> saved = contractRequestRepository.saveAll(dtos.stream()
+                .map(dto -> toEntity(dto, requester))
+                .collect(Collectors.toList()));
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.REQUESTS);
+        saved.forEach(request -> {
+            analyticsService.recordCreated(request);
+            publish(ContractChangeEvent.Type.REQUEST_CREATED, request, user.username(), true);
+        });
+        log.info("Created {} contract requests by user: {}", saved.size(), user.username());
+
+        return saved.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public List<ContractRequestResponse> getMyRequests(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return contractRequestRepository.findByRequestedBy(user)
+    public List<ContractRequestResponse> getMyRequests(UserPrincipal user) {
+        return contractRequestRepository.findByRequestedBy(user.reference())
                 .stream()
-                .map(this::mapToResponse)
+                .map(request -> mapToResponse(request, user))
                 .collect(Collectors.toList());
     }
 
@@ -65,13 +95,10 @@ public class ContractRequestService {
     }
 
     @Transactional(readOnly = true)
-    public List<ContractRequestResponse> getAssignedRequests(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return contractRequestRepository.findByAssignedTo(user)
+    public List<ContractRequestResponse> getAssignedRequests(UserPrincipal user) {
+        return contractRequestRepository.findByAssignedTo(user.reference())
                 .stream()
-                .map(this::mapToResponse)
+                .map(request -> mapToResponse(request, user))
                 .collect(Collectors.toList());
     }
 
@@ -85,32 +112,123 @@ public class ContractRequestService {
 
 
     @Transactional
-    public ContractRequestResponse assignRequest(Long requestId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ContractRequestResponse assignRequest(Long requestId, UserPrincipal user) {
+        ContractRequest before = contractRequestRepository.findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Request not found"));
+        ContractRequest.RequestStatus previousStatus = before.getStatus();
+        LocalDateTime previousCompletedAt = before.getCompletedAt();
 
+        // Conditional update: of two reviewers assigning the same request, only one wins
+        int assigned = contractRequestRepository.assignIfUnclaimed(
+                requestId, user.reference(), ContractRequest.RequestStatus.IN_PROGRESS, LocalDateTime.now());
         ContractRequest request = contractRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
+        if (assigned == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Request " + requestId + " is already assigned to " + request.getAssignedTo().getFullName());
+        }
 
-        request.setAssignedTo(user);
-        request.setStatus(ContractRequest.RequestStatus.IN_PROGRESS);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.REQUESTS);
+        analyticsService.recordTransition(previousStatus, previousCompletedAt, request);
+        publish(ContractChangeEvent.Type.REQUEST_ASSIGNED, request, user.username(), true);
+        log.info("Assigned request {} to user {}", requestId, user.username());
 
-        ContractRequest updated = contractRequestRepository.save(request);
-        log.info("Assigned request {} to user {}", requestId, username);
+        return mapToResponse(request, user);
+    }
 
-        return mapToResponse(updated);
+    /**
+     * Assigns the most urgent unassigned pending request (priority, then due date, then age)
+     * to the caller, optionally restricted to contract types and to requests tagged with one
+     * of the caller's skills. Safe to call from many reviewers at once: FOR UPDATE SKIP LOCKED
+     * makes concurrent claimers skip a row another transaction is taking instead of waiting
+     * for it, so two reviewers never get the same request. The ORDER BY matches
+     * idx_contract_requests_claim_queue (db/schema-extras.sql).
+     *
+     * The UPDATE goes around the persistence context, so pending changes are flushed before it
+     * and the context is cleared after it, as {@code @Modifying(flushAutomatically = true,
+     * clearAutomatically = true)} does for the JPQL updates.
+     *
+     * @return the claimed request, empty if the queue has nothing matching
+     */
+    @Transactional
+    public Optional<ContractRequestResponse> claimNext(UserPrincipal user, List<String> contractTypes, List<String> skills) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", user.id());
+        StringBuilder where = new StringBuilder("cr.assigned_to IS NULL AND cr.status = 'PENDING'");
+        if (contractTypes != null && !contractTypes.isEmpty()) {
+            params.addValue("types", contractTypes);
+            where.append(" AND cr.contract_type IN (:types)");
+        }
+        if (skills != null && !skills.isEmpty()) {
+            params.addValue("skills", skills);
+            where.append(" AND EXISTS (SELECT 1 FROM contract_request_tags t"
+                    + " WHERE t.request_id = cr.id AND t.tag IN (:skills))");
+        }
+        String sql = "WITH next AS (SELECT cr.id FROM contract_requests cr WHERE " + where
+                + " ORDER BY (CASE cr.priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END),"
+                + " cr.due_date, cr.created_at, cr.id"
+                + " LIMIT 1 FOR UPDATE OF cr SKIP LOCKED)"
+                + " UPDATE contract_requests r SET assigned_to = :userId, status = 'IN_PROGRESS', updated_at = now()"
+                + " FROM next WHERE r.id = next.id RETURNING r.id";
+
+        entityManager.flush();
+        Optional<Long> claimed = jdbcTemplate.queryForList(sql, params, Long.class).stream().findFirst();
+        entityManager.clear();
+        if (claimed.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ContractRequest request = contractRequestRepository.findById(claimed.get())
+                .orElseThrow(() -> new RuntimeException("Request not found"));
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.REQUESTS);
+        // claimNext only takes PENDING requests
+        analyticsService.recordTransition(ContractRequest.RequestStatus.PENDING, null, request);
+        publish(ContractChangeEvent.Type.REQUEST_ASSIGNED, request, user.username(), true);
+        log.info("User {} claimed request {}", user.username(), request.getId());
+        return Optional.of(mapToResponse(request, user));
     }
 
     @Transactional
     public ContractRequestResponse updateStatus(Long requestId, String status) {
         ContractRequest request = contractRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
-        request.setStatus(ContractRequest.RequestStatus.valueOf(status.toUpperCase()));
+        analyticsService.applyStatus(request, ContractRequest.RequestStatus.valueOf(status.toUpperCase()));
         ContractRequest updated = contractRequestRepository.save(request);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.REQUESTS);
+        publish(ContractChangeEvent.Type.REQUEST_STATUS_CHANGED, updated, null, updated.getAssignedTo() == null);
         return mapToResponse(updated);
     }
 
 
+    /**
+     * Sets the status on every listed request. The rows are loaded with one IN query and
+     * written back as batched UPDATEs at commit.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse updateStatuses(BulkStatusUpdateRequest bulk) {
+        checkBulkSize(bulk.getIds().size());
+        ContractRequest.RequestStatus status = ContractRequest.RequestStatus.valueOf(bulk.getStatus().toUpperCase());
+
+        List<ContractRequest> requests = contractRequestRepository.findAllById(bulk.getIds());
+        Set<Long> found = new HashSet<>();
+        for (ContractRequest request : requests) {
+            analyticsService.applyStatus(request, status);
+            found.add(request.getId());
+            publish(ContractChangeEvent.Type.REQUEST_STATUS_CHANGED, request, null, request.getAssignedTo() == null);
+        }
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.REQUESTS);
+        log.info("Set status {} on {} requests", status, requests.size());
+
+        return BulkStatusUpdateResponse.builder()
+                .status(status.name().toLowerCase())
+                .updated(requests.size())
+                .notFound(bulk.getIds().stream()
+                        .filter(id -> !found.contains(id))
+                        .distinct()
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+
     // Remove duplicate methods below and add getRequestById
 
     @Transactional(readOnly = true)
@@ -120,7 +238,52 @@ public class ContractRequestService {
         return mapToResponse(request);
     }
 
-    private ContractRequestResponse mapToResponse(ContractRequest request) {
+    /**
+     * Queues a change for the change feed; it is only delivered if the transaction commits
+     */
+    private void publish(ContractChangeEvent.Type type, ContractRequest request, String actor, boolean unassignedQueue) {
+        eventPublisher.publishEvent(ContractChangeEvent.builder()
+                .type(type)
+                .requestId(request.getId())
+                .status(request.getStatus().name().toLowerCase())
+                .dueDate(request.getDueDate())
+                .requestedBy(request.getRequestedBy().getUsername())
+                .assignedTo(request.getAssignedTo() != null ? request.getAssignedTo().getUsername() : null)
+                .actor(actor)
+                .unassignedQueue(unassignedQueue)
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private ContractRequest toEntity(ContractRequestDTO dto, User user) {
+        return ContractRequest.builder()
+                .title(dto.getTitle())
+                .contractType(dto.getContractType())
+                .description(dto.getDescription())
+                .priority(ContractRequest.Priority.valueOf(dto.getPriority().toUpperCase()))
+                .dueDate(dto.getDueDate())
+                .tags(dto.getTags())
+                .requestedBy(user)
+                .status(ContractRequest.RequestStatus.PENDING)
+                .build();
+    }
+
+    private void checkBulkSize(int size) {
+        if (size > maxBulkItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Bulk operations are limited to " + maxBulkItems + " items, got " + size);
+        }
+    }
+
+    ContractRequestResponse mapToResponse(ContractRequest request) {
+        return mapToResponse(request, null);
+    }
+
+    /**
+     * Maps the request; where the requester or assignee is {@code caller}, their details come
+     * from the principal instead of initialising the lazy association with another query
+     */
+    private ContractRequestResponse mapToResponse(ContractRequest request, UserPrincipal caller) {
         return ContractRequestResponse.builder()
                 .id(request.getId())
                 .title(request.getTitle())
@@ -128,9 +291,9 @@ public class ContractRequestService {
                 .description(request.getDescription())
                 .status(request.getStatus().name().toLowerCase())
                 .priority(request.getPriority().name().toLowerCase())
-                .requestedBy(mapUserInfo(request.getRequestedBy()))
+                .requestedBy(mapUserInfo(request.getRequestedBy(), caller))
                 .assignedTo(request.getAssignedTo() != null ?
-                        mapUserInfo(request.getAssignedTo()) : null)
+                        mapUserInfo(request.getAssignedTo(), caller) : null)
                 .dueDate(request.getDueDate())
                 .tags(request.getTags())
                 .createdAt(request.getCreatedAt())
@@ -138,7 +301,16 @@ public class ContractRequestService {
                 .build();
     }
 
-    private ContractRequestResponse.UserInfo mapUserInfo(User user) {
+    private ContractRequestResponse.UserInfo mapUserInfo(User user, UserPrincipal caller) {
+        // getId() does not initialise a Hibernate proxy
+        if (caller != null && caller.id().equals(user.getId())) {
+            return ContractRequestResponse.UserInfo.builder()
+                    .id(caller.id())
+                    .fullName(caller.fullName())
+                    .email(caller.email())
+                    .department(caller.department())
+                    .build();
+        }
         return ContractRequestResponse.UserInfo.builder()
                 .id(user.getId())
                 .fullName(user.getFullName())
@@ -7,9 +7,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.client.ChatClient;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -22,33 +21,88 @@ import java.util.*;
 @Slf4j
 public class ContractService {
 
-    private final ChatClient chatClient;
+    static final String GENERATION_ID = "generationId";
+
     private final ObjectMapper objectMapper;
+    private final OllamaClient ollamaClient;
+    private final GenerationMetrics generationMetrics;
+    private final GenerationQuotaService quotaService;
+    private final FairShareScheduler scheduler;
+    private final PayloadLogger payloadLogger;
 
     /**
      * Generate a contract draft based on the provided request
+     *
+     * The caller is admitted against their user and department quotas first, then waits
+     * for a fair-share slot before the model is called. Log lines for the whole generation
+     * carry a generationId in the MDC, which is also returned on the response.
+     *
+     * @throws QuotaExceededException if the caller is over quota or the queue is full
      */
-    /**
-     * Generate a contract draft based on the provided request
-     */
-    public ContractDraftResponse generateContractDraft(ContractDraftRequest request) {
+    public ContractDraftResponse generateContractDraft(ContractDraftRequest request, String username) {
+        String generationId = UUID.randomUUID().toString();
+        MDC.put(GENERATION_ID, generationId);
+        try {
+            ContractDraftResponse response = admitAndGenerate(request, username);
+            response.setGenerationId(generationId);
+            return response;
+        } finally {
+            MDC.remove(GENERATION_ID);
+        }
+    }
+
+    private ContractDraftResponse admitAndGenerate(ContractDraftRequest request, String username) {
+        GenerationQuotaService.Caller caller;
+        try {
+            caller = quotaService.admit(username);
+        } catch (QuotaExceededException e) {
+            generationMetrics.recordQuotaRejection(e.getScope(), e.getResource());
+            throw e;
+        }
+
+        long queuedAt = System.nanoTime();
+        try {
+            return scheduler.run(caller.getDepartment(), () -> {
+                generationMetrics.recordQueueWait(caller.getDepartment(), System.nanoTime() - queuedAt);
+                return generateContractDraft(request, caller);
+            });
+        } catch (QuotaExceededException e) {
+            generationMetrics.recordQuotaRejection(e.getScope(), e.getResource());
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate contract draft: " + e.getMessage(), e);
+        }
+    }
+
+    private ContractDraftResponse generateContractDraft(ContractDraftRequest request, GenerationQuotaService.Caller caller) {
         try {
             log.info("Generating contract draft for type: {}", request.getContractType());
 
             // Create the AI prompt for contract generation
             String aiPrompt = buildContractPrompt(request);
+            payloadLogger.log(PayloadLogger.Category.PROMPT, aiPrompt);
 
             // Call Ollama AI directly to generate the contract
             String aiResponse;
+            long started = System.nanoTime();
             try {
-                aiResponse = callOllamaDirectly(aiPrompt);
-                log.debug("AI Response received successfully");
-                log.trace("AI Response content: {}", aiResponse);
+                OllamaGeneration generation = ollamaClient.generate(aiPrompt);
+                generationMetrics.recordGeneration(generation);
+                long tokens = generation.getPromptEvalCount() + generation.getEvalCount();
+                quotaService.recordUsage(caller, tokens);
+                scheduler.recordCost(caller.getDepartment(), tokens);
+                aiResponse = generation.getResponse();
+                log.debug("AI Response received successfully: {} tokens at {} tokens/s",
+                        generation.getEvalCount(), String.format("%.1f", generation.tokensPerSecond()));
 
             } catch (Exception aiException) {
                 log.error("Error calling Ollama AI service", aiException);
+                generationMetrics.recordFailure(ollamaClient.getDefaultModel(), System.nanoTime() - started);
                 // Fallback to a basic contract template if AI fails
                 aiResponse = generateFallbackContractJson(request);
+                generationMetrics.recordFallbackTemplate(ollamaClient.getDefaultModel());
                 log.info("Using fallback contract template due to AI service error");
             }
 
@@ -61,43 +115,13 @@ public class ContractService {
         }
     }
 
-    /**
-     * Call Ollama API directly
-     */
-    private String callOllamaDirectly(String prompt) {
-        try {
-            // Create the request body
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", "gpt-oss:20b-cloud");
-            requestBody.put("prompt", prompt);
-            requestBody.put("stream", false);
-
-            // Make the API call
-            RestClient restClient = RestClient.create();
-            String response = restClient.post()
-                    .uri("http://localhost:11434/api/generate")
-                    .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-                    .body(requestBody)
-                    .retrieve()
-                    .body(String.class);
-
-            // Parse the response to extract the actual content
-            JsonNode responseJson = objectMapper.readTree(response);
-            return responseJson.path("response").asText();
-
-        } catch (Exception e) {
-            log.error("Error calling Ollama directly", e);
-            throw new RuntimeException("Failed to call Ollama: " + e.getMessage(), e);
-        }
-    }
-
     /**
      * Build a comprehensive prompt for AI contract generation requesting JSON response
      */
     /**
      * Build a comprehensive prompt for AI contract generation requesting JSON response
      */
-    private String buildContractPrompt(ContractDraftRequest request) {
+    String buildContractPrompt(ContractDraftRequest request) {
         return String.format("""
         Generate a professional %s contract between the following parties:
         
@@ -160,13 +184,14 @@ public class ContractService {
     /**
      * Parse AI JSON response and convert to structured ContractDraftResponse
      */
-    private ContractDraftResponse parseAiResponseJson(String aiResponse, ContractDraftRequest request) {
+    ContractDraftResponse parseAiResponseJson(String aiResponse, ContractDraftRequest request) {
+        long started = System.nanoTime();
         try {
-            log.info("Raw AI response: {}", aiResponse);
+            payloadLogger.log(PayloadLogger.Category.RAW_RESPONSE, aiResponse);
 
             // Extract JSON from AI response (in case there's extra text)
             String jsonContent = extractJsonFromResponse(aiResponse);
-            log.info("Extracted JSON content: {}", jsonContent);
+            payloadLogger.log(PayloadLogger.Category.EXTRACTED_JSON, jsonContent);
 
             // Parse the JSON response
             JsonNode rootNode = objectMapper.readTree(jsonContent);
@@ -177,7 +202,7 @@ public class ContractService {
             // Extract risk analysis
             ContractDraftResponse.RiskAnalysis riskAnalysis = extractRiskAnalysisFromJson(rootNode);
 
-            return ContractDraftResponse.builder()
+            ContractDraftResponse response = ContractDraftResponse.builder()
                     .contractTitle(generateContractTitle(request))
                     .contractType(request.getContractType())
                     .partyA(request.getPartyA())
@@ -192,12 +217,15 @@ public class ContractService {
                     .expirationDate(LocalDateTime.now().plusYears(1).toLocalDate().toString())
                     .riskAnalysis(riskAnalysis)
                     .build();
+            generationMetrics.recordParse(GenerationMetrics.ParseMode.JSON, System.nanoTime() - started);
+            return response;
 
         } catch (JsonProcessingException e) {
-            log.error("Error parsing AI JSON response", e);
             // Fallback to parsing the response as plain text
-            log.info("Falling back to text-based parsing due to JSON parsing failure");
-            return parseAiResponseText(aiResponse, request);
+            log.warn("AI response is not valid JSON ({}), falling back to text-based parsing", e.getOriginalMessage());
+            ContractDraftResponse response = parseAiResponseText(aiResponse, request);
+            generationMetrics.recordParse(GenerationMetrics.ParseMode.TEXT_FALLBACK, System.nanoTime() - started);
+            return response;
         } catch (Exception e) {
             log.error("Error processing AI response", e);
             throw new RuntimeException("Failed to process AI response: " + e.getMessage(), e);
@@ -207,7 +235,7 @@ public class ContractService {
     /**
      * Extract JSON content from AI response (removing any extra text)
      */
-    private String extractJsonFromResponse(String aiResponse) {
+    String extractJsonFromResponse(String aiResponse) {
         // Find JSON object boundaries
         int jsonStart = aiResponse.indexOf("{");
         int jsonEnd = aiResponse.lastIndexOf("}");
@@ -283,10 +311,9 @@ public class ContractService {
     /**
      * Fallback method to parse text-based response if JSON parsing fails
      */
-    private ContractDraftResponse parseAiResponseText(String aiResponse, ContractDraftRequest request) {
-        // This method contains the original parsing logic as a fallback
-        // Extract contract sections from AI response
-        List<ContractDraftResponse.ContractSection> sections = extractSectionsFromText(aiResponse);
+    ContractDraftResponse parseAiResponseText(String aiResponse, ContractDraftRequest request) {
+        // Preamble, sections and signature block come out of a single scan of the response
+        ContractTextParser.ParsedText parsed = ContractTextParser.parse(aiResponse);
 
         // Generate risk analysis
         ContractDraftResponse.RiskAnalysis riskAnalysis = generateRiskAnalysis(aiResponse, request.getContractType());
@@ -297,9 +324,9 @@ public class ContractService {
                 .partyA(request.getPartyA())
                 .partyB(request.getPartyB())
                 .generatedAt(LocalDateTime.now())
-                .preamble(extractPreamble(aiResponse))
-                .sections(sections)
-                .conclusion(extractConclusion(aiResponse))
+                .preamble(parsed.getPreamble())
+                .sections(parsed.getSections())
+                .conclusion(parsed.getConclusion())
                 .jurisdiction("United States")
                 .governingLaw("State Law")
                 .effectiveDate(LocalDateTime.now().toLocalDate().toString())
@@ -308,51 +335,6 @@ public class ContractService {
                 .build();
     }
 
-    /**
-     * Extract contract sections from text (original method)
-     */
-    private List<ContractDraftResponse.ContractSection> extractSectionsFromText(String aiResponse) {
-        List<ContractDraftResponse.ContractSection> sections = new ArrayList<>();
-
-        // Split response into sections based on numbered headings
-        String[] lines = aiResponse.split("\n");
-        StringBuilder currentSection = new StringBuilder();
-        String currentTitle = "";
-        int sectionNumber = 1;
-
-        for (String line : lines) {
-            if (line.matches("^\\d+\\..*") || line.matches("^[A-Z][A-Z ]+:.*")) {
-                // Save previous section if exists
-                if (!currentTitle.isEmpty() && currentSection.length() > 0) {
-                    sections.add(ContractDraftResponse.ContractSection.builder()
-                            .title(currentTitle)
-                            .content(currentSection.toString().trim())
-                            .sectionNumber(sectionNumber++)
-                            .subsections(new ArrayList<>())
-                            .build());
-                }
-
-                // Start new section
-                currentTitle = line.replaceFirst("^\\d+\\.", "").trim();
-                currentSection = new StringBuilder();
-            } else if (!line.trim().isEmpty()) {
-                currentSection.append(line).append("\n");
-            }
-        }
-
-        // Add last section
-        if (!currentTitle.isEmpty() && currentSection.length() > 0) {
-            sections.add(ContractDraftResponse.ContractSection.builder()
-                    .title(currentTitle)
-                    .content(currentSection.toString().trim())
-                    .sectionNumber(sectionNumber)
-                    .subsections(new ArrayList<>())
-                    .build());
-        }
-
-        return sections;
-    }
-
     /**
      * Generate risk analysis for the contract
      */
@@ -394,40 +376,6 @@ public class ContractService {
                 .build();
     }
 
-    /**
-     * Extract preamble from AI response
-     */
-    private String extractPreamble(String aiResponse) {
-        String[] lines = aiResponse.split("\n");
-        StringBuilder preamble = new StringBuilder();
-
-        for (String line : lines) {
-            if (line.matches("^\\d+\\..*") || line.matches("^[A-Z][A-Z ]+:.*")) {
-                break; // Stop at first numbered section
-            }
-            if (!line.trim().isEmpty()) {
-                preamble.append(line).append("\n");
-            }
-        }
-
-        return preamble.toString().trim();
-    }
-
-    /**
-     * Extract conclusion from AI response
-     */
-    private String extractConclusion(String aiResponse) {
-        // Look for signature section or conclusion
-        if (aiResponse.toLowerCase().contains("signature")) {
-            int signatureIndex = aiResponse.toLowerCase().lastIndexOf("signature");
-            return aiResponse.substring(signatureIndex).trim();
-        }
-
-        return "IN WITNESS WHEREOF, the parties have executed this Agreement as of the date first written above.\n\n" +
-                "Party A: _________________________\n" +
-                "Party B: _________________________";
-    }
-
     /**
      * Generate fallback contract when AI service is unavailable (JSON format)
      */
@@ -0,0 +1,183 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftResponse;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass scanner for plain-text AI responses.
+ *
+ * Walks the response line by line once, without splitting it into an array or running
+ * regexes, and produces the preamble, the numbered/ALL-CAPS sections and the signature
+ * block together. Heading rules match the original fallback exactly:
+ * {@code ^\d+\..*} and {@code ^[A-Z][A-Z ]+:.*}.
+ */
+final class ContractTextParser {
+
+    static final String DEFAULT_CONCLUSION =
+            "IN WITNESS WHEREOF, the parties have executed this Agreement as of the date first written above.\n\n" +
+            "Party A: _________________________\n" +
+            "Party B: _________________________";
+
+    private static final String SIGNATURE = "signature";
+
+    private ContractTextParser() {
+    }
+
+    /**
+     * Result of parsing a plain-text response
+     */
+    @Value
+    static class ParsedText {
+        String preamble;
+        List<ContractDraftResponse.ContractSection> sections;
+        String conclusion;
+    }
+
+    static ParsedText parse(String text) {
+        List<ContractDraftResponse.ContractSection> sections = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String preamble = null;
+        String currentTitle = "";
+        int sectionNumber = 1;
+
+        int length = text.length();
+        int start = 0;
+        while (start <= length) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            int titleStart = headingTitleStart(text, start, end);
+            if (titleStart >= 0) {
+                if (preamble == null) {
+                    preamble = trimmed(current);
+                }
+                if (!currentTitle.isEmpty() && current.length() > 0) {
+                    sections.add(section(currentTitle, trimmed(current), sectionNumber++));
+                }
+                currentTitle = trimmed(text, titleStart, end);
+                current.setLength(0);
+            } else if (!isBlank(text, start, end)) {
+                current.append(text, start, end).append('\n');
+            }
+
+            start = end + 1;
+        }
+
+        if (preamble == null) {
+            preamble = trimmed(current);
+        } else if (!currentTitle.isEmpty() && current.length() > 0) {
+            sections.add(section(currentTitle, trimmed(current), sectionNumber));
+        }
+
+        return new ParsedText(preamble, sections, extractConclusion(text));
+    }
+
+    /**
+     * Returns the index where the heading title starts, or -1 if the line is not a heading.
+     * Numbered headings drop their "N." prefix; ALL-CAPS headings keep the whole line.
+     */
+    private static int headingTitleStart(String text, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        char first = text.charAt(start);
+        int i = start + 1;
+        int titleStart;
+        if (first >= '0' && first <= '9') {
+            while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == end || text.charAt(i) != '.') {
+                return -1;
+            }
+            titleStart = i + 1;
+        } else if (first >= 'A' && first <= 'Z') {
+            while (i < end && (text.charAt(i) == ' ' || (text.charAt(i) >= 'A' && text.charAt(i) <= 'Z'))) {
+                i++;
+            }
+            if (i == start + 1 || i == end || text.charAt(i) != ':') {
+                return -1;
+            }
+            titleStart = start;
+        } else {
+            return -1;
+        }
+
+        // "." in the original patterns does not match line terminators, so a line carrying
+        // one (e.g. a trailing '\r') never counted as a heading
+        for (int j = i + 1; j < end; j++) {
+            char c = text.charAt(j);
+            if (c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return -1;
+            }
+        }
+        return titleStart;
+    }
+
+    /**
+     * Signature block: everything from the last case-insensitive "signature" onwards.
+     * Searches backwards, so only the tail of the response is usually touched.
+     */
+    private static String extractConclusion(String text) {
+        for (int i = text.length() - SIGNATURE.length(); i >= 0; i--) {
+            if (matchesSignatureAt(text, i)) {
+                return text.substring(i).trim();
+            }
+        }
+        return DEFAULT_CONCLUSION;
+    }
+
+    private static boolean matchesSignatureAt(String text, int offset) {
+        for (int k = 0; k < SIGNATURE.length(); k++) {
+            if (Character.toLowerCase(text.charAt(offset + k)) != SIGNATURE.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ContractDraftResponse.ContractSection section(String title, String content, int number) {
+        return ContractDraftResponse.ContractSection.builder()
+                .title(title)
+                .content(content)
+                .sectionNumber(number)
+                .subsections(new ArrayList<>())
+                .build();
+    }
+
+    private static boolean isBlank(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimmed(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return text.substring(start, end);
+    }
+
+    private static String trimmed(StringBuilder sb) {
+        int start = 0;
+        int end = sb.length();
+        while (start < end && sb.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && sb.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return sb.substring(start, end);
+    }
+}
@@ -0,0 +1,263 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.DocumentSection;
+import com.contract.Backend.DTO.ExtractedDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts the text of uploaded DOCX files into document_sections, so templates and drafts
+ * can be searched, compared and scanned without unpacking the file again.
+ *
+ * Uploads are queued after their transaction commits and handled by
+ * app.docx.extraction.workers threads. The queue holds app.docx.extraction.queue-size jobs;
+ * uploads that do not fit, and files uploaded before this existed, are picked up by a sweep
+ * every app.docx.extraction.sweep-ms. Each file is read from the database as a stream and
+ * parsed by {@link DocxTextExtractor}, with sections written in JDBC batches as they come, so
+ * a worker holds one paragraph and one insert batch at a time whatever the file size.
+ *
+ * The outcome is kept per file in document_extractions. Files that are not valid DOCX are
+ * marked FAILED and not retried; database errors leave the file for the next sweep.
+ */
+@Service
+@Slf4j
+public class DocxExtractionService {
+
+    public enum Owner {
+        TEMPLATE("template", "contract_templates"),
+        DRAFT("draft", "contract_drafts");
+
+        final String key;
+        final String table;
+
+        Owner(String key, String table) {
+            this.key = key;
+            this.table = table;
+        }
+    }
+
+    private static final int INSERT_BATCH = 500;
+    private static final String INSERT_SECTION = """
+            INSERT INTO document_sections (owner_kind, owner_id, position, kind, level, number, text)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String RECORD_EXTRACTION = """
+            INSERT INTO document_extractions (owner_kind, owner_id, status, sections, error, extracted_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (owner_kind, owner_id) DO UPDATE SET status = EXCLUDED.status,
+                sections = EXCLUDED.sections, error = EXCLUDED.error, extracted_at = EXCLUDED.extracted_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxXmlBytes;
+    private final int maxParagraphChars;
+
+    // Jobs queued or running, so the sweep does not queue an upload twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor workers;
+
+    public DocxExtractionService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.docx.extraction.workers:2}") int workers,
+                                 @Value("${app.docx.extraction.queue-size:64}") int queueSize,
+                                 @Value("${app.docx.extraction.max-xml-bytes:268435456}") long maxXmlBytes,
+                                 @Value("${app.docx.extraction.max-paragraph-chars:32768}") int maxParagraphChars) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxXmlBytes = maxXmlBytes;
+        this.maxParagraphChars = maxParagraphChars;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "docx-extract-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues extraction of the uploads once the current transaction commits
+     */
+    public void extractAfterCommit(Owner owner, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> submit(owner, id));
+                }
+            });
+        } else {
+            ids.forEach(id -> submit(owner, id));
+        }
+    }
+
+    /**
+     * Queues uploads that have no extraction yet, as many as the queue has room for
+     */
+    @Scheduled(fixedDelayString = "${app.docx.extraction.sweep-ms:60000}",
+            initialDelayString = "${app.docx.extraction.sweep-ms:60000}")
+    public void sweep() {
+        for (Owner owner : Owner.values()) {
+            int room = workers.getQueue().remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            List<Long> ids = jdbcTemplate.queryForList("SELECT o.id FROM " + owner.table + " o " +
+                    "WHERE o.docx_bytes IS NOT NULL AND NOT EXISTS (SELECT 1 FROM document_extractions e " +
+                    "WHERE e.owner_kind = ? AND e.owner_id = o.id) ORDER BY o.id LIMIT ?", Long.class, owner.key, room);
+            ids.forEach(id -> submit(owner, id));
+        }
+    }
+
+    /**
+     * The sections extracted from the template's or draft's DOCX; PENDING until the worker
+     * has been through it
+     */
+    public ExtractedDocument sections(Owner owner, Long id) {
+        ExtractedDocument document = jdbcTemplate.query(
+                "SELECT status, sections, error, extracted_at FROM document_extractions WHERE owner_kind = ? AND owner_id = ?",
+                rs -> rs.next() ? ExtractedDocument.builder()
+                        .status(rs.getString(1))
+                        .sectionCount(rs.getInt(2))
+                        .error(rs.getString(3))
+                        .extractedAt(rs.getTimestamp(4).toLocalDateTime())
+                        .build() : ExtractedDocument.builder().status("PENDING").build(),
+                owner.key, id);
+        document.setOwnerKind(owner.key);
+        document.setOwnerId(id);
+        document.setSections("DONE".equals(document.getStatus())
+                ? jdbcTemplate.query("SELECT position, kind, level, number, text FROM document_sections " +
+                                "WHERE owner_kind = ? AND owner_id = ? ORDER BY position",
+                        (rs, i) -> DocumentSection.builder()
+                                .position(rs.getInt(1))
+                                .kind(rs.getString(2))
+                                .level(rs.getInt(3))
+                                .number(rs.getString(4))
+                                .text(rs.getString(5))
+                                .build(),
+                        owner.key, id)
+                : List.of());
+        return document;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void submit(Owner owner, Long id) {
+        String job = owner.key + ":" + id;
+        if (!inFlight.add(job)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    extract(owner, id);
+                } finally {
+                    inFlight.remove(job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job);
+            log.debug("Extraction queue full, {} {} left for the sweep", owner.key, id);
+        }
+    }
+
+    void extract(Owner owner, Long id) {
+        try {
+            Integer sections = transactionTemplate.execute(status -> jdbcTemplate.query(
+                    "SELECT docx_bytes FROM " + owner.table + " WHERE id = ? AND docx_bytes IS NOT NULL",
+                    rs -> rs.next() ? extract(owner, id, rs) : null, id));
+            if (sections != null) {
+                log.debug("Extracted {} sections from {} {}", sections, owner.key, id);
+            }
+        } catch (DocxTextExtractor.InvalidDocxException | UncheckedIOException e) {
+            log.info("Could not extract text from {} {}: {}", owner.key, id, e.getMessage());
+            record(owner, id, "FAILED", 0, e.getMessage());
+        } catch (DataAccessException e) {
+            log.warn("Extraction of {} {} failed, retrying on the next sweep: {}", owner.key, id, e.getMessage());
+        }
+    }
+
+    private int extract(Owner owner, Long id, ResultSet rs) throws SQLException {
+        // Hibernate maps the @Lob column to a large object; read it through the LOB API then,
+        // which streams it from the server
+        InputStream docx = rs.getMetaData().getColumnType(1) == Types.BINARY
+                ? rs.getBinaryStream(1)
+                : rs.getBlob(1).getBinaryStream();
+        jdbcTemplate.update("DELETE FROM document_sections WHERE owner_kind = ? AND owner_id = ?", owner.key, id);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        int sections;
+        try (docx) {
+            sections = DocxTextExtractor.extract(docx, maxXmlBytes, maxParagraphChars, section -> {
+                batch.add(new Object[]{owner.key, id, section.position(), section.kind().name(),
+                        section.level(), section.number(), section.text()});
+                if (batch.size() == INSERT_BATCH) {
+                    jdbcTemplate.batchUpdate(INSERT_SECTION, batch);
+                    batch.clear();
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SECTION, batch);
+        }
+        record(owner, id, "DONE", sections, null);
+        return sections;
+    }
+
+    /**
+     * Stores sections already extracted by the caller, in the caller's transaction
+     */
+    void store(Owner owner, Map<Long, List<DocxTextExtractor.Section>> sectionsById) {
+        List<Object[]> rows = new ArrayList<>();
+        sectionsById.forEach((id, sections) -> sections.forEach(section -> rows.add(
+                new Object[]{owner.key, id, section.position(), section.kind().name(),
+                        section.level(), section.number(), section.text()})));
+        jdbcTemplate.batchUpdate(INSERT_SECTION, rows);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(RECORD_EXTRACTION, sectionsById.entrySet().stream()
+                .map(entry -> new Object[]{owner.key, entry.getKey(), "DONE", entry.getValue().size(), null, now})
+                .collect(Collectors.toList()));
+    }
+
+    private void record(Owner owner, Long id, String status, int sections, String error) {
+        jdbcTemplate.update(RECORD_EXTRACTION, owner.key, id, status, sections, error,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,245 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Server-side DOCX rendering of drafts, so clients no longer build the file and upload it as
+ * base64.
+ *
+ * Renders are streamed through {@link DocxRenderer} straight to the response and captured on
+ * the way for an LRU cache keyed by the SHA-256 of the source content, bounded to
+ * app.docx.cache.max-bytes in total (files over app.docx.cache.max-entry-bytes are streamed
+ * but not cached). Generated drafts are rendered into the cache in the background right away,
+ * so the download that usually follows is served from memory. The cache is per instance.
+ */
+@Service
+@Slf4j
+public class DocxRenderService {
+
+    public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    /**
+     * A document to render; {@code key} is the content hash, also used for the ETag
+     */
+    public record Source(String key, String title, Supplier<JsonNode> document) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DraftAutosaveService draftAutosaveService;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final ThreadPoolExecutor prerenderer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(32), r -> {
+                Thread thread = new Thread(r, "docx-prerender");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public DocxRenderService(JdbcTemplate jdbcTemplate,
+                             DraftAutosaveService draftAutosaveService,
+                             ObjectMapper objectMapper,
+                             MeterRegistry registry,
+                             @Value("${app.docx.cache.max-bytes:67108864}") long maxBytes,
+                             @Value("${app.docx.cache.max-entry-bytes:4194304}") int maxEntryBytes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.draftAutosaveService = draftAutosaveService;
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.hits = Counter.builder("docx.render.cache").tag("result", "hit")
+                .description("DOCX downloads by render cache outcome").register(registry);
+        this.misses = Counter.builder("docx.render.cache").tag("result", "miss")
+                .description("DOCX downloads by render cache outcome").register(registry);
+        Gauge.builder("docx.render.cache.bytes", this, DocxRenderService::cachedBytes)
+                .description("Bytes held by the DOCX render cache")
+                .register(registry);
+    }
+
+    /**
+     * The draft's current content, including autosave patches not written yet
+     */
+    public Source draft(Long id) {
+        draftAutosaveService.flush(id);
+        // Only the columns needed, the uploaded docx_bytes stay in the table
+        List<String[]> rows = jdbcTemplate.query("SELECT title, content::text FROM contract_drafts WHERE id = ?",
+                (rs, i) -> new String[]{rs.getString(1), rs.getString(2)}, id);
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Draft not found");
+        }
+        String title = rows.get(0)[0];
+        String content = rows.get(0)[1];
+        return new Source(key("draft", content), title, () -> {
+            try {
+                return objectMapper.readTree(content);
+            } catch (JsonProcessingException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Draft " + id + " content is not valid JSON");
+            }
+        });
+    }
+
+    /**
+     * An editor document sent by the client
+     */
+    public Source document(String title, JsonNode document) {
+        return new Source(key("document", document.toString()), title, () -> document);
+    }
+
+    /**
+     * A generated draft, laid out the way the editor shows it
+     */
+    public Source generated(ContractDraftResponse response) {
+        try {
+            return new Source(key("generated", objectMapper.writeValueAsString(response)),
+                    response.getContractTitle() != null ? response.getContractTitle() : "contract-draft",
+                    () -> DocxRenderer.toDocument(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Draft response cannot be serialized", e);
+        }
+    }
+
+    /**
+     * Renders a freshly generated draft into the cache in the background; skipped when the
+     * queue is full
+     */
+    public void prerender(ContractDraftResponse response) {
+        prerenderer.execute(() -> {
+            try {
+                Source source = generated(response);
+                if (cached(source.key()) == null) {
+                    write(source, OutputStream.nullOutputStream(), false);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Pre-rendering draft {} failed: {}", response.getGenerationId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes the DOCX to {@code out}, from the cache when it has it
+     */
+    public void write(Source source, OutputStream out) throws IOException {
+        write(source, out, true);
+    }
+
+    public synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prerenderer.shutdownNow();
+    }
+
+    private void write(Source source, OutputStream out, boolean count) throws IOException {
+        byte[] cached = cached(source.key());
+        if (cached != null) {
+            if (count) {
+                hits.increment();
+            }
+            out.write(cached);
+            return;
+        }
+        if (count) {
+            misses.increment();
+        }
+        CapturingOutputStream capture = new CapturingOutputStream(out, maxEntryBytes);
+        DocxRenderer.render(source.document().get(), capture);
+        capture.flush();
+        if (capture.captured() != null) {
+            put(source.key(), capture.captured());
+        }
+    }
+
+    private synchronized byte[] cached(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void put(String key, byte[] bytes) {
+        byte[] previous = cache.put(key, bytes);
+        cachedBytes += bytes.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    private static String key(String kind, String content) {
+        return ContentHash.sha256Hex(kind + ":" + DocxRenderer.VERSION + ":" + content);
+    }
+
+    /**
+     * Passes everything through and keeps a copy while it stays under the limit
+     */
+    private static final class CapturingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream(16 * 1024);
+
+        CapturingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+    }
+}
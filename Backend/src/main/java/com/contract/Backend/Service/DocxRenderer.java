@@ -0,0 +1,422 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a draft's editor document (the TipTap JSON stored in contract_drafts.content) as a
+ * DOCX. The parts go straight into a ZipOutputStream on the caller's stream; document.xml is
+ * written node by node with StAX, so no document model is built in memory.
+ *
+ * Covers what the editor produces: headings, paragraphs, bold/italic/underline/strike/code
+ * marks, hard breaks, bullet and ordered lists (nested), blockquotes, code blocks and
+ * horizontal rules. Unknown nodes are rendered through their children.
+ */
+final class DocxRenderer {
+
+    // Part of the render cache key: bump when the output changes
+    static final int VERSION = 1;
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newInstance();
+    private static final int BULLETS = 1; // numId shared by all bullet lists; ordered lists get their own
+    private static final int MAX_DEPTH = 8;
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+            <Default Extension="xml" ContentType="application/xml"/>\
+            <Override PartName="/word/document.xml" ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml"/>\
+            <Override PartName="/word/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.styles+xml"/>\
+            <Override PartName="/word/numbering.xml" ContentType="application/vnd.openxmlformats-officedocument.wordprocessingml.numbering+xml"/>\
+            </Types>""";
+
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="word/document.xml"/>\
+            </Relationships>""";
+
+    private static final String DOCUMENT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>\
+            <Relationship Id="rId2" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/numbering" Target="numbering.xml"/>\
+            </Relationships>""";
+
+    private static final String STYLES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <w:styles xmlns:w="http://schemas.openxmlformats.org/wordprocessingml/2006/main">\
+            <w:docDefaults><w:rPrDefault><w:rPr><w:rFonts w:ascii="Calibri" w:hAnsi="Calibri" w:cs="Calibri"/>\
+            <w:sz w:val="22"/></w:rPr></w:rPrDefault>\
+            <w:pPrDefault><w:pPr><w:spacing w:after="160" w:line="259" w:lineRule="auto"/></w:pPr></w:pPrDefault></w:docDefaults>\
+            <w:style w:type="paragraph" w:default="1" w:styleId="Normal"><w:name w:val="Normal"/></w:style>\
+            %s\
+            <w:style w:type="paragraph" w:styleId="ListParagraph"><w:name w:val="List Paragraph"/><w:basedOn w:val="Normal"/>\
+            <w:pPr><w:spacing w:after="60"/><w:ind w:left="720"/><w:contextualSpacing/></w:pPr></w:style>\
+            <w:style w:type="paragraph" w:styleId="Quote"><w:name w:val="Quote"/><w:basedOn w:val="Normal"/>\
+            <w:pPr><w:ind w:left="720" w:right="720"/></w:pPr><w:rPr><w:i/><w:color w:val="404040"/></w:rPr></w:style>\
+            <w:style w:type="paragraph" w:styleId="Code"><w:name w:val="Code"/><w:basedOn w:val="Normal"/>\
+            <w:pPr><w:spacing w:after="0"/></w:pPr><w:rPr><w:rFonts w:ascii="Consolas" w:hAnsi="Consolas"/><w:sz w:val="20"/></w:rPr></w:style>\
+            </w:styles>""".formatted(headingStyles());
+
+    private final XMLStreamWriter xml;
+    private int orderedLists;
+
+    private DocxRenderer(XMLStreamWriter xml) {
+        this.xml = xml;
+    }
+
+    /**
+     * Writes the DOCX for an editor document to {@code out}; finishes the zip but leaves
+     * {@code out} open
+     */
+    static void render(JsonNode document, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        putPart(zip, "[Content_Types].xml", CONTENT_TYPES);
+        putPart(zip, "_rels/.rels", ROOT_RELS);
+        putPart(zip, "word/_rels/document.xml.rels", DOCUMENT_RELS);
+        putPart(zip, "word/styles.xml", STYLES);
+
+        zip.putNextEntry(new ZipEntry("word/document.xml"));
+        DocxRenderer renderer;
+        try {
+            // close() on the writer leaves the zip stream open
+            XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(zip, "UTF-8");
+            renderer = new DocxRenderer(xml);
+            renderer.document(document);
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write document.xml", e);
+        }
+        zip.closeEntry();
+
+        // Written last, once we know how many ordered lists need their own numbering
+        putPart(zip, "word/numbering.xml", numbering(renderer.orderedLists));
+        zip.finish();
+    }
+
+    /**
+     * The editor document the frontend builds from a generated draft (see DraftContracts.tsx),
+     * so a DOCX of a fresh draft looks like one exported from the editor
+     */
+    static ObjectNode toDocument(ContractDraftResponse response) {
+        JsonNodeFactory nodes = JsonNodeFactory.instance;
+        ObjectNode document = nodes.objectNode().put("type", "doc");
+        ArrayNode content = document.putArray("content");
+        if (notBlank(response.getContractTitle())) {
+            content.add(heading(1, response.getContractTitle()));
+        }
+        metaLine(content, "Contract Type", response.getContractType());
+        metaLine(content, "Party A", response.getPartyA());
+        metaLine(content, "Party B", response.getPartyB());
+        metaLine(content, "Effective Date", response.getEffectiveDate());
+        metaLine(content, "Expiration Date", response.getExpirationDate());
+        metaLine(content, "Jurisdiction", response.getJurisdiction());
+        metaLine(content, "Governing Law", response.getGoverningLaw());
+        content.addObject().put("type", "horizontalRule");
+        if (notBlank(response.getPreamble())) {
+            content.add(heading(2, "Preamble"));
+            content.add(paragraph(response.getPreamble()));
+        }
+        if (response.getSections() != null) {
+            content.add(heading(2, "Contract Terms"));
+            for (ContractDraftResponse.ContractSection section : response.getSections()) {
+                content.add(heading(3, section.getSectionNumber() + ". " + section.getTitle()));
+                if (notBlank(section.getContent())) {
+                    content.add(paragraph(section.getContent()));
+                }
+                if (section.getSubsections() != null && !section.getSubsections().isEmpty()) {
+                    ObjectNode list = content.addObject().put("type", "bulletList");
+                    ArrayNode items = list.putArray("content");
+                    for (String subsection : section.getSubsections()) {
+                        ObjectNode item = items.addObject().put("type", "listItem");
+                        item.putArray("content").add(paragraph(subsection));
+                    }
+                }
+            }
+        }
+        if (notBlank(response.getConclusion())) {
+            content.add(heading(2, "Signatures"));
+            content.add(paragraph(response.getConclusion()));
+        }
+        return document;
+    }
+
+    private void document(JsonNode document) throws XMLStreamException {
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("w", "document", W);
+        xml.writeNamespace("w", W);
+        xml.writeStartElement("w", "body", W);
+        blocks(document.path("content"), 0);
+        xml.writeStartElement("w", "sectPr", W);
+        xml.writeEmptyElement("w", "pgSz", W);
+        xml.writeAttribute("w", W, "w", "12240");
+        xml.writeAttribute("w", W, "h", "15840");
+        xml.writeEmptyElement("w", "pgMar", W);
+        for (String side : List.of("top", "right", "bottom", "left")) {
+            xml.writeAttribute("w", W, side, "1440");
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+    }
+
+    private void blocks(JsonNode nodes, int depth) throws XMLStreamException {
+        for (JsonNode node : nodes) {
+            block(node, depth);
+        }
+    }
+
+    private void block(JsonNode node, int depth) throws XMLStreamException {
+        switch (node.path("type").asText()) {
+            case "heading" -> {
+                int level = Math.max(1, Math.min(4, node.path("attrs").path("level").asInt(1)));
+                paragraph(node, "Heading" + level, 0, 0);
+            }
+            case "paragraph" -> paragraph(node, null, 0, 0);
+            case "bulletList", "orderedList" -> list(node, depth);
+            case "blockquote" -> {
+                for (JsonNode child : node.path("content")) {
+                    if ("paragraph".equals(child.path("type").asText())) {
+                        paragraph(child, "Quote", 0, 0);
+                    } else {
+                        block(child, depth);
+                    }
+                }
+            }
+            case "codeBlock" -> paragraph(node, "Code", 0, 0);
+            case "horizontalRule" -> horizontalRule();
+            default -> blocks(node.path("content"), depth);
+        }
+    }
+
+    private void list(JsonNode list, int depth) throws XMLStreamException {
+        int numId = "orderedList".equals(list.path("type").asText()) ? BULLETS + ++orderedLists : BULLETS;
+        int level = Math.min(depth, MAX_DEPTH);
+        for (JsonNode item : list.path("content")) {
+            boolean first = true;
+            for (JsonNode child : item.path("content")) {
+                String type = child.path("type").asText();
+                if ("paragraph".equals(type)) {
+                    // Only the item's first paragraph carries the bullet or number
+                    paragraph(child, "ListParagraph", first ? numId : 0, level);
+                    first = false;
+                } else if ("bulletList".equals(type) || "orderedList".equals(type)) {
+                    list(child, depth + 1);
+                } else {
+                    block(child, depth + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param numId numbering to attach, 0 for none
+     */
+    private void paragraph(JsonNode node, String style, int numId, int level) throws XMLStreamException {
+        xml.writeStartElement("w", "p", W);
+        if (style != null) {
+            xml.writeStartElement("w", "pPr", W);
+            value("pStyle", style);
+            if (numId != 0) {
+                xml.writeStartElement("w", "numPr", W);
+                value("ilvl", String.valueOf(level));
+                value("numId", String.valueOf(numId));
+                xml.writeEndElement();
+            } else if ("ListParagraph".equals(style)) {
+                xml.writeEmptyElement("w", "ind", W);
+                xml.writeAttribute("w", W, "left", String.valueOf(720 * (level + 1)));
+            }
+            xml.writeEndElement();
+        }
+        inline(node.path("content"));
+        xml.writeEndElement();
+    }
+
+    private void inline(JsonNode nodes) throws XMLStreamException {
+        for (JsonNode node : nodes) {
+            switch (node.path("type").asText()) {
+                case "text" -> run(node.path("text").asText(), node.path("marks"));
+                case "hardBreak" -> {
+                    xml.writeStartElement("w", "r", W);
+                    xml.writeEmptyElement("w", "br", W);
+                    xml.writeEndElement();
+                }
+                default -> inline(node.path("content"));
+            }
+        }
+    }
+
+    private void run(String text, JsonNode marks) throws XMLStreamException {
+        xml.writeStartElement("w", "r", W);
+        if (!marks.isEmpty()) {
+            xml.writeStartElement("w", "rPr", W);
+            for (JsonNode mark : marks) {
+                switch (mark.path("type").asText()) {
+                    case "bold" -> xml.writeEmptyElement("w", "b", W);
+                    case "italic" -> xml.writeEmptyElement("w", "i", W);
+                    case "underline" -> value("u", "single");
+                    case "strike" -> xml.writeEmptyElement("w", "strike", W);
+                    case "code" -> {
+                        xml.writeEmptyElement("w", "rFonts", W);
+                        xml.writeAttribute("w", W, "ascii", "Consolas");
+                        xml.writeAttribute("w", W, "hAnsi", "Consolas");
+                    }
+                    default -> {
+                        // links, highlights etc. keep their text only
+                    }
+                }
+            }
+            xml.writeEndElement();
+        }
+        String[] lines = xmlSafe(text).split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                xml.writeEmptyElement("w", "br", W);
+            }
+            if (!lines[i].isEmpty()) {
+                xml.writeStartElement("w", "t", W);
+                xml.writeAttribute("xml", XMLConstants.XML_NS_URI, "space", "preserve");
+                xml.writeCharacters(lines[i]);
+                xml.writeEndElement();
+            }
+        }
+        xml.writeEndElement();
+    }
+
+    private void horizontalRule() throws XMLStreamException {
+        xml.writeStartElement("w", "p", W);
+        xml.writeStartElement("w", "pPr", W);
+        xml.writeStartElement("w", "pBdr", W);
+        xml.writeEmptyElement("w", "bottom", W);
+        xml.writeAttribute("w", W, "val", "single");
+        xml.writeAttribute("w", W, "sz", "6");
+        xml.writeAttribute("w", W, "space", "1");
+        xml.writeAttribute("w", W, "color", "auto");
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void value(String element, String value) throws XMLStreamException {
+        xml.writeEmptyElement("w", element, W);
+        xml.writeAttribute("w", W, "val", value);
+    }
+
+    /**
+     * Drops characters XML 1.0 cannot carry (control characters in model output would
+     * otherwise make Word reject the file); \r\n and \r become \n
+     */
+    static String xmlSafe(String text) {
+        StringBuilder safe = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean allowed = c == '\t' || c == '\n' || (c >= 0x20 && c <= 0xFFFD && c != '\r');
+            if (!allowed && safe == null) {
+                safe = new StringBuilder(text.length()).append(text, 0, i);
+            }
+            if (safe != null) {
+                if (c == '\r') {
+                    if (i + 1 >= text.length() || text.charAt(i + 1) != '\n') {
+                        safe.append('\n');
+                    }
+                } else if (allowed) {
+                    safe.append(c);
+                }
+            }
+        }
+        return safe != null ? safe.toString() : text;
+    }
+
+    private static String numbering(int orderedLists) {
+        StringBuilder xml = new StringBuilder("""
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <w:numbering xmlns:w="http://schemas.openxmlformats.org/wordprocessingml/2006/main">""");
+        xml.append("<w:abstractNum w:abstractNumId=\"0\"><w:multiLevelType w:val=\"hybridMultilevel\"/>");
+        String[] bullets = {"•", "o", "▪"};
+        for (int level = 0; level <= MAX_DEPTH; level++) {
+            xml.append(level(level, "bullet", bullets[level % bullets.length]));
+        }
+        xml.append("</w:abstractNum>");
+        xml.append("<w:abstractNum w:abstractNumId=\"1\"><w:multiLevelType w:val=\"hybridMultilevel\"/>");
+        String[] formats = {"decimal", "lowerLetter", "lowerRoman"};
+        for (int level = 0; level <= MAX_DEPTH; level++) {
+            xml.append(level(level, formats[level % formats.length], "%" + (level + 1) + "."));
+        }
+        xml.append("</w:abstractNum>");
+
+        xml.append("<w:num w:numId=\"").append(BULLETS).append("\"><w:abstractNumId w:val=\"0\"/></w:num>");
+        // One num per ordered list, each restarting at 1
+        for (int i = 1; i <= orderedLists; i++) {
+            xml.append("<w:num w:numId=\"").append(BULLETS + i).append("\"><w:abstractNumId w:val=\"1\"/>")
+                    .append("<w:lvlOverride w:ilvl=\"0\"><w:startOverride w:val=\"1\"/></w:lvlOverride></w:num>");
+        }
+        return xml.append("</w:numbering>").toString();
+    }
+
+    private static String level(int level, String format, String text) {
+        return "<w:lvl w:ilvl=\"" + level + "\"><w:start w:val=\"1\"/><w:numFmt w:val=\"" + format + "\"/>"
+                + "<w:lvlText w:val=\"" + text + "\"/><w:lvlJc w:val=\"left\"/>"
+                + "<w:pPr><w:ind w:left=\"" + 720 * (level + 1) + "\" w:hanging=\"360\"/></w:pPr></w:lvl>";
+    }
+
+    private static String headingStyles() {
+        int[] sizes = {32, 28, 26, 24};
+        StringBuilder styles = new StringBuilder();
+        for (int level = 1; level <= sizes.length; level++) {
+            styles.append("<w:style w:type=\"paragraph\" w:styleId=\"Heading").append(level).append("\">")
+                    .append("<w:name w:val=\"heading ").append(level).append("\"/><w:basedOn w:val=\"Normal\"/>")
+                    .append("<w:next w:val=\"Normal\"/><w:qFormat/>")
+                    .append("<w:pPr><w:keepNext/><w:spacing w:before=\"240\" w:after=\"120\"/>")
+                    .append("<w:outlineLvl w:val=\"").append(level - 1).append("\"/></w:pPr>")
+                    .append("<w:rPr><w:b/><w:sz w:val=\"").append(sizes[level - 1]).append("\"/></w:rPr></w:style>");
+        }
+        return styles.toString();
+    }
+
+    private static void putPart(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static ObjectNode heading(int level, String text) {
+        ObjectNode heading = paragraph(text).put("type", "heading");
+        heading.putObject("attrs").put("level", level);
+        return heading;
+    }
+
+    private static ObjectNode paragraph(String text) {
+        ObjectNode paragraph = JsonNodeFactory.instance.objectNode().put("type", "paragraph");
+        paragraph.putArray("content").addObject().put("type", "text").put("text", text);
+        return paragraph;
+    }
+
+    private static void metaLine(ArrayNode content, String label, String value) {
+        if (notBlank(value)) {
+            content.add(paragraph(label + ": " + value));
+        }
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
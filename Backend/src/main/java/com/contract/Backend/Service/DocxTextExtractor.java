@@ -0,0 +1,323 @@
+package com.contract.Backend.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Pulls the text of a DOCX out as a list of headings, numbered clauses and paragraphs.
+ *
+ * The zip is read as a stream up to word/document.xml, which is parsed with a StAX reader;
+ * each paragraph is handed to the sink as soon as it closes. Memory per document is the
+ * reader's buffer plus one paragraph (capped at maxChars), whatever the size of the file.
+ * DTDs and external entities are refused, and document.xml may inflate to at most
+ * maxXmlBytes, so a crafted upload cannot take the worker down.
+ *
+ * Headings come from the paragraph style (Heading1..9, Title) or an outline level. Clauses
+ * are list paragraphs (w:numPr) or paragraphs starting with a typed number such as "4.",
+ * "4.2", "(a)" or "Section 3". Auto-numbering is reconstructed as plain dotted counters per
+ * list; numbering.xml comes after document.xml in the zip and is not read, so number formats
+ * and start values are lost and bulleted items come out as clauses too.
+ */
+final class DocxTextExtractor {
+
+    enum Kind {
+        HEADING, CLAUSE, PARAGRAPH
+    }
+
+    /**
+     * @param level heading level (0 for Title), clause depth starting at 1, 0 for paragraphs
+     * @param number clause or heading number, null if it has none
+     */
+    record Section(int position, Kind kind, int level, String number, String text) {
+    }
+
+    static final class InvalidDocxException extends RuntimeException {
+        InvalidDocxException(String message) {
+            super(message);
+        }
+
+        InvalidDocxException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final XMLInputFactory XML_INPUT = XMLInputFactory.newInstance();
+    private static final Pattern HEADING_STYLE = Pattern.compile("(?i)heading\\s*([1-9])");
+    private static final Pattern TYPED_NUMBER = Pattern.compile(
+            "(\\d{1,3}(?:\\.\\d{1,3})+\\.?|\\d{1,3}\\.|\\([a-zA-Z0-9]{1,4}\\)|[a-z]\\)"
+                    + "|(?:Section|Article|Clause)\\s+[0-9IVXLC]+(?:\\.\\d{1,3})*)[\\s:.)-]*\\s+(?=\\S)");
+    private static final int MAX_LEVELS = 9;
+
+    static {
+        XML_INPUT.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final Consumer<Section> sink;
+    private final int maxChars;
+    private final Map<String, int[]> listCounters = new HashMap<>();
+    private int position;
+
+    // State of the paragraph being read
+    private final StringBuilder text = new StringBuilder();
+    private int paragraphDepth;
+    private boolean inProperties;
+    private boolean inText;
+    private String style;
+    private Integer outlineLevel;
+    private String numId;
+    private int listLevel;
+
+    private DocxTextExtractor(Consumer<Section> sink, int maxChars) {
+        this.sink = sink;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Streams the sections of the DOCX to {@code sink} in document order
+     *
+     * @return the number of sections emitted
+     * @throws InvalidDocxException if the file is not a readable DOCX or exceeds the limits
+     */
+    static int extract(InputStream docx, long maxXmlBytes, int maxChars, Consumer<Section> sink) throws IOException {
+        ZipInputStream zip = new ZipInputStream(docx);
+        for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+            if ("word/document.xml".equals(entry.getName())) {
+                DocxTextExtractor extractor = new DocxTextExtractor(sink, maxChars);
+                extractor.parse(new LimitedInputStream(zip, maxXmlBytes));
+                return extractor.position;
+            }
+        }
+        throw new InvalidDocxException("Not a DOCX: word/document.xml is missing");
+    }
+
+    private void parse(InputStream documentXml) {
+        try {
+            XMLStreamReader xml = XML_INPUT.createXMLStreamReader(documentXml);
+            try {
+                while (xml.hasNext()) {
+                    switch (xml.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> start(xml);
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                            if (inText && text.length() < maxChars) {
+                                int length = Math.min(xml.getTextLength(), maxChars - text.length());
+                                text.append(xml.getTextCharacters(), xml.getTextStart(), length);
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> end(xml);
+                        default -> {
+                        }
+                    }
+                }
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new InvalidDocxException("Unreadable word/document.xml: " + e.getMessage(), e);
+        }
+    }
+
+    private void start(XMLStreamReader xml) {
+        if (!W.equals(xml.getNamespaceURI())) {
+            return;
+        }
+        String name = xml.getLocalName();
+        if ("p".equals(name)) {
+            // Paragraphs nested in text boxes are read as part of the enclosing one
+            if (paragraphDepth++ == 0) {
+                text.setLength(0);
+                style = null;
+                outlineLevel = null;
+                numId = null;
+                listLevel = 0;
+            } else {
+                appendBreak();
+            }
+            return;
+        }
+        if (paragraphDepth != 1 && !"t".equals(name)) {
+            return;
+        }
+        switch (name) {
+            case "pPr" -> inProperties = true;
+            case "pStyle" -> style = value(xml);
+            case "outlineLvl" -> outlineLevel = parseLevel(value(xml));
+            case "numId" -> numId = value(xml);
+            case "ilvl" -> listLevel = parseLevel(value(xml));
+            case "t" -> inText = true;
+            case "tab" -> {
+                if (!inProperties) {
+                    append('\t');
+                }
+            }
+            case "br", "cr" -> appendBreak();
+            default -> {
+            }
+        }
+    }
+
+    private void end(XMLStreamReader xml) {
+        if (!W.equals(xml.getNamespaceURI())) {
+            return;
+        }
+        switch (xml.getLocalName()) {
+            case "t" -> inText = false;
+            case "pPr" -> inProperties = false;
+            case "p" -> {
+                if (--paragraphDepth == 0) {
+                    emit();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void emit() {
+        String content = text.toString().strip();
+        if (content.isEmpty()) {
+            return;
+        }
+        String listNumber = numId != null && !"0".equals(numId) ? nextListNumber(numId, listLevel) : null;
+        Matcher typed = TYPED_NUMBER.matcher(content);
+        String typedNumber = null;
+        if (typed.lookingAt()) {
+            typedNumber = typed.group(1);
+            content = content.substring(typed.end());
+        }
+
+        Integer headingLevel = headingLevel();
+        Section section;
+        if (headingLevel != null) {
+            section = new Section(position, Kind.HEADING, headingLevel, typedNumber != null ? typedNumber : listNumber, content);
+        } else if (listNumber != null) {
+            // The typed number, if any, is part of the text of a list paragraph
+            section = new Section(position, Kind.CLAUSE, listLevel + 1, listNumber, text.toString().strip());
+        } else if (typedNumber != null) {
+            section = new Section(position, Kind.CLAUSE, typedDepth(typedNumber), typedNumber, content);
+        } else {
+            section = new Section(position, Kind.PARAGRAPH, 0, null, content);
+        }
+        position++;
+        sink.accept(section);
+    }
+
+    private Integer headingLevel() {
+        if (style != null) {
+            if ("Title".equalsIgnoreCase(style)) {
+                return 0;
+            }
+            Matcher heading = HEADING_STYLE.matcher(style);
+            if (heading.matches()) {
+                return Integer.parseInt(heading.group(1));
+            }
+        }
+        // outlineLvl 9 means body text
+        return outlineLevel != null && outlineLevel < MAX_LEVELS ? outlineLevel + 1 : null;
+    }
+
+    private String nextListNumber(String list, int level) {
+        int[] counters = listCounters.computeIfAbsent(list, id -> new int[MAX_LEVELS]);
+        int depth = Math.min(level, MAX_LEVELS - 1);
+        counters[depth]++;
+        for (int deeper = depth + 1; deeper < MAX_LEVELS; deeper++) {
+            counters[deeper] = 0;
+        }
+        StringBuilder number = new StringBuilder();
+        for (int i = 0; i <= depth; i++) {
+            number.append(Math.max(counters[i], 1)).append('.');
+        }
+        return number.toString();
+    }
+
+    private static int typedDepth(String number) {
+        if (Character.isDigit(number.charAt(0))) {
+            int depth = 1;
+            for (int i = 0; i < number.length() - 1; i++) {
+                if (number.charAt(i) == '.') {
+                    depth++;
+                }
+            }
+            return depth;
+        }
+        return number.startsWith("(") || number.endsWith(")") ? 2 : 1;
+    }
+
+    private void append(char c) {
+        if (text.length() < maxChars) {
+            text.append(c);
+        }
+    }
+
+    private void appendBreak() {
+        append('\n');
+    }
+
+    private static String value(XMLStreamReader xml) {
+        return xml.getAttributeValue(W, "val");
+    }
+
+    private static int parseLevel(String value) {
+        try {
+            return value != null ? Math.max(0, Integer.parseInt(value)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Fails once more than {@code limit} bytes have been read; guards against zip bombs
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long read;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // leave the zip stream to the caller
+        }
+
+        private void count(int n) {
+            read += n;
+            if (read > limit) {
+                throw new InvalidDocxException("word/document.xml is larger than " + limit + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.DraftPatchResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Patch autosave for drafts.
+ *
+ * Each PATCH names the revision it was made against and is applied to an in-memory copy of
+ * the draft, so the client sends only its edit and gets 412 if someone else's edit got in
+ * first. Writes are coalesced: the draft is written once app.drafts.autosave.coalesce-ms
+ * after the last patch of a burst, or after app.drafts.autosave.max-delay-ms at the latest,
+ * with a conditional UPDATE on the revision it was loaded at. Once written and idle, the
+ * in-memory copy is dropped.
+ *
+ * If that UPDATE finds the row changed (or made final) the buffered revisions are kept and
+ * the draft is conflicted: PATCH and flush answer 409 with the server revision, and the
+ * PATCH reply carries the unsaved document. A PATCH against the server revision, i.e. a
+ * rebased edit, discards the buffer and continues from the table.
+ *
+ * A write inside a transaction (completing a request with the draft) counts as persisted
+ * only once that transaction commits; on rollback the buffer is written again later.
+ *
+ * Until that write the lists still show the previous content. Like the other in-memory
+ * state this is per instance; patches to one draft must reach the same instance.
+ */
+@Service
+@Slf4j
+public class DraftAutosaveService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final CollectionVersions collectionVersions;
+    private final long coalesceMillis;
+    private final long maxDelayMillis;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "draft-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DraftAutosaveService(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                CollectionVersions collectionVersions,
+                                @Value("${app.drafts.autosave.coalesce-ms:2000}") long coalesceMillis,
+                                @Value("${app.drafts.autosave.max-delay-ms:10000}") long maxDelayMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.collectionVersions = collectionVersions;
+        this.coalesceMillis = coalesceMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Buffered state of one draft; all fields guarded by the instance
+     */
+    private static final class Pending {
+        final long draftId;
+        JsonNode document;
+        long revision;
+        long persistedRevision;
+        long firstUnwrittenAt;
+        ScheduledFuture<?> write;
+        boolean dropped;
+        // written in a transaction that has not completed yet
+        boolean committing;
+        // being written by the transaction that makes the draft final
+        boolean finalizing;
+        // set when the conditional UPDATE found the row changed: its revision then, -1 if not conflicted
+        long serverRevision = -1;
+        boolean serverFinal;
+
+        Pending(long draftId, JsonNode document, long revision) {
+            this.draftId = draftId;
+            this.document = document;
+            this.revision = revision;
+            this.persistedRevision = revision;
+        }
+    }
+
+    /**
+     * Applies an RFC 6902 patch to the draft
+     *
+     * @param baseRevision revision the client's copy is at
+     * @throws ResponseStatusException 412 if the draft has moved past baseRevision, 422 if the
+     *                                 patch cannot be applied, 409 for final drafts
+     * @throws DraftConflictException  if buffered revisions could not be written; patch against
+     *                                 its server revision to continue
+     */
+    public DraftPatchResponse patch(Long draftId, long baseRevision, JsonNode patch) {
+        while (true) {
+            Pending state = pending.get(draftId);
+            if (state == null) {
+                Pending loaded = load(draftId);
+                state = pending.putIfAbsent(draftId, loaded);
+                if (state == null) {
+                    state = loaded;
+                }
+            }
+            synchronized (state) {
+                if (state.dropped) {
+                    continue; // written and evicted in the meantime, load again
+                }
+                if (state.serverRevision >= 0) {
+                    if (state.serverFinal || baseRevision != state.serverRevision) {
+                        DraftConflictException conflict = conflict(state);
+                        if (state.serverFinal) {
+                            release(state); // nothing can be rebased onto a final draft; handed back once
+                        }
+                        throw conflict;
+                    }
+                    // rebased onto the server copy: the unsaved revisions went back with the 409
+                    release(state);
+                    continue;
+                }
+                if (state.finalizing) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Draft " + draftId + " is final and can no longer be edited");
+                }
+                if (baseRevision != state.revision) {
+                    throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                            "Draft " + draftId + " is at revision " + state.revision + ", patch was made against " + baseRevision);
+                }
+                try {
+                    state.document = JsonPatch.apply(state.document, patch);
+                } catch (JsonPatch.InvalidPatchException e) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+                }
+                state.revision++;
+                scheduleWrite(state);
+                return DraftPatchResponse.builder()
+                        .id(draftId)
+                        .revision(state.revision)
+                        .persistedRevision(state.persistedRevision)
+                        .build();
+            }
+        }
+    }
+
+    /**
+     * Writes any buffered patches for the draft now
+     *
+     * @throws DraftConflictException if they cannot be written
+     */
+    public void flush(Long draftId) {
+        Pending state = pending.get(draftId);
+        if (state != null) {
+            write(state);
+            synchronized (state) {
+                if (!state.dropped && state.serverRevision >= 0) {
+                    throw conflict(state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes any buffered patches in the caller's transaction, which makes the draft final,
+     * and refuses further patches. If the transaction rolls back, the draft takes patches
+     * again and the buffer is written later.
+     *
+     * @throws DraftConflictException if the buffered patches cannot be written
+     */
+    public void flushForFinal(Long draftId) {
+        Pending state = pending.get(draftId);
+        if (state == null) {
+            // a patch loading the draft before the commit is caught by the UPDATE's is_final check
+            return;
+        }
+        synchronized (state) {
+            if (state.dropped) {
+                return;
+            }
+            state.finalizing = true;
+            write(state);
+            if (state.serverRevision >= 0) {
+                state.finalizing = false;
+                throw conflict(state);
+            }
+            if (!state.committing && !state.dropped) {
+                state.finalizing = false;
+                throw new IllegalStateException("Autosaved revisions of draft " + draftId + " could not be written");
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.shutdownNow();
+        pending.values().forEach(this::write);
+    }
+
+    private Pending load(Long draftId) {
+        // Only the columns needed, the uploaded docx_bytes stay in the table
+        List<Pending> rows = jdbcTemplate.query(
+                "SELECT content::text, COALESCE(revision, 0), COALESCE(is_final, false) FROM contract_drafts WHERE id = ?",
+                (rs, i) -> {
+                    if (rs.getBoolean(3)) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT, "Draft " + draftId + " is final and can no longer be edited");
+                    }
+                    try {
+                        return new Pending(draftId, objectMapper.readTree(rs.getString(1)), rs.getLong(2));
+                    } catch (JsonProcessingException e) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT, "Draft " + draftId + " content is not valid JSON");
+                    }
+                }, draftId);
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Draft not found");
+        }
+        return rows.get(0);
+    }
+
+    private void scheduleWrite(Pending state) {
+        long now = System.currentTimeMillis();
+        if (state.write == null) {
+            state.firstUnwrittenAt = now;
+        } else if (now - state.firstUnwrittenAt + coalesceMillis > maxDelayMillis) {
+            return; // keep the write already scheduled so a steady stream still gets saved
+        } else {
+            state.write.cancel(false);
+        }
+        state.write = writer.schedule(() -> write(state), coalesceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void write(Pending state) {
+        synchronized (state) {
+            if (state.dropped) {
+                return;
+            }
+            if (state.write != null) {
+                state.write.cancel(false);
+                state.write = null;
+            }
+            if (state.committing || state.serverRevision >= 0) {
+                return; // settled when that transaction completes, or kept for the client to rebase
+            }
+            long written = state.revision;
+            if (written != state.persistedRevision) {
+                try {
+                    int updated = jdbcTemplate.update(
+                            "UPDATE contract_drafts SET content = CAST(? AS jsonb), revision = ?, updated_at = ? " +
+                            "WHERE id = ? AND COALESCE(revision, 0) = ? AND COALESCE(is_final, false) = false",
+                            objectMapper.writeValueAsString(state.document), written,
+                            Timestamp.valueOf(LocalDateTime.now()), state.draftId, state.persistedRevision);
+                    if (updated == 0) {
+                        conflicted(state);
+                        return;
+                    }
+                } catch (JsonProcessingException | RuntimeException e) {
+                    log.warn("Autosave of draft {} failed: {}", state.draftId, e.getMessage());
+                    if (!writer.isShutdown()) {
+                        // try again after the next quiet period
+                        state.write = writer.schedule(() -> write(state), coalesceMillis, TimeUnit.MILLISECONDS);
+                    }
+                    return;
+                }
+                collectionVersions.bumpAfterCommit(CollectionVersions.Collection.DRAFTS);
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // the caller's transaction can still roll the UPDATE back
+                state.committing = true;
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        completed(state, written, status == STATUS_COMMITTED);
+                    }
+                });
+                return;
+            }
+            state.persistedRevision = written;
+            release(state);
+        }
+    }
+
+    private void completed(Pending state, long written, boolean committed) {
+        synchronized (state) {
+            state.committing = false;
+            if (committed) {
+                state.persistedRevision = written;
+                if (state.finalizing) {
+                    release(state); // final now: the next patch loads it and gets 409
+                    return;
+                }
+            }
+            state.finalizing = false;
+            if (state.revision != state.persistedRevision) {
+                scheduleWrite(state); // rolled back, or patched in the meantime
+            } else {
+                release(state);
+            }
+        }
+    }
+
+    /**
+     * Keeps the buffer after the conditional UPDATE matched nothing, noting where the row is now
+     */
+    private void conflicted(Pending state) {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT COALESCE(revision, 0), COALESCE(is_final, false) FROM contract_drafts WHERE id = ?",
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getBoolean(2)}, state.draftId);
+        if (rows.isEmpty()) {
+            log.warn("Draft {} was deleted underneath the autosave buffer; discarding revisions {} to {}",
+                    state.draftId, state.persistedRevision + 1, state.revision);
+            release(state);
+            return;
+        }
+        state.serverRevision = (Long) rows.get(0)[0];
+        state.serverFinal = (Boolean) rows.get(0)[1];
+        log.warn("Draft {} changed underneath the autosave buffer (now at revision {}{}); keeping revisions {} to {} for the client",
+                state.draftId, state.serverRevision, state.serverFinal ? ", final" : "", state.persistedRevision + 1, state.revision);
+    }
+
+    private DraftConflictException conflict(Pending state) {
+        return new DraftConflictException(state.draftId, state.serverRevision, state.serverFinal,
+                state.persistedRevision + 1, state.revision, state.document);
+    }
+
+    private void release(Pending state) {
+        state.dropped = true;
+        pending.remove(state.draftId, state);
+    }
+}
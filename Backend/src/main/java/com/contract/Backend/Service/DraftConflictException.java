@@ -0,0 +1,35 @@
+package com.contract.Backend.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Autosaved revisions of a draft could not be written because the row changed underneath the
+ * buffer, or the draft was made final. Mapped to 409; the PATCH endpoint also returns the
+ * unsaved document so the client can rebase it onto the server revision.
+ */
+@Getter
+public class DraftConflictException extends ResponseStatusException {
+
+    private final long draftId;
+    private final long serverRevision;
+    private final boolean finalDraft;
+    // Newest buffered revision and its document, never written
+    private final long unsavedRevision;
+    private final JsonNode unsavedDocument;
+
+    public DraftConflictException(long draftId, long serverRevision, boolean finalDraft,
+                                  long firstUnsaved, long unsavedRevision, JsonNode unsavedDocument) {
+        super(HttpStatus.CONFLICT, "Draft " + draftId
+                + (finalDraft ? " was made final" : " was changed elsewhere and is at revision " + serverRevision)
+                + "; revisions " + firstUnsaved + " to " + unsavedRevision + " were not saved"
+                + (finalDraft ? "" : ", patch against revision " + serverRevision + " to continue"));
+        this.draftId = draftId;
+        this.serverRevision = serverRevision;
+        this.finalDraft = finalDraft;
+        this.unsavedRevision = unsavedRevision;
+        this.unsavedDocument = unsavedDocument;
+    }
+}
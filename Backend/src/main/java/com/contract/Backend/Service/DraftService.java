@@ -1,18 +1,19 @@
 package com.contract.Backend.Service;
 
+import com.contract.Backend.DTO.ContractChangeEvent;
 import com.contract.Backend.DTO.DraftResponse;
 import com.contract.Backend.DTO.SaveDraftRequest;
 import com.contract.Backend.Repository.ContractDraftRepository;
 import com.contract.Backend.Repository.ContractRequestRepository;
-import com.contract.Backend.Repository.UserRepository;
 import com.contract.Backend.model.ContractDraft;
 import com.contract.Backend.model.ContractRequest;
-import com.contract.Backend.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -24,19 +25,21 @@ public class DraftService {
 
     private final ContractDraftRepository draftRepository;
     private final ContractRequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final CollectionVersions collectionVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnalyticsService analyticsService;
+    private final DraftAutosaveService draftAutosaveService;
+    private final DocxExtractionService docxExtractionService;
 
     @Transactional
-    public DraftResponse saveDraft(SaveDraftRequest request, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public DraftResponse saveDraft(SaveDraftRequest request, UserPrincipal user) {
         ContractDraft draft = ContractDraft.builder()
                 .title(request.getTitle())
                 .contractType(request.getContractType())
                 .content(request.getContent())
-                .createdBy(user)
+                .createdBy(user.reference())
                 .version(1)
+                .revision(0L)
                 .isFinal(false)
                 .build();
 
@@ -56,15 +59,18 @@ public class DraftService {
         }
 
         ContractDraft saved = draftRepository.save(draft);
-        log.info("Saved draft {} by user {}", saved.getId(), username);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.DRAFTS);
+        publishDraftSaved(saved);
+        if (saved.getDocxBytes() != null && saved.getDocxBytes().length > 0) {
+            docxExtractionService.extractAfterCommit(DocxExtractionService.Owner.DRAFT, List.of(saved.getId()));
+        }
+        log.info("Saved draft {} by user {}", saved.getId(), user.username());
         return mapToResponse(saved);
     }
 
     @Transactional(readOnly = true)
-    public List<DraftResponse> getMyDrafts(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return draftRepository.findByCreatedBy(user)
+    public List<DraftResponse> getMyDrafts(UserPrincipal user) {
+        return draftRepository.findByCreatedBy(user.reference())
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -81,25 +87,41 @@ public class DraftService {
     }
 
     @Transactional
-    public DraftResponse markRequestCompletedWithDraft(Long requestId, Long draftId, String username) {
-        // validate user exists
-        userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public DraftResponse markRequestCompletedWithDraft(Long requestId, Long draftId, UserPrincipal user) {
         ContractRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
 
+        // the final version must include edits still waiting in the autosave buffer; they count
+        // as saved only if this transaction commits, and no more are taken
+        draftAutosaveService.flushForFinal(draftId);
         ContractDraft draft = draftRepository.findById(draftId)
                 .orElseThrow(() -> new RuntimeException("Draft not found"));
 
         // link and mark final
         draft.setContractRequest(request);
+        if (!Boolean.TRUE.equals(draft.getIsFinal())) {
+            analyticsService.recordFinalDraft();
+        }
         draft.setIsFinal(true);
         draftRepository.save(draft);
 
         // update request status
-        request.setStatus(ContractRequest.RequestStatus.COMPLETED);
+        analyticsService.applyStatus(request, ContractRequest.RequestStatus.COMPLETED);
         requestRepository.save(request);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.DRAFTS, CollectionVersions.Collection.REQUESTS);
+        publishDraftSaved(draft);
+        eventPublisher.publishEvent(ContractChangeEvent.builder()
+                .type(ContractChangeEvent.Type.REQUEST_STATUS_CHANGED)
+                .requestId(request.getId())
+                .draftId(draft.getId())
+                .status(request.getStatus().name().toLowerCase())
+                .dueDate(request.getDueDate())
+                .requestedBy(request.getRequestedBy().getUsername())
+                .assignedTo(request.getAssignedTo() != null ? request.getAssignedTo().getUsername() : null)
+                .actor(user.username())
+                .unassignedQueue(request.getAssignedTo() == null)
+                .occurredAt(LocalDateTime.now())
+                .build());
         log.info("Request {} marked COMPLETED with final draft {}", requestId, draftId);
         return mapToResponse(draft);
     }
@@ -116,13 +138,30 @@ public class DraftService {
                 .orElse(null);
     }
 
-    private DraftResponse mapToResponse(ContractDraft draft) {
+    /**
+     * Queues a change for the change feed; it is only delivered if the transaction commits
+     */
+    private void publishDraftSaved(ContractDraft draft) {
+        ContractRequest request = draft.getContractRequest();
+        eventPublisher.publishEvent(ContractChangeEvent.builder()
+                .type(ContractChangeEvent.Type.DRAFT_SAVED)
+                .draftId(draft.getId())
+                .requestId(request != null ? request.getId() : null)
+                .requestedBy(request != null ? request.getRequestedBy().getUsername() : null)
+                .assignedTo(request != null && request.getAssignedTo() != null ? request.getAssignedTo().getUsername() : null)
+                .actor(draft.getCreatedBy().getUsername())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    DraftResponse mapToResponse(ContractDraft draft) {
         return DraftResponse.builder()
                 .id(draft.getId())
                 .title(draft.getTitle())
                 .contractType(draft.getContractType())
                 .content(draft.getContent())
                 .version(draft.getVersion())
+                .revision(draft.getRevision() != null ? draft.getRevision() : 0L)
                 .isFinal(draft.getIsFinal())
                 .requestId(draft.getContractRequest() != null ? draft.getContractRequest().getId() : null)
                 .hasDocx(draft.getDocxBytes() != null && draft.getDocxBytes().length > 0)
@@ -0,0 +1,391 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.EmbeddingIndexStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the vector store in step with the templates and drafts.
+ *
+ * Every app.embedding.indexer.interval-ms each table is walked in id order, in keyset batches
+ * of app.embedding.indexer.batch-size. Postgres hashes each row's embedded fields, so a batch
+ * costs one small query unless something changed. Changed or new rows are then loaded and
+ * embedded in requests of app.embedding.indexer.embed-batch-size texts, with at most
+ * app.embedding.indexer.concurrency requests in flight, and upserted into the store. Rows
+ * that were deleted (or templates that were deactivated) are removed from it.
+ *
+ * The hash of what was embedded is kept per row in embedding_index_state. The pass position
+ * is kept in embedding_index_checkpoint after every batch, so a restart resumes where the
+ * last pass stopped. A batch that fails is not checkpointed and is retried on the next sweep;
+ * rows from it that were already embedded are skipped then, because their hashes match.
+ */
+@Service
+@Slf4j
+public class EmbeddingIndexer {
+
+    enum Kind {
+        TEMPLATE("template", """
+                SELECT id, %s AS hash FROM contract_templates
+                WHERE id > ? AND COALESCE(is_active, TRUE) ORDER BY id LIMIT ?
+                """, """
+                SELECT id, %s AS hash, title, contract_type, description, content::text FROM contract_templates
+                WHERE id = ANY(?)
+                """),
+        DRAFT("draft", """
+                SELECT id, %s AS hash FROM contract_drafts
+                WHERE id > ? ORDER BY id LIMIT ?
+                """, """
+                SELECT id, %s AS hash, title, contract_type, NULL, content::text FROM contract_drafts
+                WHERE id = ANY(?)
+                """);
+
+        // Over exactly the fields documentText uses
+        private static final String HASH =
+                "encode(sha256(convert_to(concat_ws(chr(10), title, contract_type, %s, content::text), 'UTF8')), 'hex')";
+
+        final String key;
+        final String scanSql;
+        final String loadSql;
+
+        Kind(String key, String scanSql, String loadSql) {
+            this.key = key;
+            String hash = HASH.formatted("template".equals(key) ? "description" : "NULL");
+            this.scanSql = scanSql.formatted(hash);
+            this.loadSql = loadSql.formatted(hash);
+        }
+    }
+
+    private record Row(long id, String hash) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<VectorStore> vectorStores;
+    @Getter
+    private final boolean enabled;
+    private final int batchSize;
+    private final int embedBatchSize;
+    private final int maxChars;
+    private final ExecutorService embedders;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<Kind, String> lastErrors = new HashMap<>();
+
+    public EmbeddingIndexer(JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            ObjectProvider<VectorStore> vectorStores,
+                            @Value("${app.embedding.indexer.enabled:false}") boolean enabled,
+                            @Value("${app.embedding.indexer.batch-size:200}") int batchSize,
+                            @Value("${app.embedding.indexer.embed-batch-size:16}") int embedBatchSize,
+                            @Value("${app.embedding.indexer.concurrency:2}") int concurrency,
+                            @Value("${app.embedding.indexer.max-chars:8000}") int maxChars) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.vectorStores = vectorStores;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.embedBatchSize = embedBatchSize;
+        this.maxChars = maxChars;
+        AtomicInteger threads = new AtomicInteger();
+        this.embedders = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "embedding-indexer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.embedding.indexer.interval-ms:60000}",
+            initialDelayString = "${app.embedding.indexer.initial-delay-ms:30000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * Runs one pass over every kind, resuming from the checkpoints
+     *
+     * @return false if a pass was already running or a batch failed
+     */
+    public boolean sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            VectorStore store = vectorStores.getObject();
+            boolean complete = true;
+            for (Kind kind : Kind.values()) {
+                complete &= index(kind, store);
+            }
+            return complete;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Forgets the stored hashes of {@code kind}, so the next pass embeds every row again
+     * (after changing the embedding model)
+     */
+    public void reindex(String kind) {
+        Kind target = kind(kind);
+        jdbcTemplate.update("DELETE FROM embedding_index_state WHERE kind = ?", target.key);
+        jdbcTemplate.update("DELETE FROM embedding_index_checkpoint WHERE kind = ?", target.key);
+    }
+
+    public List<EmbeddingIndexStatus> status() {
+        Map<String, EmbeddingIndexStatus> result = new LinkedHashMap<>();
+        for (Kind kind : Kind.values()) {
+            String lastError;
+            synchronized (lastErrors) {
+                lastError = lastErrors.get(kind);
+            }
+            result.put(kind.key, EmbeddingIndexStatus.builder().kind(kind.key).lastError(lastError).build());
+        }
+        jdbcTemplate.query("SELECT kind, COUNT(*) FROM embedding_index_state GROUP BY kind",
+                (RowCallbackHandler) rs -> {
+                    EmbeddingIndexStatus status = result.get(rs.getString(1));
+                    if (status != null) {
+                        status.setIndexed(rs.getLong(2));
+                    }
+                });
+        jdbcTemplate.query("SELECT kind, last_id, last_pass_completed_at FROM embedding_index_checkpoint",
+                (RowCallbackHandler) rs -> {
+                    EmbeddingIndexStatus status = result.get(rs.getString(1));
+                    if (status != null) {
+                        status.setCursor(rs.getLong(2));
+                        Timestamp completed = rs.getTimestamp(3);
+                        status.setLastPassCompletedAt(completed != null ? completed.toLocalDateTime() : null);
+                    }
+                });
+        return new ArrayList<>(result.values());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        embedders.shutdownNow();
+    }
+
+    private boolean index(Kind kind, VectorStore store) {
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+                "SELECT last_id FROM embedding_index_checkpoint WHERE kind = ?", Long.class, kind.key);
+        long cursor = checkpoint.isEmpty() ? 0 : checkpoint.get(0);
+        int embedded = 0;
+        int removed = 0;
+        try {
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(kind.scanSql,
+                        (rs, i) -> new Row(rs.getLong(1), rs.getString(2)), cursor, batchSize);
+                boolean last = rows.size() < batchSize;
+                long upTo = last ? Long.MAX_VALUE : rows.get(rows.size() - 1).id();
+
+                Map<Long, String> stored = new HashMap<>();
+                jdbcTemplate.query("SELECT entity_id, content_hash FROM embedding_index_state " +
+                                "WHERE kind = ? AND entity_id > ? AND entity_id <= ?",
+                        (RowCallbackHandler) rs -> stored.put(rs.getLong(1), rs.getString(2)), kind.key, cursor, upTo);
+
+                List<Long> changed = new ArrayList<>();
+                for (Row row : rows) {
+                    if (!row.hash().equals(stored.remove(row.id()))) {
+                        changed.add(row.id());
+                    }
+                }
+                embedded += embed(kind, store, changed);
+                // What is left in stored has no live row any more
+                removed += remove(kind, store, new ArrayList<>(stored.keySet()));
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                if (last) {
+                    jdbcTemplate.update("""
+                            INSERT INTO embedding_index_checkpoint (kind, last_id, last_pass_completed_at, updated_at)
+                            VALUES (?, 0, ?, ?)
+                            ON CONFLICT (kind) DO UPDATE SET last_id = 0,
+                                last_pass_completed_at = EXCLUDED.last_pass_completed_at, updated_at = EXCLUDED.updated_at
+                            """, kind.key, now, now);
+                    break;
+                }
+                cursor = upTo;
+                jdbcTemplate.update("""
+                        INSERT INTO embedding_index_checkpoint (kind, last_id, updated_at) VALUES (?, ?, ?)
+                        ON CONFLICT (kind) DO UPDATE SET last_id = EXCLUDED.last_id, updated_at = EXCLUDED.updated_at
+                        """, kind.key, cursor, now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Embedding pass over {}s stopped after id {}: {}", kind.key, cursor, e.getMessage());
+            setLastError(kind, e.getMessage());
+            return false;
+        }
+        if (embedded > 0 || removed > 0) {
+            log.info("Embedding pass over {}s: {} embedded, {} removed", kind.key, embedded, removed);
+        }
+        setLastError(kind, null);
+        return true;
+    }
+
+    /**
+     * Loads and embeds the rows, embed-batch-size texts per request and at most concurrency
+     * requests at a time; records the hash of every chunk that made it into the store
+     */
+    private int embed(Kind kind, VectorStore store, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Document> documents = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(kind.loadSql);
+            Array array = connection.createArrayOf("bigint", ids.toArray());
+            statement.setArray(1, array);
+            return statement;
+        }, (rs, i) -> document(kind, rs.getLong(1), rs.getString(2),
+                rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6)));
+
+        List<Future<List<Document>>> chunks = new ArrayList<>();
+        for (int from = 0; from < documents.size(); from += embedBatchSize) {
+            List<Document> chunk = documents.subList(from, Math.min(from + embedBatchSize, documents.size()));
+            chunks.add(embedders.submit(() -> {
+                store.add(chunk);
+                return chunk;
+            }));
+        }
+
+        int embedded = 0;
+        RuntimeException failure = null;
+        for (Future<List<Document>> chunk : chunks) {
+            try {
+                List<Document> stored = chunk.get();
+                jdbcTemplate.batchUpdate("""
+                                INSERT INTO embedding_index_state (kind, entity_id, content_hash, indexed_at) VALUES (?, ?, ?, ?)
+                                ON CONFLICT (kind, entity_id) DO UPDATE SET
+                                    content_hash = EXCLUDED.content_hash, indexed_at = EXCLUDED.indexed_at
+                                """, stored, stored.size(),
+                        (ps, document) -> {
+                            ps.setString(1, kind.key);
+                            ps.setLong(2, (Long) document.getMetadata().get("entityId"));
+                            ps.setString(3, (String) document.getMetadata().get("contentHash"));
+                            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                        });
+                embedded += stored.size();
+            } catch (ExecutionException e) {
+                failure = new IllegalStateException("Embedding request failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Interrupted while embedding", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return embedded;
+    }
+
+    private int remove(Kind kind, VectorStore store, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        store.delete(ids.stream().map(id -> documentId(kind, id)).toList());
+        jdbcTemplate.batchUpdate("DELETE FROM embedding_index_state WHERE kind = ? AND entity_id = ?", ids, ids.size(),
+                (ps, id) -> {
+                    ps.setString(1, kind.key);
+                    ps.setLong(2, id);
+                });
+        return ids.size();
+    }
+
+    private Document document(Kind kind, long id, String hash, String title, String contractType,
+                              String description, String content) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("kind", kind.key);
+        metadata.put("entityId", id);
+        metadata.put("title", title);
+        metadata.put("contractType", contractType);
+        metadata.put("contentHash", hash);
+        return Document.builder()
+                .id(documentId(kind, id))
+                .text(documentText(title, contractType, description, content))
+                .metadata(metadata)
+                .build();
+    }
+
+    /**
+     * Title, type, description and the text values of the content JSON, cut at max-chars
+     */
+    String documentText(String title, String contractType, String description, String content) {
+        StringBuilder text = new StringBuilder();
+        text.append(title).append('\n').append(contractType).append('\n');
+        if (description != null && !description.isBlank()) {
+            text.append(description).append('\n');
+        }
+        try {
+            appendText(objectMapper.readTree(content), text);
+        } catch (JsonProcessingException e) {
+            text.append(content);
+        }
+        return text.length() > maxChars ? text.substring(0, maxChars) : text.toString();
+    }
+
+    private void appendText(JsonNode node, StringBuilder text) {
+        if (text.length() >= maxChars) {
+            return;
+        }
+        if (node.isTextual()) {
+            if (!node.asText().isBlank()) {
+                text.append(node.asText()).append('\n');
+            }
+        } else if (node.isContainerNode()) {
+            node.forEach(child -> appendText(child, text));
+        }
+    }
+
+    /**
+     * Stable store id per entity, so re-embedding a row replaces its previous vector
+     */
+    static String documentId(Kind kind, long id) {
+        return UUID.nameUUIDFromBytes((kind.key + ":" + id).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static Kind kind(String name) {
+        for (Kind kind : Kind.values()) {
+            if (kind.key.equalsIgnoreCase(name)) {
+                return kind;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown kind '" + name + "', expected template or draft");
+    }
+
+    private void setLastError(Kind kind, String error) {
+        synchronized (lastErrors) {
+            lastErrors.put(kind, error);
+        }
+    }
+}
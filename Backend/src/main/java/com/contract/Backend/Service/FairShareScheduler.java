@@ -0,0 +1,168 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.Config.QuotaProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders queued generations across departments with weighted fair queueing.
+ *
+ * Only {@code maxConcurrent} generations run against the model at once; the rest wait here.
+ * Each waiting call gets a virtual finish time of
+ * {@code max(virtualNow, department's last finish) + expectedCost / weight}, where the
+ * expected cost is the department's recent average token usage. The call with the smallest
+ * finish time runs next, so a department that queues twenty drafts only gets its weighted
+ * share of the model while others are waiting, and keeps all of it when nobody else is.
+ */
+@Component
+@Slf4j
+public class FairShareScheduler {
+
+    private static final double DEFAULT_COST = 2_000;
+    private static final double COST_SMOOTHING = 0.2;
+
+    private final QuotaProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition turn = lock.newCondition();
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>(
+            Comparator.comparingDouble((Ticket t) -> t.finish).thenComparingLong(t -> t.sequence));
+    private final Map<String, Double> lastFinish = new HashMap<>();
+    private final Map<String, Double> averageCost = new HashMap<>();
+    private double virtualTime;
+    private int running;
+    private long sequence;
+
+    public FairShareScheduler(QuotaProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        Gauge.builder("contract.generation.queue.depth", this, FairShareScheduler::queued)
+                .description("Generations waiting for a model slot")
+                .register(registry);
+        Gauge.builder("contract.generation.running", this, FairShareScheduler::running)
+                .description("Generations currently running against the model")
+                .register(registry);
+    }
+
+    private static final class Ticket {
+        final String department;
+        final double start;
+        final double finish;
+        final long sequence;
+
+        Ticket(String department, double start, double finish, long sequence) {
+            this.department = department;
+            this.start = start;
+            this.finish = finish;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Waits for this department's turn, then runs the task on the calling thread
+     *
+     * @throws QuotaExceededException if the queue is already full
+     */
+    public <T> T run(String department, Callable<T> task) throws Exception {
+        Ticket ticket = enqueue(department);
+        awaitTurn(ticket);
+        try {
+            return task.call();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Feeds the tokens a finished generation used into the department's expected cost
+     */
+    public void recordCost(String department, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            averageCost.merge(department, (double) tokens,
+                    (previous, sample) -> previous + COST_SMOOTHING * (sample - previous));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Ticket enqueue(String department) {
+        lock.lock();
+        try {
+            if (running >= properties.getMaxConcurrent() && queue.size() >= properties.getMaxQueued()) {
+                throw new QuotaExceededException("queue", "slots", null, properties.getQueueFullRetryAfter());
+            }
+            double cost = averageCost.getOrDefault(department, DEFAULT_COST);
+            double start = Math.max(virtualTime, lastFinish.getOrDefault(department, 0.0));
+            double finish = start + cost / properties.weightOf(department);
+            lastFinish.put(department, finish);
+            Ticket ticket = new Ticket(department, start, finish, sequence++);
+            queue.add(ticket);
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitTurn(Ticket ticket) throws InterruptedException {
+        lock.lock();
+        try {
+            while (queue.peek() != ticket || running >= properties.getMaxConcurrent()) {
+                turn.await();
+            }
+            queue.poll();
+            running++;
+            virtualTime = Math.max(virtualTime, ticket.start);
+            if (queue.size() > 0 && running < properties.getMaxConcurrent()) {
+                turn.signalAll();
+            }
+            log.debug("Generation for {} started, {} running, {} queued", ticket.department, running, queue.size());
+        } catch (InterruptedException e) {
+            queue.remove(ticket);
+            turn.signalAll();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            running--;
+            turn.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double running() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
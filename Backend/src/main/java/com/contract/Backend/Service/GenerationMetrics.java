@@ -0,0 +1,224 @@
+package com.contract.Backend.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the generation pipeline: per-model latency, time-to-first-token,
+ * tokens/sec and token counts from Ollama's eval stats, parse time, and how often we fall
+ * back to text parsing or to the canned template.
+ */
+@Component
+@RequiredArgsConstructor
+public class GenerationMetrics {
+
+    public enum ParseMode {
+        JSON, TEXT_FALLBACK
+    }
+
+    static final String LATENCY = "contract.generation.latency";
+    static final String TIME_TO_FIRST_TOKEN = "contract.generation.ttft";
+    static final String MODEL_LOAD = "contract.generation.model.load";
+    static final String TOKENS_PER_SECOND = "contract.generation.tokens.per.second";
+    static final String PROMPT_TOKENS = "contract.generation.prompt.tokens";
+    static final String OUTPUT_TOKENS = "contract.generation.output.tokens";
+    static final String PARSE = "contract.generation.parse";
+    static final String FALLBACK_TEMPLATE = "contract.generation.fallback.template";
+    static final String QUEUE_WAIT = "contract.generation.queue.wait";
+    static final String QUOTA_REJECTED = "contract.generation.quota.rejected";
+    static final String WARMUP = "contract.generation.warmup";
+
+    private final MeterRegistry registry;
+
+    public void recordGeneration(OllamaGeneration generation) {
+        String model = generation.getModel();
+        timer(LATENCY, "End-to-end model call", model, "success")
+                .record(generation.getWallTimeNanos(), TimeUnit.NANOSECONDS);
+        timer(TIME_TO_FIRST_TOKEN, "Time until the first generated token arrived", model, null)
+                .record(generation.getTimeToFirstTokenNanos(), TimeUnit.NANOSECONDS);
+        if (generation.getLoadDurationNanos() > 0) {
+            timer(MODEL_LOAD, "Model load time reported by Ollama", model, null)
+                    .record(generation.getLoadDurationNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (generation.tokensPerSecond() > 0) {
+            summary(TOKENS_PER_SECOND, "tokens/s", model).record(generation.tokensPerSecond());
+        }
+        summary(PROMPT_TOKENS, "tokens", model).record(generation.getPromptEvalCount());
+        summary(OUTPUT_TOKENS, "tokens", model).record(generation.getEvalCount());
+    }
+
+    /**
+     * Warm-up and keep-alive probes: kept out of the latency meters, but their load_duration
+     * goes into the model load timer
+     */
+    public void recordWarmup(OllamaGeneration generation) {
+        String model = generation.getModel();
+        timer(WARMUP, "Warm-up and keep-alive probe calls", model, null)
+                .record(generation.getWallTimeNanos(), TimeUnit.NANOSECONDS);
+        if (generation.getLoadDurationNanos() > 0) {
+            timer(MODEL_LOAD, "Model load time reported by Ollama", model, null)
+                    .record(generation.getLoadDurationNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordFailure(String model, long wallTimeNanos) {
+        timer(LATENCY, "End-to-end model call", model, "error")
+                .record(wallTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParse(ParseMode mode, long nanos) {
+        Timer.builder(PARSE)
+                .description("Time to turn the model output into a ContractDraftResponse")
+                .tag("mode", mode.name().toLowerCase())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFallbackTemplate(String model) {
+        Counter.builder(FALLBACK_TEMPLATE)
+                .description("Drafts served from the canned template because the model call failed")
+                .tag("model", model)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordQueueWait(String department, long nanos) {
+        Timer.builder(QUEUE_WAIT)
+                .description("Time a generation waited for a model slot")
+                .tag("department", department)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordQuotaRejection(String scope, String resource) {
+        Counter.builder(QUOTA_REJECTED)
+                .description("Generations turned away with 429, by the limit that was hit")
+                .tag("scope", scope)
+                .tag("resource", resource)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Summary served by the /actuator/generation endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Map<String, Object>> models = new TreeMap<>();
+        double generations = 0;
+
+        for (Timer timer : registry.find(LATENCY).timers()) {
+            Map<String, Object> model = models.computeIfAbsent(timer.getId().getTag("model"), k -> new LinkedHashMap<>());
+            model.put(timer.getId().getTag("outcome"), describe(timer));
+            generations += timer.count();
+        }
+        for (Timer timer : registry.find(TIME_TO_FIRST_TOKEN).timers()) {
+            models.computeIfAbsent(timer.getId().getTag("model"), k -> new LinkedHashMap<>())
+                    .put("timeToFirstToken", describe(timer));
+        }
+        for (Timer timer : registry.find(MODEL_LOAD).timers()) {
+            models.computeIfAbsent(timer.getId().getTag("model"), k -> new LinkedHashMap<>())
+                    .put("modelLoad", describe(timer));
+        }
+        for (Timer timer : registry.find(WARMUP).timers()) {
+            models.computeIfAbsent(timer.getId().getTag("model"), k -> new LinkedHashMap<>())
+                    .put("warmup", describe(timer));
+        }
+        for (DistributionSummary summary : registry.find(TOKENS_PER_SECOND).summaries()) {
+            Map<String, Object> tps = new LinkedHashMap<>();
+            tps.put("mean", summary.mean());
+            tps.put("max", summary.max());
+            models.computeIfAbsent(summary.getId().getTag("model"), k -> new LinkedHashMap<>())
+                    .put("tokensPerSecond", tps);
+        }
+        for (DistributionSummary summary : registry.find(PROMPT_TOKENS).summaries()) {
+            models.computeIfAbsent(summary.getId().getTag("model"), k -> new LinkedHashMap<>())
+                    .put("promptTokens", (long) summary.totalAmount());
+        }
+        for (DistributionSummary summary : registry.find(OUTPUT_TOKENS).summaries()) {
+            models.computeIfAbsent(summary.getId().getTag("model"), k -> new LinkedHashMap<>())
+                    .put("outputTokens", (long) summary.totalAmount());
+        }
+
+        Map<String, Object> parse = new LinkedHashMap<>();
+        double parsed = 0;
+        double textFallback = 0;
+        for (Timer timer : registry.find(PARSE).timers()) {
+            parse.put(timer.getId().getTag("mode"), describe(timer));
+            parsed += timer.count();
+            if (ParseMode.TEXT_FALLBACK.name().toLowerCase().equals(timer.getId().getTag("mode"))) {
+                textFallback += timer.count();
+            }
+        }
+        parse.put("textFallbackRate", parsed > 0 ? textFallback / parsed : 0.0);
+
+        double fallbackTemplates = registry.find(FALLBACK_TEMPLATE).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+        Map<String, Object> fallback = new LinkedHashMap<>();
+        fallback.put("count", (long) fallbackTemplates);
+        fallback.put("rate", generations > 0 ? fallbackTemplates / generations : 0.0);
+
+        Map<String, Object> queueWait = new TreeMap<>();
+        for (Timer timer : registry.find(QUEUE_WAIT).timers()) {
+            queueWait.put(timer.getId().getTag("department"), describe(timer));
+        }
+        Map<String, Object> rejected = new TreeMap<>();
+        for (Counter counter : registry.find(QUOTA_REJECTED).counters()) {
+            rejected.put(counter.getId().getTag("scope"), (long) counter.count());
+        }
+        Map<String, Object> quota = new LinkedHashMap<>();
+        quota.put("queueWait", queueWait);
+        quota.put("rejected", rejected);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("models", models);
+        result.put("parse", parse);
+        result.put("fallbackTemplate", fallback);
+        result.put("quota", quota);
+        return result;
+    }
+
+    private Timer timer(String name, String description, String model, String outcome) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .tag("model", model)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram();
+        if (outcome != null) {
+            builder.tag("outcome", outcome);
+        }
+        return builder.register(registry);
+    }
+
+    private DistributionSummary summary(String name, String unit, String model) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tag("model", model)
+                .register(registry);
+    }
+
+    private static Map<String, Object> describe(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", snapshot.count());
+        values.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        values.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            values.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,166 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.Config.QuotaProperties;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user and per-department quotas for AI generation, keyed on the user the X-USER header
+ * resolves to through the {@link UserDirectory} and on their department. Headers naming no
+ * user all share the anonymous buckets, so made-up names neither add buckets nor get a
+ * fresh quota each.
+ *
+ * Each caller and department has two token buckets: one over requests and one over model
+ * tokens (prompt + output eval counts reported by Ollama). Requests are taken up front; model
+ * tokens are billed once the generation finishes, so a single large draft can push a bucket
+ * into debt and the next call is rejected until it has refilled. Buckets that have refilled
+ * completely are dropped every app.generation.idle-sweep-ms, since a new bucket starts full
+ * anyway.
+ */
+@Service
+@Slf4j
+public class GenerationQuotaService {
+
+    static final String ANONYMOUS = "anonymous";
+    static final String NO_DEPARTMENT = "unassigned";
+
+    @Value
+    public static class Caller {
+        String username;
+        String department;
+    }
+
+    private final UserDirectory userDirectory;
+    private final QuotaProperties properties;
+    private final LongSupplier clock;
+
+    private final Map<String, TokenBucket> userRequests = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> userTokens = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> departmentRequests = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> departmentTokens = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GenerationQuotaService(UserDirectory userDirectory, QuotaProperties properties) {
+        this(userDirectory, properties, System::nanoTime);
+    }
+
+    GenerationQuotaService(UserDirectory userDirectory, QuotaProperties properties, LongSupplier clock) {
+        this.userDirectory = userDirectory;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Resolves the caller's department and takes one request from each of their buckets.
+     *
+     * @throws QuotaExceededException if any bucket is empty; nothing is taken in that case
+     */
+    public Caller admit(String username) {
+        Optional<UserPrincipal> principal = username == null || username.isBlank()
+                ? Optional.empty()
+                : userDirectory.find(username);
+        String user = principal.map(UserPrincipal::username).orElse(ANONYMOUS);
+        String department = principal
+                .map(UserPrincipal::department)
+                .filter(d -> d != null && !d.isBlank())
+                .orElse(NO_DEPARTMENT);
+        Caller caller = new Caller(user, department);
+        long now = clock.getAsLong();
+
+        // Name the bucket that frees up last, so retrying after Retry-After succeeds
+        long userTokenWait = userTokenBucket(user, now).nanosUntilPositive(now);
+        long departmentTokenWait = departmentTokenBucket(department, now).nanosUntilPositive(now);
+        if (userTokenWait > 0 || departmentTokenWait > 0) {
+            throw userTokenWait >= departmentTokenWait
+                    ? rejected(caller, "user", "tokens", user, userTokenWait)
+                    : rejected(caller, "department", "tokens", department, departmentTokenWait);
+        }
+
+        TokenBucket userBucket = userRequestBucket(user, now);
+        long userWait = userBucket.tryConsume(1, now);
+        if (userWait > 0) {
+            throw rejected(caller, "user", "requests", user, userWait);
+        }
+        long departmentWait = departmentRequestBucket(department, now).tryConsume(1, now);
+        if (departmentWait > 0) {
+            userBucket.refund(1, now);
+            throw rejected(caller, "department", "requests", department, departmentWait);
+        }
+        return caller;
+    }
+
+    /**
+     * Bills the model tokens a finished generation consumed
+     */
+    public void recordUsage(Caller caller, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        userTokenBucket(caller.getUsername(), now).charge(tokens, now);
+        departmentTokenBucket(caller.getDepartment(), now).charge(tokens, now);
+    }
+
+    /**
+     * Remaining balances for the caller, for diagnostics
+     */
+    public Map<String, Double> remaining(Caller caller) {
+        long now = clock.getAsLong();
+        return Map.of(
+                "userRequests", userRequestBucket(caller.getUsername(), now).balance(now),
+                "userTokens", userTokenBucket(caller.getUsername(), now).balance(now),
+                "departmentRequests", departmentRequestBucket(caller.getDepartment(), now).balance(now),
+                "departmentTokens", departmentTokenBucket(caller.getDepartment(), now).balance(now));
+    }
+
+    /**
+     * Drops buckets that are full again. One that an admission is using at the same moment
+     * was full too, so at worst that caller gets one request more than the burst.
+     */
+    @Scheduled(fixedDelayString = "${app.generation.idle-sweep-ms:60000}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        for (Map<String, TokenBucket> buckets : List.of(userRequests, userTokens, departmentRequests, departmentTokens)) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    int bucketCount() {
+        return userRequests.size() + userTokens.size() + departmentRequests.size() + departmentTokens.size();
+    }
+
+    private QuotaExceededException rejected(Caller caller, String scope, String resource, String subject, long waitNanos) {
+        log.info("Rejecting generation for {} ({}): {} {} quota exhausted", caller.getUsername(), caller.getDepartment(), scope, resource);
+        return new QuotaExceededException(scope, resource, subject, Duration.ofNanos(waitNanos));
+    }
+
+    private TokenBucket userRequestBucket(String user, long now) {
+        QuotaProperties.Limit limit = properties.getUser();
+        return userRequests.computeIfAbsent(user, k -> new TokenBucket(limit.getRequestBurst(), limit.getRequestsPerMinute() / 60.0, now));
+    }
+
+    private TokenBucket userTokenBucket(String user, long now) {
+        QuotaProperties.Limit limit = properties.getUser();
+        return userTokens.computeIfAbsent(user, k -> new TokenBucket(limit.getTokenBurst(), limit.getTokensPerHour() / 3600.0, now));
+    }
+
+    private TokenBucket departmentRequestBucket(String department, long now) {
+        QuotaProperties.Limit limit = properties.getDepartment();
+        return departmentRequests.computeIfAbsent(department, k -> new TokenBucket(limit.getRequestBurst(), limit.getRequestsPerMinute() / 60.0, now));
+    }
+
+    private TokenBucket departmentTokenBucket(String department, long now) {
+        QuotaProperties.Limit limit = properties.getDepartment();
+        return departmentTokens.computeIfAbsent(department, k -> new TokenBucket(limit.getTokenBurst(), limit.getTokensPerHour() / 3600.0, now));
+    }
+}
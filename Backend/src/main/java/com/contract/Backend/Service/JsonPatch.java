@@ -0,0 +1,181 @@
+package com.contract.Backend.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * RFC 6902 JSON Patch (add, remove, replace, move, copy, test) over Jackson trees, with
+ * RFC 6901 pointers. Operations run on a copy of the document, so a patch that fails part
+ * way leaves the original untouched.
+ */
+final class JsonPatch {
+
+    private static final Pattern ARRAY_INDEX = Pattern.compile("0|[1-9][0-9]*");
+
+    static final class InvalidPatchException extends RuntimeException {
+        InvalidPatchException(String message) {
+            super(message);
+        }
+    }
+
+    private JsonPatch() {
+    }
+
+    /**
+     * @return the patched document
+     * @throws InvalidPatchException if the patch is malformed, a path does not exist or a test fails
+     */
+    static JsonNode apply(JsonNode document, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new InvalidPatchException("A JSON Patch must be an array of operations");
+        }
+        JsonNode result = document.deepCopy();
+        for (int i = 0; i < patch.size(); i++) {
+            try {
+                result = applyOperation(result, patch.get(i));
+            } catch (InvalidPatchException e) {
+                throw new InvalidPatchException("Operation " + i + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode applyOperation(JsonNode document, JsonNode operation) {
+        String op = member(operation, "op").asText();
+        List<String> path = parsePointer(member(operation, "path").asText());
+        return switch (op) {
+            case "add" -> add(document, path, member(operation, "value").deepCopy());
+            case "remove" -> {
+                remove(document, path);
+                yield document;
+            }
+            case "replace" -> replace(document, path, member(operation, "value").deepCopy());
+            case "move" -> {
+                List<String> from = parsePointer(member(operation, "from").asText());
+                if (path.size() > from.size() && path.subList(0, from.size()).equals(from)) {
+                    throw new InvalidPatchException("Cannot move a value into one of its own children");
+                }
+                yield add(document, path, remove(document, from));
+            }
+            case "copy" -> add(document, path, get(document, parsePointer(member(operation, "from").asText())).deepCopy());
+            case "test" -> {
+                if (!get(document, path).equals(member(operation, "value"))) {
+                    throw new InvalidPatchException("Test failed at " + pointer(path));
+                }
+                yield document;
+            }
+            default -> throw new InvalidPatchException("Unknown op '" + op + "'");
+        };
+    }
+
+    private static JsonNode add(JsonNode document, List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.set(last, value);
+        } else if (parent instanceof ArrayNode array) {
+            if ("-".equals(last)) {
+                array.add(value);
+            } else {
+                array.insert(index(last, array.size(), path), value);
+            }
+        } else {
+            throw new InvalidPatchException("Parent of " + pointer(path) + " is not an object or array");
+        }
+        return document;
+    }
+
+    private static JsonNode remove(JsonNode document, List<String> path) {
+        if (path.isEmpty()) {
+            throw new InvalidPatchException("Cannot remove the whole document");
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            return object.remove(last);
+        }
+        if (parent instanceof ArrayNode array) {
+            return array.remove(index(last, array.size() - 1, path));
+        }
+        throw new InvalidPatchException("No value at " + pointer(path));
+    }
+
+    private static JsonNode replace(JsonNode document, List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            object.set(last, value);
+        } else if (parent instanceof ArrayNode array) {
+            array.set(index(last, array.size() - 1, path), value);
+        } else {
+            throw new InvalidPatchException("No value at " + pointer(path));
+        }
+        return document;
+    }
+
+    private static JsonNode get(JsonNode document, List<String> path) {
+        JsonNode node = document;
+        for (int i = 0; i < path.size(); i++) {
+            String token = path.get(i);
+            if (node.isObject() && node.has(token)) {
+                node = node.get(token);
+            } else if (node.isArray()) {
+                node = node.get(index(token, node.size() - 1, path.subList(0, i + 1)));
+            } else {
+                throw new InvalidPatchException("No value at " + pointer(path.subList(0, i + 1)));
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Array index token, at most {@code max}
+     */
+    private static int index(String token, int max, List<String> path) {
+        if (!ARRAY_INDEX.matcher(token).matches() || token.length() > 9 || Integer.parseInt(token) > max) {
+            throw new InvalidPatchException("Invalid array index at " + pointer(path));
+        }
+        return Integer.parseInt(token);
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new InvalidPatchException("Invalid JSON pointer '" + pointer + "'");
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String pointer(List<String> path) {
+        StringBuilder pointer = new StringBuilder();
+        for (String token : path) {
+            pointer.append('/').append(token.replace("~", "~0").replace("/", "~1"));
+        }
+        return pointer.toString();
+    }
+
+    private static JsonNode member(JsonNode operation, String name) {
+        JsonNode value = operation == null ? null : operation.get(name);
+        if (value == null) {
+            throw new InvalidPatchException("Missing '" + name + "'");
+        }
+        return value;
+    }
+}
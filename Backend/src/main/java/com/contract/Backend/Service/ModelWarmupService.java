@@ -0,0 +1,166 @@
+package com.contract.Backend.Service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the configured models at startup and keeps them resident.
+ *
+ * After startup each model gets a short probe generation, retried until it answers; the
+ * "models" health indicator (part of the readiness group) stays OUT_OF_SERVICE until then,
+ * so no user request pays the model load. Afterwards a model idle for app.ollama.warmup.refresh-ms
+ * gets an empty generate call, which resets Ollama's keep_alive timer without generating.
+ */
+@Service
+@Slf4j
+public class ModelWarmupService {
+
+    private static final String PROBE_PROMPT = "Reply with OK.";
+    private static final int PROBE_TOKENS = 16;
+    // A keep-alive ping that takes longer than this to load means the model had been evicted
+    private static final long RELOAD_THRESHOLD_MILLIS = 1000;
+
+    private final OllamaClient ollamaClient;
+    private final GenerationMetrics generationMetrics;
+    @Getter
+    private final boolean enabled;
+    private final long retryMillis;
+    private final long refreshMillis;
+    private final Map<String, ModelState> models = new LinkedHashMap<>();
+    private volatile boolean warmingUp;
+
+    public ModelWarmupService(OllamaClient ollamaClient,
+                              GenerationMetrics generationMetrics,
+                              @Value("${app.ollama.warmup.enabled:true}") boolean enabled,
+                              @Value("${app.ollama.warmup.models:${spring.ai.ollama.chat.model:gpt-oss:20b-cloud}}") List<String> models,
+                              @Value("${app.ollama.warmup.retry-ms:5000}") long retryMillis,
+                              @Value("${app.ollama.warmup.refresh-ms:240000}") long refreshMillis) {
+        this.ollamaClient = ollamaClient;
+        this.generationMetrics = generationMetrics;
+        this.enabled = enabled;
+        this.retryMillis = retryMillis;
+        this.refreshMillis = refreshMillis;
+        for (String model : models) {
+            if (!model.isBlank()) {
+                this.models.put(model.trim(), new ModelState());
+            }
+        }
+    }
+
+    @Getter
+    public static final class ModelState {
+        private volatile boolean warm;
+        private volatile long loadDurationMillis;
+        private volatile long probeMillis;
+        private volatile LocalDateTime lastProbeAt;
+        private volatile String lastError;
+    }
+
+    /**
+     * True once every configured model has answered a probe (always true when disabled)
+     */
+    public boolean isReady() {
+        return !enabled || models.values().stream().allMatch(ModelState::isWarm);
+    }
+
+    public Map<String, ModelState> getModels() {
+        return Collections.unmodifiableMap(models);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpInBackground() {
+        if (!enabled || models.isEmpty()) {
+            return;
+        }
+        warmingUp = true;
+        Thread thread = new Thread(this::warmUp, "model-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Pings models that have been idle for a refresh interval so Ollama keeps them loaded;
+     * a model that stopped answering is marked cold, which takes the instance out of readiness
+     */
+    @Scheduled(fixedDelayString = "${app.ollama.warmup.refresh-ms:240000}",
+            initialDelayString = "${app.ollama.warmup.refresh-ms:240000}")
+    public void keepAlive() {
+        if (!enabled || warmingUp) {
+            return;
+        }
+        models.forEach((model, state) -> {
+            if (state.warm && System.currentTimeMillis() - ollamaClient.lastCallMillis(model) < refreshMillis) {
+                return; // real traffic is keeping it loaded
+            }
+            if (probe(model, state, "") && state.loadDurationMillis > RELOAD_THRESHOLD_MILLIS) {
+                log.warn("Model {} had been unloaded; reloading took {} ms", model, state.loadDurationMillis);
+            }
+        });
+    }
+
+    private void warmUp() {
+        try {
+            warmUpUntilReady();
+        } finally {
+            warmingUp = false;
+        }
+    }
+
+    private void warmUpUntilReady() {
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean allWarm = true;
+            for (Map.Entry<String, ModelState> entry : models.entrySet()) {
+                if (!entry.getValue().warm && !probe(entry.getKey(), entry.getValue(), PROBE_PROMPT)) {
+                    allWarm = false;
+                }
+            }
+            if (allWarm) {
+                log.info("Models warmed up: {}", models.keySet());
+                return;
+            }
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private boolean probe(String model, ModelState state, String prompt) {
+        state.lastProbeAt = LocalDateTime.now();
+        try {
+            OllamaGeneration generation = ollamaClient.probe(model, prompt, prompt.isEmpty() ? 0 : PROBE_TOKENS);
+            generationMetrics.recordWarmup(generation);
+            state.loadDurationMillis = TimeUnit.NANOSECONDS.toMillis(generation.getLoadDurationNanos());
+            state.probeMillis = TimeUnit.NANOSECONDS.toMillis(generation.getWallTimeNanos());
+            state.lastError = null;
+            if (!state.warm) {
+                log.info("Model {} answered its warm-up probe in {} ms (load_duration {} ms)",
+                        model, state.probeMillis, state.loadDurationMillis);
+            }
+            state.warm = true;
+            return true;
+        } catch (RuntimeException e) {
+            state.lastError = e.getMessage();
+            if (state.warm) {
+                log.warn("Model {} stopped answering: {}", model, e.getMessage());
+            } else {
+                log.info("Model {} not ready yet: {}", model, e.getMessage());
+            }
+            state.warm = false;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.contract.Backend.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thin client for Ollama's /api/generate.
+ *
+ * Requests a streamed response so the arrival of the first token can be timed, and keeps
+ * the eval_count / eval_duration / prompt_eval_count / load_duration stats from the
+ * final chunk instead of discarding them. Every call passes keep_alive (app.ollama.keep-alive)
+ * so the model stays loaded between generations.
+ */
+@Component
+@Slf4j
+public class OllamaClient {
+
+    private final ObjectMapper objectMapper;
+    private final RestClient restClient;
+    private final String defaultModel;
+    private final String keepAlive;
+    private final Map<String, Long> lastCallMillis = new ConcurrentHashMap<>();
+
+    public OllamaClient(ObjectMapper objectMapper,
+                        @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl,
+                        @Value("${spring.ai.ollama.chat.model:gpt-oss:20b-cloud}") String defaultModel,
+                        @Value("${app.ollama.keep-alive:30m}") String keepAlive) {
+        this.objectMapper = objectMapper;
+        this.restClient = RestClient.builder().baseUrl(baseUrl).build();
+        this.defaultModel = defaultModel;
+        this.keepAlive = keepAlive;
+    }
+
+    public String getDefaultModel() {
+        return defaultModel;
+    }
+
+    public OllamaGeneration generate(String prompt) {
+        return generate(defaultModel, prompt);
+    }
+
+    public OllamaGeneration generate(String model, String prompt) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("prompt", prompt);
+        requestBody.put("stream", true);
+        return call(model, requestBody);
+    }
+
+    /**
+     * Short non-streamed generation capped at {@code maxTokens}, used to load a model and
+     * check it answers. An empty prompt only loads the model (or resets its keep-alive).
+     */
+    public OllamaGeneration probe(String model, String prompt, int maxTokens) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("prompt", prompt);
+        requestBody.put("stream", false);
+        requestBody.put("options", Map.of("num_predict", maxTokens));
+        return call(model, requestBody);
+    }
+
+    /**
+     * When the model was last called through this client, 0 if never
+     */
+    public long lastCallMillis(String model) {
+        return lastCallMillis.getOrDefault(model, 0L);
+    }
+
+    private OllamaGeneration call(String model, Map<String, Object> requestBody) {
+        requestBody.put("keep_alive", keepAlive);
+        lastCallMillis.put(model, System.currentTimeMillis());
+
+        long started = System.nanoTime();
+        return restClient.post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(requestBody)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new RuntimeException("Ollama returned " + response.getStatusCode());
+                    }
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        return readStream(model, reader, started);
+                    }
+                });
+    }
+
+    /**
+     * Reads the NDJSON stream; a non-streaming server sends a single done=true line, which
+     * is handled the same way.
+     */
+    private OllamaGeneration readStream(String model, BufferedReader reader, long started) throws IOException {
+        StringBuilder text = new StringBuilder();
+        long firstToken = -1;
+        JsonNode last = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode chunk = objectMapper.readTree(line);
+            if (chunk.hasNonNull("error")) {
+                throw new RuntimeException("Ollama error: " + chunk.get("error").asText());
+            }
+            String piece = chunk.path("response").asText("");
+            if (firstToken < 0 && !piece.isEmpty()) {
+                firstToken = System.nanoTime() - started;
+            }
+            text.append(piece);
+            last = chunk;
+            if (chunk.path("done").asBoolean(false)) {
+                break;
+            }
+        }
+
+        if (last == null) {
+            throw new RuntimeException("Ollama returned an empty response");
+        }
+
+        long wall = System.nanoTime() - started;
+        return OllamaGeneration.builder()
+                .model(model)
+                .response(text.toString())
+                .promptEvalCount(last.path("prompt_eval_count").asLong())
+                .evalCount(last.path("eval_count").asLong())
+                .loadDurationNanos(last.path("load_duration").asLong())
+                .promptEvalDurationNanos(last.path("prompt_eval_duration").asLong())
+                .evalDurationNanos(last.path("eval_duration").asLong())
+                .totalDurationNanos(last.path("total_duration").asLong())
+                .timeToFirstTokenNanos(firstToken < 0 ? wall : firstToken)
+                .wallTimeNanos(wall)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.contract.Backend.Service;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Result of one /api/generate call: the generated text plus the timings and token
+ * counts Ollama reports in its final chunk. Durations are in nanoseconds.
+ */
+@Value
+@Builder
+public class OllamaGeneration {
+    String model;
+    String response;
+
+    long promptEvalCount;
+    long evalCount;
+    long loadDurationNanos;
+    long promptEvalDurationNanos;
+    long evalDurationNanos;
+    long totalDurationNanos;
+
+    // Measured on our side of the wire
+    long timeToFirstTokenNanos;
+    long wallTimeNanos;
+
+    /**
+     * Output tokens per second as reported by Ollama, or 0 if it sent no eval stats
+     */
+    public double tokensPerSecond() {
+        return evalDurationNanos > 0 ? evalCount * 1_000_000_000.0 / evalDurationNanos : 0.0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.contract.Backend.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs prompts and model output without paying for 20 KB log lines on every draft.
+ *
+ * Every payload gets a one-line summary (length and a short SHA-256) at DEBUG; the body
+ * itself is only logged for a sampled share of calls per category, truncated to
+ * {@code app.logging.payload.max-chars}. Lines go to the "ai.payload" logger, which
+ * logback-spring.xml routes through its own non-blocking async appender, and carry the
+ * generationId from the MDC.
+ */
+@Component
+public class PayloadLogger {
+
+    public enum Category {
+        PROMPT, RAW_RESPONSE, EXTRACTED_JSON
+    }
+
+    private static final Logger log = LoggerFactory.getLogger("ai.payload");
+    private static final int HASH_CHARS = 12;
+
+    private final int maxChars;
+    private final Map<Category, Double> sampleRates = new EnumMap<>(Category.class);
+
+    @Autowired
+    public PayloadLogger(@Value("${app.logging.payload.max-chars:512}") int maxChars,
+                         @Value("${app.logging.payload.sample-rate.prompt:0.0}") double promptRate,
+                         @Value("${app.logging.payload.sample-rate.raw-response:0.01}") double rawResponseRate,
+                         @Value("${app.logging.payload.sample-rate.extracted-json:0.0}") double extractedJsonRate) {
+        this.maxChars = maxChars;
+        sampleRates.put(Category.PROMPT, promptRate);
+        sampleRates.put(Category.RAW_RESPONSE, rawResponseRate);
+        sampleRates.put(Category.EXTRACTED_JSON, extractedJsonRate);
+    }
+
+    public void log(Category category, String payload) {
+        if (payload == null) {
+            return;
+        }
+        // Each line is gated on its own level: the summary must still appear when the
+        // logger only lets DEBUG through
+        if (log.isInfoEnabled() && sampled(category)) {
+            log.info("payload category={} len={} sha256={} body={}",
+                    category, payload.length(), ContentHash.shortSha256(payload, HASH_CHARS), truncate(payload));
+        } else if (log.isDebugEnabled()) {
+            log.debug("payload category={} len={} sha256={}",
+                    category, payload.length(), ContentHash.shortSha256(payload, HASH_CHARS));
+        }
+    }
+
+    private boolean sampled(Category category) {
+        double rate = sampleRates.getOrDefault(category, 0.0);
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    String truncate(String payload) {
+        if (payload.length() <= maxChars) {
+            return payload;
+        }
+        int end = Character.isHighSurrogate(payload.charAt(maxChars - 1)) ? maxChars - 1 : maxChars;
+        return payload.substring(0, end) + "...(+" + (payload.length() - end) + " chars)";
+    }
+}
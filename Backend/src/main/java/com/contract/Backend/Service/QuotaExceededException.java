@@ -0,0 +1,37 @@
+package com.contract.Backend.Service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown before a generation is started when the caller, their department or the
+ * generation queue has no capacity left. Mapped to 429 with a Retry-After header.
+ */
+@Getter
+public class QuotaExceededException extends RuntimeException {
+
+    private final String scope;
+    private final String resource;
+    private final Duration retryAfter;
+
+    /**
+     * @param scope    whose limit was hit: user, department or queue
+     * @param resource what ran out: requests, tokens (model tokens) or slots (queue places)
+     * @param subject  the user or department, for the message; null for the queue
+     */
+    public QuotaExceededException(String scope, String resource, String subject, Duration retryAfter) {
+        super(message(scope, resource, subject) + ", retry in " + Math.max(1, retryAfter.toSeconds()) + "s");
+        this.scope = scope;
+        this.resource = resource;
+        this.retryAfter = retryAfter;
+    }
+
+    private static String message(String scope, String resource, String subject) {
+        if (subject == null) {
+            return "The generation " + scope + " has no free " + resource;
+        }
+        String what = "tokens".equals(resource) ? "Model token" : "Request";
+        return what + " quota of " + scope + " " + subject + " exhausted";
+    }
+}
@@ -0,0 +1,336 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractChangeEvent;
+import com.contract.Backend.DTO.SlaEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks open requests (PENDING or IN_PROGRESS with a due date) against their due dates and
+ * raises AT_RISK (app.sla.at-risk-before ahead of the end of the due date), OVERDUE and
+ * ESCALATED (app.sla.escalate-after past it) events.
+ *
+ * Each tracked request has at most one pending timer in a {@link DelayQueue}, for its next
+ * stage; a single worker thread sleeps until the earliest one is due, so nothing polls the
+ * table. Changes arrive through the committed {@link ContractChangeEvent}s. A timer left
+ * behind by a closed or rescheduled request is recognised by its generation and ignored.
+ *
+ * At startup the set is loaded with one query on the open-requests index. Stages already
+ * reached then are set silently, so a restart does not re-raise old events.
+ */
+@Service
+@Slf4j
+public class SlaTracker {
+
+    private static final Comparator<Tracked> BY_DUE_DATE = Comparator
+            .comparing((Tracked t) -> t.dueDate)
+            .thenComparingLong(t -> t.requestId);
+
+    // Served by idx_contract_requests_open_due (db/schema-extras.sql)
+    static final String OPEN_REQUESTS = """
+            SELECT cr.id, cr.due_date, u.username
+            FROM contract_requests cr
+            LEFT JOIN users u ON u.id = cr.assigned_to
+            WHERE cr.status IN ('PENDING', 'IN_PROGRESS') AND cr.due_date IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration atRiskBefore;
+    private final Duration escalateAfter;
+    private final int recentLimit;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // All guarded by this
+    private final Map<Long, Tracked> tracked = new HashMap<>();
+    private final Map<SlaEvent.Stage, NavigableSet<Tracked>> byStage = new EnumMap<>(SlaEvent.Stage.class);
+    private final Deque<SlaEvent> recent = new ArrayDeque<>();
+    private long nextGeneration;
+
+    private final Map<SlaEvent.Stage, AtomicLong> counts = new EnumMap<>(SlaEvent.Stage.class);
+    private final Map<SlaEvent.Stage, Counter> raised = new EnumMap<>(SlaEvent.Stage.class);
+    private final DelayQueue<Timer> timers = new DelayQueue<>();
+    private Thread worker;
+
+    public SlaTracker(JdbcTemplate jdbcTemplate,
+                      MeterRegistry registry,
+                      @Value("${app.sla.at-risk-before:24h}") Duration atRiskBefore,
+                      @Value("${app.sla.escalate-after:48h}") Duration escalateAfter,
+                      @Value("${app.sla.recent-events:1000}") int recentLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.atRiskBefore = atRiskBefore;
+        this.escalateAfter = escalateAfter;
+        this.recentLimit = recentLimit;
+        for (SlaEvent.Stage stage : SlaEvent.Stage.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(stage, count);
+            Gauge.builder("contract.sla.requests", count, AtomicLong::get)
+                    .description("Open requests with a due date, by SLA stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .register(registry);
+            if (stage != SlaEvent.Stage.ON_TRACK) {
+                byStage.put(stage, new TreeSet<>(BY_DUE_DATE));
+                raised.put(stage, Counter.builder("contract.sla.events")
+                        .description("SLA events raised")
+                        .tag("stage", stage.name().toLowerCase())
+                        .register(registry));
+            }
+        }
+    }
+
+    private static final class Tracked {
+        final long requestId;
+        final LocalDate dueDate;
+        final long generation;
+        String assignedTo;
+        SlaEvent.Stage stage = SlaEvent.Stage.ON_TRACK;
+        LocalDateTime since = LocalDateTime.now();
+
+        Tracked(long requestId, LocalDate dueDate, long generation, String assignedTo) {
+            this.requestId = requestId;
+            this.dueDate = dueDate;
+            this.generation = generation;
+            this.assignedTo = assignedTo;
+        }
+
+        SlaEvent view() {
+            return SlaEvent.builder()
+                    .requestId(requestId)
+                    .stage(stage)
+                    .dueDate(dueDate)
+                    .assignedTo(assignedTo)
+                    .since(since)
+                    .build();
+        }
+    }
+
+    private static final class Timer implements Delayed {
+        final long requestId;
+        final long generation;
+        final SlaEvent.Stage stage;
+        final long fireAtMillis;
+
+        Timer(long requestId, long generation, SlaEvent.Stage stage, long fireAtMillis) {
+            this.requestId = requestId;
+            this.generation = generation;
+            this.stage = stage;
+            this.fireAtMillis = fireAtMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtMillis, ((Timer) other).fireAtMillis);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        synchronized (this) {
+            jdbcTemplate.query(OPEN_REQUESTS,
+                    (RowCallbackHandler) rs -> track(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getString(3), false));
+            log.info("Tracking {} open requests against their due dates", tracked.size());
+        }
+
+        worker = new Thread(this::runTimers, "sla-tracker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        worker.interrupt();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ContractChangeEvent event) {
+        if (event.getRequestId() == null || event.getType() == ContractChangeEvent.Type.DRAFT_SAVED) {
+            return;
+        }
+        boolean open = "pending".equals(event.getStatus()) || "in_progress".equals(event.getStatus());
+        if (open && event.getDueDate() != null) {
+            track(event.getRequestId(), event.getDueDate(), event.getAssignedTo(), true);
+        } else {
+            untrack(event.getRequestId());
+        }
+    }
+
+    /**
+     * Number of tracked requests per stage
+     */
+    public Map<String, Long> summary() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach((stage, count) -> result.put(stage.name().toLowerCase(), count.get()));
+        return result;
+    }
+
+    /**
+     * Requests currently in {@code stage}, earliest due date first
+     */
+    public synchronized List<SlaEvent> requestsInStage(SlaEvent.Stage stage, int limit) {
+        NavigableSet<Tracked> inStage = byStage.get(stage);
+        if (inStage == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Requests can be listed for at_risk, overdue or escalated");
+        }
+        List<SlaEvent> result = new ArrayList<>(Math.min(limit, inStage.size()));
+        for (Tracked entry : inStage) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry.view());
+        }
+        return result;
+    }
+
+    /**
+     * Events raised since startup, newest first, at most app.sla.recent-events of them
+     */
+    public synchronized List<SlaEvent> recentEvents(int limit) {
+        return recent.stream().limit(limit).toList();
+    }
+
+    private synchronized void track(long requestId, LocalDate dueDate, String assignedTo, boolean raise) {
+        Tracked existing = tracked.get(requestId);
+        if (existing != null && existing.dueDate.equals(dueDate)) {
+            existing.assignedTo = assignedTo;
+            return;
+        }
+        if (existing != null) {
+            remove(existing);
+        }
+
+        Tracked entry = new Tracked(requestId, dueDate, nextGeneration++, assignedTo);
+        tracked.put(requestId, entry);
+        counts.get(SlaEvent.Stage.ON_TRACK).incrementAndGet();
+        advance(entry, stageAt(dueDate, Instant.now()), raise);
+        scheduleNext(entry);
+    }
+
+    private synchronized void untrack(long requestId) {
+        Tracked existing = tracked.get(requestId);
+        if (existing != null) {
+            remove(existing);
+        }
+    }
+
+    private void runTimers() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fire(timers.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("SLA timer failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private synchronized void fire(Timer timer) {
+        Tracked entry = tracked.get(timer.requestId);
+        if (entry == null || entry.generation != timer.generation) {
+            return; // closed or rescheduled since
+        }
+        advance(entry, timer.stage, true);
+        scheduleNext(entry);
+    }
+
+    private void advance(Tracked entry, SlaEvent.Stage stage, boolean raise) {
+        if (stage.ordinal() <= entry.stage.ordinal()) {
+            return;
+        }
+        leave(entry);
+        entry.stage = stage;
+        entry.since = LocalDateTime.now();
+        counts.get(stage).incrementAndGet();
+        byStage.get(stage).add(entry);
+
+        if (raise) {
+            raised.get(stage).increment();
+            recent.addFirst(entry.view());
+            if (recent.size() > recentLimit) {
+                recent.removeLast();
+            }
+            log.info("Request {} is {} (due {}, assigned to {})", entry.requestId, stage, entry.dueDate, entry.assignedTo);
+        }
+    }
+
+    private void scheduleNext(Tracked entry) {
+        if (entry.stage == SlaEvent.Stage.ESCALATED) {
+            return;
+        }
+        SlaEvent.Stage next = SlaEvent.Stage.values()[entry.stage.ordinal() + 1];
+        timers.add(new Timer(entry.requestId, entry.generation, next, deadline(entry.dueDate, next).toEpochMilli()));
+    }
+
+    private void remove(Tracked entry) {
+        tracked.remove(entry.requestId);
+        leave(entry);
+    }
+
+    private void leave(Tracked entry) {
+        counts.get(entry.stage).decrementAndGet();
+        NavigableSet<Tracked> inStage = byStage.get(entry.stage);
+        if (inStage != null) {
+            inStage.remove(entry);
+        }
+    }
+
+    private SlaEvent.Stage stageAt(LocalDate dueDate, Instant now) {
+        SlaEvent.Stage stage = SlaEvent.Stage.ON_TRACK;
+        for (SlaEvent.Stage candidate : List.of(SlaEvent.Stage.AT_RISK, SlaEvent.Stage.OVERDUE, SlaEvent.Stage.ESCALATED)) {
+            if (!now.isBefore(deadline(dueDate, candidate))) {
+                stage = candidate;
+            }
+        }
+        return stage;
+    }
+
+    /**
+     * When a request due on {@code dueDate} reaches {@code stage}; it is overdue once its due
+     * date has ended
+     */
+    private Instant deadline(LocalDate dueDate, SlaEvent.Stage stage) {
+        Instant overdue = dueDate.plusDays(1).atStartOfDay(zone).toInstant();
+        return switch (stage) {
+            case ON_TRACK -> Instant.EPOCH;
+            case AT_RISK -> overdue.minus(atRiskBefore);
+            case OVERDUE -> overdue;
+            case ESCALATED -> overdue.plus(escalateAfter);
+        };
+    }
+}
@@ -0,0 +1,764 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.TemplateImportJob;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Bulk import of legacy templates from a zip archive or a server-side directory of DOCX and
+ * JSON files.
+ *
+ * Files go through a pipeline of stages joined by queues of app.import.queue-size files, so a
+ * fast stage cannot run ahead of a slow one: read (one thread), hash and dedupe (one thread),
+ * extract (app.import.workers threads), persist (one thread, JDBC batches of
+ * app.import.batch-size) and finally index. A DOCX is split into sections by
+ * {@link DocxTextExtractor}, which also gives the template's editor content, title (the first
+ * top-level heading) and contract type (the folder it is in). A JSON file holds one
+ * SaveTemplateRequest or an array of them. Files with the same bytes as one imported before,
+ * or as another file of the same job, are skipped as duplicates; a content hash counts as
+ * imported only once the batch that stored it has committed.
+ *
+ * Each file's outcome is recorded in template_import_files, and the job's counters in
+ * template_import_jobs, with every batch. A file that cannot be read, parsed or stored is
+ * recorded as FAILED and the others carry on. A job stopped by a restart is marked
+ * INTERRUPTED at startup and can be resumed; files it already recorded are skipped. One job
+ * runs at a time per instance, and imports are meant to be run against a single instance.
+ */
+@Service
+@Slf4j
+public class TemplateImportService {
+
+    private static final String IMPORTED = "IMPORTED";
+    private static final String DUPLICATE = "DUPLICATE";
+    private static final String FAILED = "FAILED";
+    // Ids taken per nextval of contract_templates_seq; must match its allocationSize
+    private static final int ID_BLOCK = 50;
+    private static final int LISTED_FAILURES = 20;
+    private static final long FLUSH_AFTER_MILLIS = 200;
+    private static final Item END = new Item("");
+
+    private static final String INSERT_TEMPLATE = """
+            INSERT INTO contract_templates (id, title, contract_type, description, content, docx_bytes,
+                created_by, times_used, is_active, created_at, updated_at)
+            VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?, 0, TRUE, ?, ?)
+            """;
+    private static final String RECORD_FILE = """
+            INSERT INTO template_import_files (job_id, name, content_hash, status, templates, error)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (job_id, name) DO UPDATE SET content_hash = EXCLUDED.content_hash,
+                status = EXCLUDED.status, templates = EXCLUDED.templates, error = EXCLUDED.error
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CollectionVersions collectionVersions;
+    private final DocxExtractionService docxExtractionService;
+    private final EmbeddingIndexer embeddingIndexer;
+    private final Path root;
+    private final Path workDir;
+    private final int workers;
+    private final int queueSize;
+    private final int batchSize;
+    private final int maxFileBytes;
+    private final long maxArchiveBytes;
+    private final String defaultContractType;
+    private final long maxXmlBytes;
+    private final int maxParagraphChars;
+
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private volatile Thread coordinator;
+    // Hibernate maps the @Lob column to a large object (oid) rather than bytea
+    private volatile boolean docxAsLargeObject;
+
+    public TemplateImportService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 CollectionVersions collectionVersions,
+                                 DocxExtractionService docxExtractionService,
+                                 EmbeddingIndexer embeddingIndexer,
+                                 @Value("${app.import.root:}") String root,
+                                 @Value("${app.import.work-dir:${java.io.tmpdir}/template-imports}") String workDir,
+                                 @Value("${app.import.workers:0}") int workers,
+                                 @Value("${app.import.queue-size:64}") int queueSize,
+                                 @Value("${app.import.batch-size:200}") int batchSize,
+                                 @Value("${app.import.max-file-bytes:26214400}") int maxFileBytes,
+                                 @Value("${app.import.max-archive-bytes:1073741824}") long maxArchiveBytes,
+                                 @Value("${app.import.default-contract-type:General}") String defaultContractType,
+                                 @Value("${app.docx.extraction.max-xml-bytes:268435456}") long maxXmlBytes,
+                                 @Value("${app.docx.extraction.max-paragraph-chars:32768}") int maxParagraphChars) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.collectionVersions = collectionVersions;
+        this.docxExtractionService = docxExtractionService;
+        this.embeddingIndexer = embeddingIndexer;
+        this.root = root.isBlank() ? null : Path.of(root).toAbsolutePath().normalize();
+        this.workDir = Path.of(workDir).toAbsolutePath().normalize();
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.queueSize = queueSize;
+        this.batchSize = batchSize;
+        this.maxFileBytes = maxFileBytes;
+        this.maxArchiveBytes = maxArchiveBytes;
+        this.defaultContractType = defaultContractType;
+        this.maxXmlBytes = maxXmlBytes;
+        this.maxParagraphChars = maxParagraphChars;
+    }
+
+    /**
+     * A file on its way through the pipeline; each stage hands it on through a queue, so only
+     * one thread touches it at a time
+     */
+    private static final class Item {
+        final String name;
+        byte[] bytes;
+        String hash;
+        String status; // null while it is still going to be imported
+        String error;
+        List<Prepared> templates = List.of();
+
+        Item(String name) {
+            this.name = name;
+        }
+
+        void fail(String error) {
+            this.status = FAILED;
+            this.error = error;
+            this.bytes = null;
+            this.templates = List.of();
+        }
+    }
+
+    private record Prepared(String title, String contractType, String description, String content,
+                            byte[] docx, List<DocxTextExtractor.Section> sections) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        docxAsLargeObject = "oid".equals(jdbcTemplate.query(
+                "SELECT data_type FROM information_schema.columns WHERE table_name = 'contract_templates' AND column_name = 'docx_bytes'",
+                rs -> rs.next() ? rs.getString(1) : null));
+        int interrupted = jdbcTemplate.update("UPDATE template_import_jobs SET status = 'INTERRUPTED' WHERE status = 'RUNNING'");
+        if (interrupted > 0) {
+            log.info("{} template imports were interrupted by a restart and can be resumed", interrupted);
+        }
+    }
+
+    /**
+     * Starts importing an uploaded zip archive; it is kept in app.import.work-dir until the
+     * job is done, so the job can be resumed
+     *
+     * @throws ResponseStatusException 413 if the upload is larger than app.import.max-archive-bytes
+     */
+    public TemplateImportJob importArchive(InputStream archive, UserPrincipal user) throws IOException {
+        reserve();
+        Path file = workDir.resolve("import-" + UUID.randomUUID() + ".zip");
+        try {
+            Files.createDirectories(workDir);
+            spool(archive, file);
+            return start(createJob(file.toString(), user.username()), file, user.id());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            busy.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts importing a directory under app.import.root, including its subdirectories
+     */
+    public TemplateImportJob importDirectory(String directory, UserPrincipal user) {
+        if (root == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Directory imports are disabled, set app.import.root");
+        }
+        Path path = root.resolve(directory).normalize();
+        if (!path.startsWith(root) || !Files.isDirectory(path)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No directory " + directory + " under the import root");
+        }
+        reserve();
+        try {
+            return start(createJob(path.toString(), user.username()), path, user.id());
+        } catch (RuntimeException e) {
+            busy.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Continues an interrupted or failed job, skipping the files it already recorded
+     */
+    public TemplateImportJob resume(Long id, UserPrincipal user) {
+        TemplateImportJob job = status(id);
+        if (!"INTERRUPTED".equals(job.getStatus()) && !FAILED.equals(job.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import " + id + " is " + job.getStatus());
+        }
+        Path source = Path.of(job.getSource());
+        if (!Files.exists(source)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The source of import " + id + " no longer exists");
+        }
+        reserve();
+        try {
+            jdbcTemplate.update("UPDATE template_import_jobs SET status = 'RUNNING', error = NULL, finished_at = NULL WHERE id = ?", id);
+            return start(id, source, user.id());
+        } catch (RuntimeException e) {
+            busy.set(false);
+            throw e;
+        }
+    }
+
+    public TemplateImportJob status(Long id) {
+        TemplateImportJob job = jdbcTemplate.query("""
+                        SELECT id, source, status, files, imported, duplicates, failed, templates, started_at, finished_at, error
+                        FROM template_import_jobs WHERE id = ?
+                        """,
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    Timestamp finished = rs.getTimestamp(10);
+                    return TemplateImportJob.builder()
+                            .id(rs.getLong(1))
+                            .source(rs.getString(2))
+                            .status(rs.getString(3))
+                            .files(rs.getInt(4))
+                            .imported(rs.getInt(5))
+                            .duplicates(rs.getInt(6))
+                            .failed(rs.getInt(7))
+                            .templates(rs.getInt(8))
+                            .startedAt(rs.getTimestamp(9).toLocalDateTime())
+                            .finishedAt(finished != null ? finished.toLocalDateTime() : null)
+                            .error(rs.getString(11))
+                            .build();
+                }, id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found");
+        }
+        long millis = Duration.between(job.getStartedAt(),
+                job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now()).toMillis();
+        job.setFilesPerSecond(millis > 0 ? job.getFiles() * 1000.0 / millis : 0);
+        job.setFailures(jdbcTemplate.query(
+                "SELECT name, error FROM template_import_files WHERE job_id = ? AND status = 'FAILED' ORDER BY name LIMIT ?",
+                (rs, i) -> new TemplateImportJob.FileError(rs.getString(1), rs.getString(2)), id, LISTED_FAILURES));
+        return job;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        Thread running = coordinator;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * Copies the upload to {@code file}, failing as soon as it passes maxArchiveBytes so an
+     * oversized upload cannot fill the work directory
+     */
+    private void spool(InputStream archive, Path file) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long copied = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int n; (n = archive.read(buffer)) > 0; ) {
+                copied += n;
+                if (copied > maxArchiveBytes) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Import archives are limited to " + maxArchiveBytes + " bytes");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    private void reserve() {
+        if (!busy.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another import is running");
+        }
+    }
+
+    private long createJob(String source, String username) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO template_import_jobs (source, status, created_by, started_at) VALUES (?, 'RUNNING', ?, ?) RETURNING id",
+                Long.class, source, username, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private TemplateImportJob start(long jobId, Path source, long userId) {
+        Thread thread = new Thread(() -> run(jobId, source, userId), "template-import-" + jobId);
+        thread.setDaemon(true);
+        coordinator = thread;
+        thread.start();
+        log.info("Template import {} started from {}", jobId, source);
+        return status(jobId);
+    }
+
+    private void run(long jobId, Path source, long userId) {
+        String status = "DONE";
+        String error = null;
+        List<Thread> stages = new ArrayList<>();
+        try {
+            Set<String> recorded = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT name FROM template_import_files WHERE job_id = ?", String.class, jobId));
+            Set<String> knownHashes = ConcurrentHashMap.newKeySet();
+            knownHashes.addAll(jdbcTemplate.queryForList(
+                    "SELECT content_hash FROM template_import_files WHERE status = 'IMPORTED'", String.class));
+
+            BlockingQueue<Item> read = new ArrayBlockingQueue<>(queueSize);
+            BlockingQueue<Item> hashed = new ArrayBlockingQueue<>(queueSize);
+            BlockingQueue<Item> extracted = new ArrayBlockingQueue<>(queueSize);
+            AtomicReference<String> readError = new AtomicReference<>();
+            stages.add(thread(jobId, "read", () -> {
+                try {
+                    read(source, recorded, read);
+                } catch (IOException | RuntimeException e) {
+                    readError.set("Could not read " + source + ": " + e.getMessage());
+                }
+                read.put(END);
+            }));
+            stages.addAll(stage(jobId, "hash", 1, read, hashed, item -> dedupe(item, knownHashes)));
+            stages.addAll(stage(jobId, "extract", workers, hashed, extracted, this::extract));
+
+            persist(jobId, userId, extracted, knownHashes);
+            if (readError.get() != null) {
+                status = FAILED;
+                error = readError.get();
+            } else if (embeddingIndexer.isEnabled()) {
+                embeddingIndexer.sweep();
+            }
+        } catch (InterruptedException e) {
+            status = "INTERRUPTED";
+        } catch (RuntimeException e) {
+            status = FAILED;
+            error = e.getMessage();
+            log.warn("Template import {} failed", jobId, e);
+        } finally {
+            stages.forEach(Thread::interrupt);
+            finish(jobId, source, status, error);
+            coordinator = null;
+            busy.set(false);
+        }
+    }
+
+    private void finish(long jobId, Path source, String status, String error) {
+        try {
+            jdbcTemplate.update("UPDATE template_import_jobs SET status = ?, error = ?, finished_at = ? WHERE id = ?",
+                    status, error, Timestamp.valueOf(LocalDateTime.now()), jobId);
+            if ("DONE".equals(status) && source.startsWith(workDir)) {
+                Files.deleteIfExists(source);
+            }
+            log.info("Template import {} finished: {}", jobId, status);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not record the end of template import {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private interface StageTask {
+        void run() throws InterruptedException;
+    }
+
+    private static Thread thread(long jobId, String name, StageTask task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } catch (InterruptedException e) {
+                // the job is being stopped
+            }
+        }, "template-import-" + jobId + "-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Runs {@code work} on {@code threads} threads for every item still to be imported; items
+     * already decided (duplicates, failures) are passed on untouched. An exception fails the
+     * item, not the stage.
+     */
+    private static List<Thread> stage(long jobId, String name, int threads, BlockingQueue<Item> in,
+                                      BlockingQueue<Item> out, Consumer<Item> work) {
+        AtomicInteger remaining = new AtomicInteger(threads);
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            started.add(thread(jobId, name + "-" + i, () -> {
+                for (Item item; (item = in.take()) != END; ) {
+                    if (item.status == null) {
+                        try {
+                            work.accept(item);
+                        } catch (RuntimeException e) {
+                            item.fail(e.getMessage());
+                        }
+                    }
+                    out.put(item);
+                }
+                in.put(END); // for the other threads of this stage
+                if (remaining.decrementAndGet() == 0) {
+                    out.put(END);
+                }
+            }));
+        }
+        return started;
+    }
+
+    private void read(Path source, Set<String> recorded, BlockingQueue<Item> out) throws IOException, InterruptedException {
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> paths = Files.walk(source)) {
+                Iterator<Path> files = paths.filter(Files::isRegularFile).iterator();
+                while (files.hasNext()) {
+                    Path file = files.next();
+                    String name = source.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (importable(name) && !recorded.contains(name)) {
+                        try (InputStream in = Files.newInputStream(file)) {
+                            out.put(read(name, in));
+                        }
+                    }
+                }
+            }
+            return;
+        }
+        try (ZipFile zip = new ZipFile(source.toFile())) {
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && importable(entry.getName()) && !recorded.contains(entry.getName())) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        out.put(read(entry.getName(), in));
+                    }
+                }
+            }
+        }
+    }
+
+    private Item read(String name, InputStream in) {
+        Item item = new Item(name);
+        try {
+            byte[] bytes = in.readNBytes(maxFileBytes + 1);
+            if (bytes.length > maxFileBytes) {
+                item.fail("Larger than " + maxFileBytes + " bytes");
+            } else {
+                item.bytes = bytes;
+            }
+        } catch (IOException e) {
+            item.fail("Unreadable: " + e.getMessage());
+        }
+        return item;
+    }
+
+    private static boolean importable(String name) {
+        String fileName = name.substring(name.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        // skips Word lock files and macOS resource forks
+        return !name.startsWith("__MACOSX/") && !fileName.startsWith("~$") && !fileName.startsWith(".")
+                && (fileName.endsWith(".docx") || fileName.endsWith(".json"));
+    }
+
+    /**
+     * Skips files whose content is already stored. Duplicates among the files still on their
+     * way are left to the persist stage, which alone knows whether the first of them made it.
+     */
+    private static void dedupe(Item item, Set<String> knownHashes) {
+        item.hash = ContentHash.sha256Hex(item.bytes);
+        if (knownHashes.contains(item.hash)) {
+            item.status = DUPLICATE;
+            item.bytes = null;
+        }
+    }
+
+    private void extract(Item item) {
+        try {
+            item.templates = item.name.toLowerCase(Locale.ROOT).endsWith(".json")
+                    ? fromJson(item.bytes)
+                    : List.of(fromDocx(item.name, item.bytes));
+            item.bytes = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Prepared fromDocx(String name, byte[] docx) throws IOException {
+        List<DocxTextExtractor.Section> sections = sections(docx);
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        String title = sections.stream()
+                .filter(section -> section.kind() == DocxTextExtractor.Kind.HEADING && section.level() <= 1)
+                .map(DocxTextExtractor.Section::text)
+                .findFirst()
+                .orElse(fileName.substring(0, fileName.length() - ".docx".length()));
+        return new Prepared(truncate(title), contractType(name), "Imported from " + name,
+                editorDocument(sections), docx, sections);
+    }
+
+    private List<Prepared> fromJson(byte[] json) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        Iterable<JsonNode> nodes = root.isArray() ? root : List.of(root);
+        List<Prepared> templates = new ArrayList<>();
+        for (JsonNode node : nodes) {
+            String title = node.path("title").asText("");
+            String contractType = node.path("contractType").asText("");
+            JsonNode content = node.path("content");
+            if (title.isBlank() || contractType.isBlank() || content.isMissingNode() || content.isNull()) {
+                throw new IllegalArgumentException("Each template needs a title, contractType and content");
+            }
+            // content is the editor JSON, either inline or as a string like in the API
+            String contentJson = content.isTextual() ? objectMapper.readTree(content.asText()).toString() : content.toString();
+            String docxBase64 = node.path("docxBase64").asText("");
+            byte[] docx = docxBase64.isBlank() ? null : Base64.getDecoder().decode(docxBase64);
+            templates.add(new Prepared(truncate(title), truncate(contractType),
+                    node.hasNonNull("description") ? node.get("description").asText() : null,
+                    contentJson, docx, docx != null ? sections(docx) : List.of()));
+        }
+        return templates;
+    }
+
+    private List<DocxTextExtractor.Section> sections(byte[] docx) throws IOException {
+        List<DocxTextExtractor.Section> sections = new ArrayList<>();
+        DocxTextExtractor.extract(new ByteArrayInputStream(docx), maxXmlBytes, maxParagraphChars, sections::add);
+        return sections;
+    }
+
+    private String contractType(String name) {
+        int slash = name.lastIndexOf('/');
+        if (slash <= 0) {
+            return defaultContractType;
+        }
+        String folder = name.substring(0, slash);
+        return truncate(folder.substring(folder.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * Editor (TipTap) content for the sections, so imported DOCX templates open like any other
+     */
+    private static String editorDocument(List<DocxTextExtractor.Section> sections) {
+        ObjectNode document = JsonNodeFactory.instance.objectNode().put("type", "doc");
+        ArrayNode content = document.putArray("content");
+        for (DocxTextExtractor.Section section : sections) {
+            ObjectNode block = content.addObject();
+            if (section.kind() == DocxTextExtractor.Kind.HEADING) {
+                block.put("type", "heading").putObject("attrs").put("level", Math.max(1, Math.min(section.level(), 6)));
+            } else {
+                block.put("type", "paragraph");
+            }
+            String text = section.number() != null ? section.number() + " " + section.text() : section.text();
+            ArrayNode inline = block.putArray("content");
+            String[] lines = text.split("\n", -1);
+            for (int i = 0; i < lines.length; i++) {
+                if (i > 0) {
+                    inline.addObject().put("type", "hardBreak");
+                }
+                if (!lines[i].isEmpty()) {
+                    inline.addObject().put("type", "text").put("text", lines[i]);
+                }
+            }
+        }
+        return document.toString();
+    }
+
+    private static String truncate(String value) {
+        return value.length() > 255 ? value.substring(0, 255) : value;
+    }
+
+    /**
+     * Collects items into batches of batchSize; a partial batch is written once the queue
+     * has been quiet for FLUSH_AFTER_MILLIS
+     */
+    private void persist(long jobId, long userId, BlockingQueue<Item> in, Set<String> knownHashes) throws InterruptedException {
+        List<Item> batch = new ArrayList<>(batchSize);
+        boolean ended = false;
+        while (!ended) {
+            Item first = in.poll(FLUSH_AFTER_MILLIS, TimeUnit.MILLISECONDS);
+            if (first != null) {
+                batch.add(first);
+                in.drainTo(batch, batchSize - batch.size());
+                ended = batch.remove(END); // always the last item
+            }
+            if (!batch.isEmpty() && (batch.size() >= batchSize || ended || first == null)) {
+                store(jobId, userId, batch, knownHashes);
+                batch.clear();
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction; if that fails, writes its files one by one so only
+     * the file at fault is marked FAILED. Hashes join {@code knownHashes} only once committed,
+     * so a file that failed does not make a later copy of it a duplicate.
+     */
+    private void store(long jobId, long userId, List<Item> batch, Set<String> knownHashes) {
+        List<Item> duplicates = markDuplicates(batch, knownHashes);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> write(jobId, userId, batch));
+            remember(batch, knownHashes);
+        } catch (DataAccessException e) {
+            log.debug("Import batch of {} files failed, storing them one by one: {}", batch.size(), e.getMessage());
+            // decided again below, against what actually gets stored
+            duplicates.forEach(item -> item.status = null);
+            for (Item item : batch) {
+                markDuplicates(List.of(item), knownHashes);
+                try {
+                    transactionTemplate.executeWithoutResult(tx -> write(jobId, userId, List.of(item)));
+                    remember(List.of(item), knownHashes);
+                } catch (DataAccessException single) {
+                    item.fail(NestedExceptionUtils.getMostSpecificCause(single).getMessage());
+                    transactionTemplate.executeWithoutResult(tx -> write(jobId, userId, List.of(item)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks as DUPLICATE the files whose content is already stored or comes earlier in
+     * {@code items}
+     *
+     * @return the files marked
+     */
+    private static List<Item> markDuplicates(List<Item> items, Set<String> knownHashes) {
+        Set<String> seen = new HashSet<>();
+        List<Item> marked = new ArrayList<>();
+        for (Item item : items) {
+            if (item.status == null && (knownHashes.contains(item.hash) || !seen.add(item.hash))) {
+                item.status = DUPLICATE;
+                marked.add(item);
+            }
+        }
+        return marked;
+    }
+
+    private static void remember(List<Item> items, Set<String> knownHashes) {
+        for (Item item : items) {
+            if (item.status == null) {
+                knownHashes.add(item.hash);
+            }
+        }
+    }
+
+    private void write(long jobId, long userId, List<Item> items) {
+        List<Prepared> templates = items.stream()
+                .filter(item -> item.status == null)
+                .flatMap(item -> item.templates.stream())
+                .collect(Collectors.toList());
+        List<Long> ids = allocateIds(templates.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_TEMPLATE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Prepared template = templates.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, template.title());
+                ps.setString(3, template.contractType());
+                ps.setString(4, template.description());
+                ps.setString(5, template.content());
+                if (template.docx() == null) {
+                    ps.setNull(6, docxAsLargeObject ? Types.BLOB : Types.BINARY);
+                } else if (docxAsLargeObject) {
+                    ps.setBlob(6, new ByteArrayInputStream(template.docx()), template.docx().length);
+                } else {
+                    ps.setBytes(6, template.docx());
+                }
+                ps.setLong(7, userId);
+                ps.setTimestamp(8, now);
+                ps.setTimestamp(9, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return templates.size();
+            }
+        });
+
+        // Already extracted here, so DocxExtractionService has nothing left to do for them
+        Map<Long, List<DocxTextExtractor.Section>> sections = new LinkedHashMap<>();
+        for (int i = 0; i < templates.size(); i++) {
+            if (templates.get(i).docx() != null) {
+                sections.put(ids.get(i), templates.get(i).sections());
+            }
+        }
+        if (!sections.isEmpty()) {
+            docxExtractionService.store(DocxExtractionService.Owner.TEMPLATE, sections);
+        }
+
+        jdbcTemplate.batchUpdate(RECORD_FILE, items.stream()
+                .map(item -> new Object[]{jobId, item.name, item.hash, item.status != null ? item.status : IMPORTED,
+                        item.status == null ? item.templates.size() : 0, item.error})
+                .collect(Collectors.toList()));
+        jdbcTemplate.update("""
+                        UPDATE template_import_jobs SET files = files + ?, imported = imported + ?,
+                            duplicates = duplicates + ?, failed = failed + ?, templates = templates + ?
+                        WHERE id = ?
+                        """,
+                items.size(), count(items, null), count(items, DUPLICATE), count(items, FAILED), templates.size(), jobId);
+        if (!templates.isEmpty()) {
+            collectionVersions.bumpAfterCommit(CollectionVersions.Collection.TEMPLATES);
+        }
+    }
+
+    private static int count(List<Item> items, String status) {
+        return (int) items.stream().filter(item -> status == null ? item.status == null : status.equals(item.status)).count();
+    }
+
+    /**
+     * Ids from contract_templates_seq the way Hibernate's pooled optimizer takes them: each
+     * nextval reserves the ID_BLOCK ids ending at the value returned
+     */
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long high = jdbcTemplate.queryForObject("SELECT nextval('contract_templates_seq')", Long.class);
+            for (long id = Math.max(1, high - ID_BLOCK + 1); id <= high && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -3,14 +3,16 @@ package com.contract.Backend.Service;
 import com.contract.Backend.DTO.SaveTemplateRequest;
 import com.contract.Backend.DTO.TemplateResponse;
 import com.contract.Backend.Repository.ContractTemplateRepository;
-import com.contract.Backend.Repository.UserRepository;
 import com.contract.Backend.model.ContractTemplate;
 import com.contract.Backend.model.User;
 import java.util.Base64;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,13 +23,53 @@ import java.util.stream.Collectors;
 public class TemplateLibraryService {
 
     private final ContractTemplateRepository templateRepository;
-    private final UserRepository userRepository;
+    private final CollectionVersions collectionVersions;
+    private final AnalyticsService analyticsService;
+    private final DocxExtractionService docxExtractionService;
 
+    @Value("${app.bulk.max-items:1000}")
+    private int maxBulkItems;
+
+    @Transactional
+    public TemplateResponse saveTemplate(SaveTemplateRequest request, UserPrincipal user) {
+        ContractTemplate saved = templateRepository.save(toEntity(request, user.reference()));
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.TEMPLATES);
+        extractDocxAfterCommit(List.of(saved));
+        log.info("Saved template {} by user {}", saved.getId(), user.username());
+        return mapToResponse(saved);
+    }
+
+    /**
+     * Imports all templates in one transaction as batched inserts
+     */
     @Transactional
-    public TemplateResponse saveTemplate(SaveTemplateRequest request, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public List<TemplateResponse> saveTemplates(List<SaveTemplateRequest> requests, UserPrincipal user) {
+        if (requests.size() > maxBulkItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Bulk operations are limited to " + maxBulkItems + " items, got " + requests.size());
+        }
+        User creator = user.reference();
 
+        List<ContractTemplate> saved = templateRepository.saveAll(requests.stream()
+                .map(request -> toEntity(request, creator))
+                .collect(Collectors.toList()));
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.TEMPLATES);
+        extractDocxAfterCommit(saved);
+        log.info("Imported {} templates by user {}", saved.size(), user.username());
+
+        return saved.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void extractDocxAfterCommit(List<ContractTemplate> templates) {
+        docxExtractionService.extractAfterCommit(DocxExtractionService.Owner.TEMPLATE, templates.stream()
+                .filter(template -> template.getDocxBytes() != null && template.getDocxBytes().length > 0)
+                .map(ContractTemplate::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private ContractTemplate toEntity(SaveTemplateRequest request, User user) {
         ContractTemplate template = ContractTemplate.builder()
                 .title(request.getTitle())
                 .contractType(request.getContractType())
@@ -45,10 +87,7 @@ public class TemplateLibraryService {
                 log.warn("Failed to decode docxBase64 for template: {}", e.getMessage());
             }
         }
-
-        ContractTemplate saved = templateRepository.save(template);
-        log.info("Saved template {} by user {}", saved.getId(), username);
-        return mapToResponse(saved);
+        return template;
     }
 
     @Transactional(readOnly = true)
@@ -74,6 +113,8 @@ public class TemplateLibraryService {
 
         template.setTimesUsed(template.getTimesUsed() + 1);
         templateRepository.save(template);
+        analyticsService.recordTemplateUse(templateId);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.TEMPLATES);
     }
 
     @Transactional
@@ -86,6 +127,7 @@ public class TemplateLibraryService {
         template.setContent(request.getContent());
 
         ContractTemplate updated = templateRepository.save(template);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.TEMPLATES);
         return mapToResponse(updated);
     }
 
@@ -96,9 +138,10 @@ public class TemplateLibraryService {
 
         template.setIsActive(false);
         templateRepository.save(template);
+        collectionVersions.bumpAfterCommit(CollectionVersions.Collection.TEMPLATES);
     }
 
-    private TemplateResponse mapToResponse(ContractTemplate template) {
+    TemplateResponse mapToResponse(ContractTemplate template) {
         return TemplateResponse.builder()
                 .id(template.getId())
                 .title(template.getTitle())
@@ -0,0 +1,83 @@
+package com.contract.Backend.Service;
+
+/**
+ * Classic token bucket refilled continuously at a fixed rate up to its capacity.
+ *
+ * The balance may go negative through {@link #charge}: model tokens are only known after a
+ * generation finishes, so they are billed afterwards and the debt blocks further calls
+ * until it has been refilled.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double balance;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.balance = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * Takes {@code amount} tokens if the balance allows it.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they would be available
+     */
+    synchronized long tryConsume(double amount, long nowNanos) {
+        refill(nowNanos);
+        if (balance >= amount) {
+            balance -= amount;
+            return 0;
+        }
+        return nanosUntil(amount);
+    }
+
+    /**
+     * Nanoseconds until the balance is positive again, 0 if it already is
+     */
+    synchronized long nanosUntilPositive(long nowNanos) {
+        refill(nowNanos);
+        return balance > 0 ? 0 : nanosUntil(0) + 1;
+    }
+
+    synchronized void charge(double amount, long nowNanos) {
+        refill(nowNanos);
+        balance -= amount;
+    }
+
+    synchronized void refund(double amount, long nowNanos) {
+        refill(nowNanos);
+        balance = Math.min(capacity, balance + amount);
+    }
+
+    synchronized double balance(long nowNanos) {
+        refill(nowNanos);
+        return balance;
+    }
+
+    /**
+     * Whether the bucket has refilled to capacity, so it is no different from a new one
+     */
+    synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return balance >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            balance = Math.min(capacity, balance + elapsed * refillPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+
+    private long nanosUntil(double amount) {
+        if (refillPerNano <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((amount - balance) / refillPerNano);
+    }
+}
@@ -0,0 +1,190 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.UserSearchResponse;
+import com.contract.Backend.Repository.UserRepository;
+import com.contract.Backend.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Username to {@link UserPrincipal} lookups, cached so that resolving the X-USER header does
+ * not cost a query per request.
+ *
+ * Entries are LRU within app.users.directory.max-entries and dropped when a user is saved
+ * through UserController. The cache is per instance, so entries also expire after
+ * app.users.directory.ttl-ms to pick up users changed through another instance or directly in
+ * the database. Unknown usernames are not cached.
+ *
+ * {@link #search} serves assignment pickers straight from the users table. Queries of three
+ * characters or more match anywhere in username, full name, email and department, or fuzzily
+ * by word similarity, through the trigram index idx_users_search (db/schema-extras.sql);
+ * shorter ones only match the start of username, full name or email, through the
+ * text_pattern_ops indexes. Prefix matches rank first.
+ */
+@Service
+public class UserDirectory {
+
+    // Must match the expression of idx_users_search for the index to be used
+    private static final String SEARCH_TEXT =
+            "lower(username || ' ' || coalesce(full_name, '') || ' ' || email || ' ' || coalesce(department, ''))";
+    private static final int MIN_TRIGRAM_QUERY = 3;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final int maxPageSize;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, Entry> users = new LinkedHashMap<>(64, 0.75f, true);
+
+    private record Entry(UserPrincipal principal, long loadedAt) {
+    }
+
+    public UserDirectory(UserRepository userRepository,
+                         JdbcTemplate jdbcTemplate,
+                         MeterRegistry registry,
+                         @Value("${app.users.directory.max-entries:10000}") int maxEntries,
+                         @Value("${app.users.directory.ttl-ms:300000}") long ttlMs,
+                         @Value("${app.users.search.max-page-size:50}") int maxPageSize) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+        this.maxPageSize = maxPageSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.hits = Counter.builder("users.directory").tag("result", "hit")
+                .description("User lookups by cache outcome").register(registry);
+        this.misses = Counter.builder("users.directory").tag("result", "miss")
+                .description("User lookups by cache outcome").register(registry);
+    }
+
+    /**
+     * @throws RuntimeException if there is no such user
+     */
+    public UserPrincipal resolve(String username) {
+        return find(username).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public Optional<UserPrincipal> find(String username) {
+        if (username == null || username.isBlank()) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        UserPrincipal cached = cached(username, now);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<UserPrincipal> principal = userRepository.findByUsername(username).map(UserPrincipal::of);
+        principal.ifPresent(p -> put(username, new Entry(p, now)));
+        return principal;
+    }
+
+    /**
+     * Users matching {@code query}, optionally only those with {@code role}; a blank query
+     * lists users by username
+     */
+    public UserSearchResponse search(String query, User.UserRole role, int page, int size) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be 0 or more and size between 1 and " + maxPageSize);
+        }
+        String q = query == null ? "" : query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        String prefix = escapeLike(q) + "%";
+        String contains = "%" + escapeLike(q) + "%";
+
+        StringBuilder sql = new StringBuilder("SELECT id, username, full_name, email, department, role FROM users WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (role != null) {
+            sql.append(" AND role = ?");
+            args.add(role.name());
+        }
+        String prefixMatch = "(lower(username) LIKE ? OR lower(full_name) LIKE ? OR lower(email) LIKE ?)";
+        if (q.isEmpty()) {
+            sql.append(" ORDER BY username");
+        } else if (q.length() < MIN_TRIGRAM_QUERY) {
+            sql.append(" AND ").append(prefixMatch).append(" ORDER BY username");
+            args.addAll(List.of(prefix, prefix, prefix));
+        } else {
+            sql.append(" AND (").append(SEARCH_TEXT).append(" LIKE ? OR ? <% ").append(SEARCH_TEXT).append(")")
+                    .append(" ORDER BY CASE WHEN ").append(prefixMatch).append(" THEN 0")
+                    .append(" WHEN ").append(SEARCH_TEXT).append(" LIKE ? THEN 1 ELSE 2 END,")
+                    .append(" word_similarity(?, ").append(SEARCH_TEXT).append(") DESC, username");
+            args.addAll(List.of(contains, q, prefix, prefix, prefix, contains, q));
+        }
+        // One row past the page tells whether there is another, without a count
+        sql.append(" LIMIT ? OFFSET ?");
+        args.add(size + 1);
+        args.add((long) page * size);
+
+        List<UserSearchResponse.UserSummary> users = jdbcTemplate.query(sql.toString(),
+                (rs, i) -> UserSearchResponse.UserSummary.builder()
+                        .id(rs.getLong(1))
+                        .username(rs.getString(2))
+                        .fullName(rs.getString(3))
+                        .email(rs.getString(4))
+                        .department(rs.getString(5))
+                        .role(rs.getString(6))
+                        .build(),
+                args.toArray());
+        boolean hasMore = users.size() > size;
+        return UserSearchResponse.builder()
+                .users(hasMore ? users.subList(0, size) : users)
+                .page(page)
+                .size(size)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Forgets the user under its current name and any name it was cached under before
+     */
+    public synchronized void invalidate(User user) {
+        users.remove(user.getUsername());
+        if (user.getId() != null) {
+            users.values().removeIf(entry -> user.getId().equals(entry.principal().id()));
+        }
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private synchronized UserPrincipal cached(String username, long now) {
+        Entry entry = users.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.loadedAt() > ttlNanos) {
+            users.remove(username);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    private synchronized void put(String username, Entry entry) {
+        users.put(username, entry);
+        Iterator<Map.Entry<String, Entry>> eldest = users.entrySet().iterator();
+        while (users.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
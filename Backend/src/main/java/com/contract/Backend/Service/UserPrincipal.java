@@ -0,0 +1,32 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.model.User;
+
+/**
+ * The caller named by the X-USER header, as resolved by {@link UserDirectory}. Immutable, so
+ * one instance is shared by every request from the same user.
+ */
+public record UserPrincipal(Long id, String username, String fullName, String email, String department,
+                            User.UserRole role) {
+
+    static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getFullName(), user.getEmail(),
+                user.getDepartment(), user.getRole());
+    }
+
+    /**
+     * A detached User carrying this principal's fields, to set as the owner of new rows or
+     * pass as a query parameter without loading the user. Never save or merge it: the
+     * password and timestamps are not set.
+     */
+    public User reference() {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .fullName(fullName)
+                .email(email)
+                .department(department)
+                .role(role)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.contract.Backend.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Myers' O(ND) difference algorithm over word sequences, in its linear-space form.
+ *
+ * Instead of keeping the edit graph, each step searches forwards and backwards at once for
+ * the middle snake of the shortest edit script, then recurses on the halves before and after
+ * it (section 4b of the paper). Memory is O(N + M) and time O((N + M) D), so two long sections
+ * that differ in a few words are compared in close to linear time. Common prefixes and
+ * suffixes are stripped before each search.
+ */
+final class WordDiff {
+
+    enum Op {
+        EQUAL, DELETE, INSERT
+    }
+
+    /**
+     * A run of words; EQUAL and DELETE spans index the old sequence, INSERT spans the new one
+     */
+    record Span(Op op, int from, int to) {
+        int length() {
+            return to - from;
+        }
+    }
+
+    private WordDiff() {
+    }
+
+    /**
+     * Shortest edit script from {@code a} to {@code b}, as spans in order
+     */
+    static List<Span> diff(String[] a, String[] b) {
+        // Compare ints rather than strings in the inner loops
+        Map<String, Integer> ids = new HashMap<>();
+        int[] x = new int[a.length];
+        int[] y = new int[b.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = ids.computeIfAbsent(a[i], word -> ids.size());
+        }
+        for (int i = 0; i < b.length; i++) {
+            y[i] = ids.computeIfAbsent(b[i], word -> ids.size());
+        }
+        return diff(x, y);
+    }
+
+    static List<Span> diff(int[] a, int[] b) {
+        List<Span> spans = new ArrayList<>();
+        new WordDiff.Search(a, b, spans).compare(0, a.length, 0, b.length);
+        return spans;
+    }
+
+    private static final class Search {
+        private final int[] a;
+        private final int[] b;
+        private final List<Span> spans;
+        private final int[] forward;
+        private final int[] backward;
+
+        Search(int[] a, int[] b, List<Span> spans) {
+            this.a = a;
+            this.b = b;
+            this.spans = spans;
+            int size = 2 * ((a.length + b.length + 1) / 2) + 3;
+            this.forward = new int[size];
+            this.backward = new int[size];
+        }
+
+        void compare(int aLo, int aHi, int bLo, int bHi) {
+            int prefix = 0;
+            while (aLo + prefix < aHi && bLo + prefix < bHi && a[aLo + prefix] == b[bLo + prefix]) {
+                prefix++;
+            }
+            emit(Op.EQUAL, aLo, aLo + prefix);
+            aLo += prefix;
+            bLo += prefix;
+            int suffix = 0;
+            while (aHi - suffix > aLo && bHi - suffix > bLo && a[aHi - 1 - suffix] == b[bHi - 1 - suffix]) {
+                suffix++;
+            }
+            aHi -= suffix;
+            bHi -= suffix;
+
+            if (aLo == aHi) {
+                emit(Op.INSERT, bLo, bHi);
+            } else if (bLo == bHi) {
+                emit(Op.DELETE, aLo, aHi);
+            } else {
+                int[] snake = middleSnake(aLo, aHi, bLo, bHi);
+                compare(aLo, aLo + snake[0], bLo, bLo + snake[1]);
+                emit(Op.EQUAL, aLo + snake[0], aLo + snake[2]);
+                compare(aLo + snake[2], aHi, bLo + snake[3], bHi);
+            }
+            emit(Op.EQUAL, aHi, aHi + suffix);
+        }
+
+        /**
+         * The middle snake of the shortest path through the box, as {x, y, endX, endY}
+         * relative to its corner. Both ends are at least one edit away from the corners, so
+         * the halves around it are smaller problems.
+         */
+        private int[] middleSnake(int aLo, int aHi, int bLo, int bHi) {
+            int n = aHi - aLo;
+            int m = bHi - bLo;
+            int delta = n - m;
+            boolean odd = (delta & 1) != 0;
+            int max = (n + m + 1) / 2;
+            int offset = max + 1;
+            // forward[k]: furthest x reached on diagonal k = x - y from the start;
+            // backward[k]: the same from the end, in reversed coordinates
+            forward[offset + 1] = 0;
+            backward[offset + 1] = 0;
+            for (int d = 0; d <= max; d++) {
+                for (int k = -d; k <= d; k += 2) {
+                    int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])
+                            ? forward[offset + k + 1]
+                            : forward[offset + k - 1] + 1;
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                        x++;
+                        y++;
+                    }
+                    forward[offset + k] = x;
+                    int reverse = delta - k;
+                    if (odd && reverse >= -(d - 1) && reverse <= d - 1 && x + backward[offset + reverse] >= n) {
+                        return new int[]{startX, startY, x, y};
+                    }
+                }
+                for (int k = -d; k <= d; k += 2) {
+                    int x = k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1])
+                            ? backward[offset + k + 1]
+                            : backward[offset + k - 1] + 1;
+                    int y = x - k;
+                    int startX = x;
+                    int startY = y;
+                    while (x < n && y < m && a[aHi - 1 - x] == b[bHi - 1 - y]) {
+                        x++;
+                        y++;
+                    }
+                    backward[offset + k] = x;
+                    int ahead = delta - k;
+                    if (!odd && ahead >= -d && ahead <= d && x + forward[offset + ahead] >= n) {
+                        return new int[]{n - x, m - y, n - startX, m - startY};
+                    }
+                }
+            }
+            throw new IllegalStateException("No middle snake found");
+        }
+
+        private void emit(Op op, int from, int to) {
+            if (from == to) {
+                return;
+            }
+            if (!spans.isEmpty()) {
+                Span last = spans.get(spans.size() - 1);
+                if (last.op() == op && last.to() == from) {
+                    spans.set(spans.size() - 1, new Span(op, last.from(), to));
+                    return;
+                }
+            }
+            spans.add(new Span(op, from, to));
+        }
+    }
+}
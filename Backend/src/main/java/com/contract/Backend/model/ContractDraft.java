@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class ContractDraft {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_drafts_seq")
+    @SequenceGenerator(name = "contract_drafts_seq", sequenceName = "contract_drafts_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,6 +46,10 @@ public class ContractDraft {
     
     private Integer version = 1;
 
+    // Bumped by every accepted JSON Patch; PATCH requests name the revision they were made against
+    @Builder.Default
+    private Long revision = 0L;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
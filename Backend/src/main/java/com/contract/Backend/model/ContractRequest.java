@@ -18,7 +18,8 @@ import java.util.List;
 public class ContractRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_requests_seq")
+    @SequenceGenerator(name = "contract_requests_seq", sequenceName = "contract_requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -63,6 +64,10 @@ public class ContractRequest {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Set when the request reaches COMPLETED, cleared if it leaves it; feeds turnaround analytics
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     public enum RequestStatus {
         PENDING, IN_PROGRESS, COMPLETED, REJECTED
     }
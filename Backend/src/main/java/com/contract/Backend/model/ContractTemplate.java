@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class ContractTemplate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contract_templates_seq")
+    @SequenceGenerator(name = "contract_templates_seq", sequenceName = "contract_templates_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
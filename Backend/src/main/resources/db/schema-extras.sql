@@ -0,0 +1,117 @@
+-- Indexes and other schema objects ddl-auto cannot express. Runs on every startup after
+-- Hibernate has updated the schema, so every statement must be idempotent.
+
+-- Unassigned queue, in claim-next order (see ContractRequestService.claimNext)
+CREATE INDEX IF NOT EXISTS idx_contract_requests_claim_queue
+    ON contract_requests ((CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), due_date, created_at, id)
+    WHERE assigned_to IS NULL AND status = 'PENDING';
+
+-- Checkpoints of the in-memory dashboard counters (see AnalyticsService)
+CREATE TABLE IF NOT EXISTS analytics_counters (
+    name       VARCHAR(512) PRIMARY KEY,
+    value      BIGINT       NOT NULL,
+    updated_at TIMESTAMP    NOT NULL
+);
+
+-- completed_at was added after launch; completed rows from before get their last update time
+UPDATE contract_requests SET completed_at = updated_at
+WHERE status = 'COMPLETED' AND completed_at IS NULL;
+
+-- Open requests with a due date, loaded by SlaTracker at startup
+CREATE INDEX IF NOT EXISTS idx_contract_requests_open_due
+    ON contract_requests (due_date)
+    WHERE status IN ('PENDING', 'IN_PROGRESS') AND due_date IS NOT NULL;
+
+-- Drafts from before JSON Patch autosave start at revision 0
+UPDATE contract_drafts SET revision = 0 WHERE revision IS NULL;
+
+-- Hash of what was embedded per template/draft, and the position of the pass in progress
+-- (see EmbeddingIndexer)
+CREATE TABLE IF NOT EXISTS embedding_index_state (
+    kind         VARCHAR(16) NOT NULL,
+    entity_id    BIGINT      NOT NULL,
+    content_hash CHAR(64)    NOT NULL,
+    indexed_at   TIMESTAMP   NOT NULL,
+    PRIMARY KEY (kind, entity_id)
+);
+
+CREATE TABLE IF NOT EXISTS embedding_index_checkpoint (
+    kind                   VARCHAR(16) PRIMARY KEY,
+    last_id                BIGINT      NOT NULL,
+    last_pass_completed_at TIMESTAMP,
+    updated_at             TIMESTAMP   NOT NULL
+);
+
+-- Text of uploaded DOCX files, one row per heading, clause or paragraph, and the outcome of
+-- the extraction per file (see DocxExtractionService)
+CREATE TABLE IF NOT EXISTS document_sections (
+    owner_kind VARCHAR(16) NOT NULL,
+    owner_id   BIGINT      NOT NULL,
+    position   INT         NOT NULL,
+    kind       VARCHAR(16) NOT NULL,
+    level      INT         NOT NULL,
+    number     VARCHAR(64),
+    text       TEXT        NOT NULL,
+    PRIMARY KEY (owner_kind, owner_id, position)
+);
+
+CREATE TABLE IF NOT EXISTS document_extractions (
+    owner_kind   VARCHAR(16) NOT NULL,
+    owner_id     BIGINT      NOT NULL,
+    status       VARCHAR(16) NOT NULL,
+    sections     INT         NOT NULL,
+    error        TEXT,
+    extracted_at TIMESTAMP   NOT NULL,
+    PRIMARY KEY (owner_kind, owner_id)
+);
+
+-- Bulk template imports and the outcome per file (see TemplateImportService)
+CREATE TABLE IF NOT EXISTS template_import_jobs (
+    id          BIGSERIAL PRIMARY KEY,
+    source      VARCHAR(1024) NOT NULL,
+    status      VARCHAR(16)   NOT NULL,
+    created_by  VARCHAR(255)  NOT NULL,
+    files       INT           NOT NULL DEFAULT 0,
+    imported    INT           NOT NULL DEFAULT 0,
+    duplicates  INT           NOT NULL DEFAULT 0,
+    failed      INT           NOT NULL DEFAULT 0,
+    templates   INT           NOT NULL DEFAULT 0,
+    started_at  TIMESTAMP     NOT NULL,
+    finished_at TIMESTAMP,
+    error       TEXT
+);
+
+CREATE TABLE IF NOT EXISTS template_import_files (
+    job_id       BIGINT        NOT NULL,
+    name         VARCHAR(1024) NOT NULL,
+    content_hash CHAR(64),
+    status       VARCHAR(16)   NOT NULL,
+    templates    INT           NOT NULL,
+    error        TEXT,
+    PRIMARY KEY (job_id, name)
+);
+
+-- Hashes of imported files, loaded at the start of each job to skip duplicates
+CREATE INDEX IF NOT EXISTS idx_template_import_files_imported
+    ON template_import_files (content_hash) WHERE status = 'IMPORTED';
+
+-- User directory search (see UserDirectory.search). pg_trgm is a trusted extension (PostgreSQL
+-- 13+), so any role with CREATE on the database can create it. For a role without it, a DBA
+-- runs CREATE EXTENSION pg_trgm once, after which IF NOT EXISTS needs no privilege. Without
+-- either, startup fails here. The trigram index serves substring and word-similarity matches
+-- and its expression must stay the same as UserDirectory.SEARCH_TEXT. Queries under three
+-- characters match prefixes through the text_pattern_ops indexes instead.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_search
+    ON users USING gin ((lower(username || ' ' || coalesce(full_name, '') || ' ' || email || ' ' || coalesce(department, ''))) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_full_name_prefix ON users (lower(full_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+
+-- Tags of contract requests (an element collection, so a table rather than an array column):
+-- by tag for tag filters and counts in ContractRequestSearchService and claim-next skills, by
+-- request for loading a request's tags
+CREATE INDEX IF NOT EXISTS idx_contract_request_tags_tag ON contract_request_tags (tag, request_id);
+CREATE INDEX IF NOT EXISTS idx_contract_request_tags_request ON contract_request_tags (request_id);
@@ -0,0 +1,151 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The change feed under concurrent commits: every subscriber, whether connected before, in
+ * the middle of or resuming during the publishing, gets each event exactly once and in offset
+ * order. Emitters record what the sender writes instead of writing to a connection.
+ */
+class ChangeFeedServiceTests {
+
+    private static final int PUBLISHERS = 4;
+    private static final int EVENTS_PER_PUBLISHER = 500;
+    private static final long TOTAL = PUBLISHERS * EVENTS_PER_PUBLISHER;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ChangeFeedService feed = new ChangeFeedService(10_000, 60_000, 100_000, new SimpleMeterRegistry()) {
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void deliversEveryEventOnceInOffsetOrderWhilePublishingConcurrently() throws InterruptedException {
+        RecordingEmitter early = subscribe(null);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> publishers = new ArrayList<>();
+        for (int p = 0; p < PUBLISHERS; p++) {
+            long requestId = p;
+            Thread publisher = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < EVENTS_PER_PUBLISHER; i++) {
+                    feed.onChange(ContractChangeEvent.builder()
+                            .type(ContractChangeEvent.Type.REQUEST_STATUS_CHANGED)
+                            .requestId(requestId)
+                            .status("pending")
+                            .build());
+                }
+            });
+            publisher.start();
+            publishers.add(publisher);
+        }
+        start.countDown();
+
+        // Connecting while events are committed: fresh, and resuming from before the first event
+        List<RecordingEmitter> late = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            late.add(subscribe(null));
+            late.add(subscribe(early.readyId));
+            Thread.sleep(1);
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertGapFree(early);
+        late.forEach(ChangeFeedServiceTests::assertGapFree);
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        feed.subscribe("alice", EnumSet.of(ChangeFeedService.View.ALL), lastEventId);
+        RecordingEmitter emitter = emitters.get(emitters.size() - 1);
+        awaitUntil(() -> emitter.readyId != null);
+        return emitter;
+    }
+
+    /**
+     * Every offset after the one the subscriber connected or resumed at, once and in order
+     */
+    private static void assertGapFree(RecordingEmitter emitter) {
+        long after = emitter.readyOffset();
+        awaitUntil(() -> after == TOTAL
+                || !emitter.offsets.isEmpty() && emitter.offsets.get(emitter.offsets.size() - 1) == TOTAL);
+        assertThat(emitter.offsets).containsExactlyElementsOf(LongStream.rangeClosed(after + 1, TOTAL).boxed().toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waiting for the change feed").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Keeps the offsets of the events sent and the id of the ready (or reset) message
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<Long> offsets = new CopyOnWriteArrayList<>();
+        volatile String readyId;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof ContractChangeEvent event) {
+                    offsets.add(event.getOffset());
+                    return;
+                }
+                text.append(part.getData());
+            }
+            String message = text.toString();
+            if (message.contains("event:ready") || message.contains("event:reset")) {
+                int id = message.indexOf("id:") + 3;
+                readyId = message.substring(id, message.indexOf('\n', id));
+            }
+        }
+
+        long readyOffset() {
+            return Long.parseLong(readyId.substring(readyId.indexOf('-') + 1));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDiffResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Sections are matched by title ignoring numbering, or by their words, before being compared.
+ */
+class ContractDiffServiceTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void alignsSectionsBeforeComparingWords() throws Exception {
+        JsonNode template = json("""
+                {'type':'doc','content':[
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'1. Definitions'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'Terms have the meaning given here.'}]},
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'2. Payment'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'The fee is due monthly in advance.'}]},
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'3. Audit'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'Records may be audited yearly.'}]}
+                ]}""");
+        JsonNode draft = json("""
+                {'type':'doc','content':[
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'1. Definitions'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'Terms have the meaning given here.'}]},
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'2. Confidentiality'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'Both parties keep this secret.'}]},
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'3. Fees'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'The fee is '},
+                    {'type':'text','text':'payable','marks':[{'type':'bold'}]},{'type':'text','text':' monthly in advance.'}]}
+                ]}""");
+
+        ContractDiffResponse diff = ContractDiffService.compare(
+                ContractDiffService.sections(template), ContractDiffService.sections(draft));
+
+        assertThat(diff.getSections()).extracting(ContractDiffResponse.SectionDiff::getStatus)
+                .containsExactly("UNCHANGED", "ADDED", "MODIFIED", "REMOVED");
+        ContractDiffResponse.SectionDiff fees = diff.getSections().get(2);
+        assertThat(fees.getLeftTitle()).isEqualTo("2. Payment");
+        assertThat(fees.getRightTitle()).isEqualTo("3. Fees");
+        assertThat(fees.getSpans()).extracting(ContractDiffResponse.Span::getOp, ContractDiffResponse.Span::getText)
+                .containsExactly(
+                        tuple("EQUAL", "The fee is"),
+                        tuple("DELETE", "due"),
+                        tuple("INSERT", "payable"),
+                        tuple("EQUAL", "monthly in advance."));
+        assertThat(diff.getWordsInserted()).isEqualTo(5 + 1);
+        assertThat(diff.getWordsDeleted()).isEqualTo(1 + 5);
+        assertThat(diff.getSectionsChanged()).isEqualTo(3);
+    }
+
+    private static JsonNode json(String json) throws Exception {
+        return MAPPER.readTree(json.replace('\'', '"'));
+    }
+}
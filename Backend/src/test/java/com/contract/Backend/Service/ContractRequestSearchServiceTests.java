@@ -0,0 +1,171 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractRequestFilter;
+import com.contract.Backend.DTO.ContractRequestResponse;
+import com.contract.Backend.DTO.ContractRequestSearchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Faceted request search against an embedded Postgres. Among the users is one named "none",
+ * who must not be mistaken for the requests nobody is assigned to.
+ */
+class ContractRequestSearchServiceTests {
+
+    private static EmbeddedPostgres postgres;
+    private static ContractRequestSearchService search;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("""
+                CREATE TABLE users (id BIGINT PRIMARY KEY, username TEXT NOT NULL, full_name TEXT, email TEXT,
+                    department TEXT)""");
+        jdbc.execute("""
+                CREATE TABLE contract_requests (id BIGINT PRIMARY KEY, title TEXT, contract_type TEXT, description TEXT,
+                    status TEXT NOT NULL, priority TEXT NOT NULL, requested_by BIGINT NOT NULL REFERENCES users (id),
+                    assigned_to BIGINT REFERENCES users (id), due_date DATE, created_at TIMESTAMP, updated_at TIMESTAMP)""");
+        jdbc.execute("CREATE TABLE contract_request_tags (request_id BIGINT NOT NULL REFERENCES contract_requests (id), tag TEXT)");
+        String extras = new ClassPathResource("db/schema-extras.sql").getContentAsString(StandardCharsets.UTF_8);
+        Arrays.stream(extras.split(";"))
+                .filter(statement -> statement.contains("ON contract_request_tags"))
+                .forEach(jdbc::execute);
+
+        jdbc.update("INSERT INTO users VALUES (1, 'alice', 'Alice', 'alice@example.com', 'Legal')");
+        jdbc.update("INSERT INTO users VALUES (2, 'bob', 'Bob', 'bob@example.com', 'Finance')");
+        jdbc.update("INSERT INTO users VALUES (3, 'none', 'Nora Neves', 'none@example.com', NULL)");
+        jdbc.update("INSERT INTO users VALUES (4, 'dave', 'Dave', 'dave@example.com', '')");
+
+        LocalDate today = LocalDate.now();
+        // id, requested by, assigned to, status, priority, type, due date, tags; newer ids are newer requests
+        request(jdbc, 1, 1, 2L, "PENDING", "HIGH", "NDA", today.minusDays(1), "nda", "urgent");
+        request(jdbc, 2, 1, null, "PENDING", "LOW", "NDA", null, "nda");
+        request(jdbc, 3, 3, 3L, "IN_PROGRESS", "HIGH", "MSA", today.plusDays(3), "msa", "urgent");
+        request(jdbc, 4, 4, 2L, "COMPLETED", "MEDIUM", "MSA", today.plusDays(30));
+        request(jdbc, 5, 2, null, "PENDING", "HIGH", "NDA", today.plusDays(2), "urgent");
+
+        search = new ContractRequestSearchService(new NamedParameterJdbcTemplate(jdbc),
+                new ObjectMapper().findAndRegisterModules(), 100, 20);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void combinesFiltersAndCountsEachFacetWithoutItsOwn() {
+        ContractRequestSearchResponse response = search.search(ContractRequestFilter.builder()
+                .status(List.of("pending"))
+                .tag(List.of("urgent"))
+                .build());
+
+        assertThat(ids(response)).containsExactly(5L, 1L);
+        assertThat(response.getTotal()).isEqualTo(2);
+        Map<String, Map<String, Long>> facets = response.getFacets();
+        // Urgent requests of any status
+        assertThat(facets.get("status")).isEqualTo(Map.of("pending", 2L, "in_progress", 1L));
+        // Tags of pending requests
+        assertThat(facets.get("tag")).isEqualTo(Map.of("nda", 2L, "urgent", 2L));
+        assertThat(facets.get("priority")).isEqualTo(Map.of("high", 2L));
+        assertThat(facets.get("contractType")).isEqualTo(Map.of("NDA", 2L));
+        assertThat(facets.get("department")).isEqualTo(Map.of("Legal", 1L, "Finance", 1L));
+        assertThat(facets.get("assignee")).isEqualTo(Map.of("bob", 1L, "", 1L));
+        assertThat(facets.get("due")).isEqualTo(Map.of("overdue", 1L, "next7days", 1L));
+
+        ContractRequestResponse first = response.getRequests().get(0);
+        assertThat(first.getStatus()).isEqualTo("pending");
+        assertThat(first.getRequestedBy().getDepartment()).isEqualTo("Finance");
+        assertThat(first.getAssignedTo()).isNull();
+        assertThat(first.getTags()).containsExactly("urgent");
+    }
+
+    @Test
+    void tellsAUserNamedNoneFromUnassignedRequests() {
+        assertThat(ids(search.search(ContractRequestFilter.builder().assignee(List.of("none")).build())))
+                .containsExactly(3L);
+        assertThat(ids(search.search(ContractRequestFilter.builder().unassigned(true).build())))
+                .containsExactly(5L, 2L);
+        assertThat(ids(search.search(ContractRequestFilter.builder().assignee(List.of("none")).unassigned(true).build())))
+                .containsExactly(5L, 3L, 2L);
+
+        ContractRequestSearchResponse all = search.search(ContractRequestFilter.builder().build());
+        assertThat(all.getFacets().get("assignee")).isEqualTo(Map.of("bob", 2L, "", 2L, "none", 1L));
+        // A NULL and an empty department are both no department
+        assertThat(all.getFacets().get("department")).isEqualTo(Map.of("Legal", 2L, "", 2L, "Finance", 1L));
+        assertThat(ids(search.search(ContractRequestFilter.builder().noDepartment(true).build())))
+                .containsExactly(4L, 3L);
+        assertThat(all.getFacets().get("due")).isEqualTo(Map.of("overdue", 1L, "next7days", 2L, "later", 1L, "none", 1L));
+    }
+
+    @Test
+    void countsEachRequestOnceForTagFiltersAndFacets() {
+        ContractRequestSearchResponse nda = search.search(ContractRequestFilter.builder().tag(List.of("nda")).build());
+
+        assertThat(ids(nda)).containsExactly(2L, 1L);
+        // Every request's tags, the tag filter aside; request 4 has none
+        assertThat(nda.getFacets().get("tag")).isEqualTo(Map.of("urgent", 3L, "nda", 2L, "msa", 1L));
+
+        // Request 1 has both tags but comes back once
+        ContractRequestSearchResponse either = search.search(ContractRequestFilter.builder()
+                .tag(List.of("nda", "urgent"))
+                .build());
+        assertThat(ids(either)).containsExactly(5L, 3L, 2L, 1L);
+        assertThat(either.getTotal()).isEqualTo(4);
+        assertThat(either.getFacets().get("status")).isEqualTo(Map.of("pending", 3L, "in_progress", 1L));
+    }
+
+    @Test
+    void pagesNewestFirst() {
+        List<List<Long>> pages = List.of(List.of(5L, 4L), List.of(3L, 2L), List.of(1L), List.of());
+        for (int page = 0; page < pages.size(); page++) {
+            ContractRequestSearchResponse response = search.search(ContractRequestFilter.builder().page(page).size(2).build());
+
+            assertThat(ids(response)).isEqualTo(pages.get(page));
+            assertThat(response.getTotal()).isEqualTo(5);
+            assertThat(response.getPage()).isEqualTo(page);
+            assertThat(response.getSize()).isEqualTo(2);
+            // Facets do not depend on the page
+            assertThat(response.getFacets().get("status")).isEqualTo(Map.of("pending", 3L, "in_progress", 1L, "completed", 1L));
+        }
+
+        assertThatThrownBy(() -> search.search(ContractRequestFilter.builder().size(101).build()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static void request(JdbcTemplate jdbc, long id, long requestedBy, Long assignedTo, String status,
+                                String priority, String contractType, LocalDate dueDate, String... tags) {
+        Timestamp created = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 9, 0).plusHours(id));
+        jdbc.update("INSERT INTO contract_requests VALUES (?, ?, ?, NULL, ?, ?, ?, ?, ?, ?, ?)",
+                id, "Request " + id, contractType, status, priority, requestedBy, assignedTo, dueDate, created, created);
+        for (String tag : tags) {
+            jdbc.update("INSERT INTO contract_request_tags VALUES (?, ?)", id, tag);
+        }
+    }
+
+    private static List<Long> ids(ContractRequestSearchResponse response) {
+        return response.getRequests().stream().map(ContractRequestResponse::getId).toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.contract.Backend.Service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The single-pass parser must produce exactly what the original three-pass fallback did.
+ */
+class ContractTextParserTests {
+
+    static Stream<String> corpus() {
+        return ModelOutputCorpus.NAMES.stream().map(ModelOutputCorpus::load);
+    }
+
+    @ParameterizedTest
+    @MethodSource("corpus")
+    void matchesLegacyFallbackOnCorpus(String response) {
+        assertMatchesLegacy(response);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "\n\n\n",
+            "1.",
+            "1.\nbody without a title",
+            "12. Title\r\nbody\r\n13. Next\r\nmore",
+            "A: not a heading because the run is too short\nAB: heading\nbody",
+            "AB :x\nABC:\ncontent\n  \n\t\nDEF GHI: inline\nlast line",
+            "1x. nope\n1. Yes\n\nSignature lines\nsignature\nSIGNATURE block",
+            "Preamble only\nwith two lines\n",
+            "1. Empty section\n2. Second\nbody\n",
+            "1. Title\u2028with separator\nbody\n2. Plain\nbody"
+    })
+    void matchesLegacyFallbackOnEdgeCases(String response) {
+        assertMatchesLegacy(response);
+    }
+
+    private static void assertMatchesLegacy(String response) {
+        ContractTextParser.ParsedText parsed = ContractTextParser.parse(response);
+
+        assertThat(parsed.getPreamble()).isEqualTo(LegacyTextFallback.extractPreamble(response));
+        assertThat(parsed.getSections())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(LegacyTextFallback.extractSectionsFromText(response));
+        assertThat(parsed.getConclusion()).isEqualTo(LegacyTextFallback.extractConclusion(response));
+    }
+}
@@ -0,0 +1,80 @@
+package com.contract.Backend.Service;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Local embedding model for tests: the vector of a text is a unit vector seeded from its
+ * SHA-256, so equal texts embed equally on every run and no model is needed. Its components
+ * are non-negative, so any two vectors have a positive cosine and a search with
+ * similarityThresholdAll() finds every stored document. Records what it
+ * was asked to embed, and fails any request containing a text with {@link #failOn} in it.
+ */
+class DeterministicEmbeddingModel implements EmbeddingModel {
+
+    static final int DIMENSIONS = 32;
+
+    final List<String> embedded = Collections.synchronizedList(new ArrayList<>());
+    final List<Integer> requestSizes = Collections.synchronizedList(new ArrayList<>());
+    volatile String failOn;
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        if (failOn != null && texts.stream().anyMatch(text -> text.contains(failOn))) {
+            throw new IllegalStateException("stub embedding failure");
+        }
+        requestSizes.add(texts.size());
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embedded.add(texts.get(i));
+            embeddings.add(new Embedding(vector(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    /**
+     * Query embeddings, not recorded
+     */
+    @Override
+    public float[] embed(String text) {
+        return vector(text);
+    }
+
+    /**
+     * What the vector store calls for each document it adds; goes through {@link #call} so it
+     * is recorded and can fail
+     */
+    @Override
+    public float[] embed(Document document) {
+        return call(new EmbeddingRequest(List.of(document.getText()), null)).getResult().getOutput();
+    }
+
+    @Override
+    public int dimensions() {
+        return DIMENSIONS;
+    }
+
+    static float[] vector(String text) {
+        Random random = new Random(ByteBuffer.wrap(ContentHash.sha256(text)).getLong());
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) Math.abs(random.nextGaussian());
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,150 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rendered package must have every part Word needs, each well-formed, and carry the
+ * editor document's structure.
+ */
+class DocxRendererTests {
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void writesAllPartsAsWellFormedXml() throws Exception {
+        Map<String, byte[]> parts = render(json("{'type':'doc','content':[{'type':'paragraph'}]}"));
+
+        assertThat(parts).containsOnlyKeys("[Content_Types].xml", "_rels/.rels", "word/_rels/document.xml.rels",
+                "word/styles.xml", "word/document.xml", "word/numbering.xml");
+        for (byte[] part : parts.values()) {
+            parse(part); // throws if not well-formed
+        }
+    }
+
+    @Test
+    void rendersHeadingsMarksAndLists() throws Exception {
+        JsonNode document = json("""
+                {'type':'doc','content':[
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'1. Definitions'}]},
+                  {'type':'paragraph','content':[
+                    {'type':'text','text':'Plain '},
+                    {'type':'text','text':'bold','marks':[{'type':'bold'}]},
+                    {'type':'hardBreak'},
+                    {'type':'text','text':'a & <b>'}]},
+                  {'type':'orderedList','content':[
+                    {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'one'}]},
+                      {'type':'bulletList','content':[
+                        {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'nested'}]}]}]}]},
+                    {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'two'}]}]}]},
+                  {'type':'orderedList','content':[
+                    {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'restart'}]}]}]}
+                ]}""");
+        Map<String, byte[]> parts = render(document);
+        Document xml = parse(parts.get("word/document.xml"));
+
+        NodeList paragraphs = xml.getElementsByTagNameNS(W, "p");
+        assertThat(paragraphs.getLength()).isEqualTo(6);
+        assertThat(styleOf((Element) paragraphs.item(0))).isEqualTo("Heading2");
+        assertThat(xml.getElementsByTagNameNS(W, "b").getLength()).isEqualTo(1);
+        assertThat(xml.getElementsByTagNameNS(W, "br").getLength()).isEqualTo(1);
+        assertThat(text(paragraphs.item(1))).isEqualTo("Plain bolda & <b>");
+
+        // Each ordered list has its own numbering instance, nested bullets sit one level down
+        assertThat(List.of(numIdOf(paragraphs.item(2)), numIdOf(paragraphs.item(3)), numIdOf(paragraphs.item(4)),
+                numIdOf(paragraphs.item(5)))).containsExactly("2", "1", "2", "3");
+        assertThat(((Element) paragraphs.item(3)).getElementsByTagNameNS(W, "ilvl").item(0)
+                .getAttributes().getNamedItemNS(W, "val").getNodeValue()).isEqualTo("1");
+        assertThat(parse(parts.get("word/numbering.xml")).getElementsByTagNameNS(W, "num").getLength()).isEqualTo(3);
+    }
+
+    @Test
+    void dropsCharactersXmlCannotCarry() throws Exception {
+        ObjectNode document = MAPPER.createObjectNode().put("type", "doc");
+        document.putArray("content").addObject()
+                .put("type", "paragraph").putArray("content").addObject()
+                .put("type", "text").put("text", "a\u0000b\u000Bc\r\nd");
+
+        Document xml = parse(render(document).get("word/document.xml"));
+
+        assertThat(text(xml.getElementsByTagNameNS(W, "p").item(0))).isEqualTo("abcd");
+        assertThat(xml.getElementsByTagNameNS(W, "br").getLength()).isEqualTo(1);
+    }
+
+    @Test
+    void laysOutGeneratedDraftsLikeTheEditor() throws Exception {
+        ContractDraftResponse response = ContractDraftResponse.builder()
+                .contractTitle("Mutual NDA")
+                .partyA("Acme")
+                .preamble("Preamble text")
+                .sections(List.of(ContractDraftResponse.ContractSection.builder()
+                        .sectionNumber(1).title("Confidentiality").content("Keep it secret")
+                        .subsections(List.of("Scope", "Term")).build()))
+                .conclusion("Signed")
+                .build();
+
+        Document xml = parse(render(DocxRenderer.toDocument(response)).get("word/document.xml"));
+
+        assertThat(xml.getDocumentElement().getTextContent())
+                .contains("Mutual NDA", "Party A: Acme", "Contract Terms", "1. Confidentiality", "Scope", "Term", "Signatures");
+    }
+
+    private static Map<String, byte[]> render(JsonNode document) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DocxRenderer.render(document, out);
+        Map<String, byte[]> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                parts.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+        return parts;
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private static String styleOf(Element paragraph) {
+        return paragraph.getElementsByTagNameNS(W, "pStyle").item(0).getAttributes().getNamedItemNS(W, "val").getNodeValue();
+    }
+
+    private static String numIdOf(Node paragraph) {
+        return ((Element) paragraph).getElementsByTagNameNS(W, "numId").item(0)
+                .getAttributes().getNamedItemNS(W, "val").getNodeValue();
+    }
+
+    private static String text(Node paragraph) {
+        StringBuilder text = new StringBuilder();
+        NodeList runs = ((Element) paragraph).getElementsByTagNameNS(W, "t");
+        for (int i = 0; i < runs.getLength(); i++) {
+            text.append(runs.item(i).getTextContent());
+        }
+        return text.toString();
+    }
+
+    private static JsonNode json(String relaxed) throws Exception {
+        return MAPPER.readTree(relaxed.replace('\'', '"'));
+    }
+}
@@ -0,0 +1,112 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.Service.DocxTextExtractor.Kind;
+import com.contract.Backend.Service.DocxTextExtractor.Section;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Files rendered by {@link DocxRenderer} must come back as the headings, clauses and
+ * paragraphs they were made of; hostile files must be refused.
+ */
+class DocxTextExtractorTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void segmentsHeadingsClausesAndParagraphs() throws Exception {
+        byte[] docx = render("""
+                {'type':'doc','content':[
+                  {'type':'heading','attrs':{'level':2},'content':[{'type':'text','text':'1. Definitions'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'Plain'},{'type':'hardBreak'},{'type':'text','text':'a & <b>'}]},
+                  {'type':'orderedList','content':[
+                    {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'one'}]},
+                      {'type':'orderedList','content':[
+                        {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'nested'}]}]}]}]},
+                    {'type':'listItem','content':[{'type':'paragraph','content':[{'type':'text','text':'two'}]}]}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'2.1 The Client shall pay.'}]},
+                  {'type':'paragraph','content':[{'type':'text','text':'(b) within 30 days'}]},
+                  {'type':'paragraph'},
+                  {'type':'paragraph','content':[{'type':'text','text':'2024 was a good year.'}]}
+                ]}""");
+
+        List<Section> sections = extract(docx);
+
+        assertThat(sections).containsExactly(
+                new Section(0, Kind.HEADING, 2, "1.", "Definitions"),
+                new Section(1, Kind.PARAGRAPH, 0, null, "Plain\na & <b>"),
+                new Section(2, Kind.CLAUSE, 1, "1.", "one"),
+                new Section(3, Kind.CLAUSE, 2, "1.1.", "nested"),
+                new Section(4, Kind.CLAUSE, 1, "2.", "two"),
+                new Section(5, Kind.CLAUSE, 2, "2.1", "The Client shall pay."),
+                new Section(6, Kind.CLAUSE, 2, "(b)", "within 30 days"),
+                new Section(7, Kind.PARAGRAPH, 0, null, "2024 was a good year."));
+    }
+
+    @Test
+    void capsParagraphLength() throws Exception {
+        byte[] docx = render("{'type':'doc','content':[{'type':'paragraph','content':[{'type':'text','text':'"
+                + "x".repeat(500) + "'}]}]}");
+
+        List<Section> sections = new ArrayList<>();
+        DocxTextExtractor.extract(new ByteArrayInputStream(docx), Long.MAX_VALUE, 100, sections::add);
+
+        assertThat(sections.get(0).text()).hasSize(100);
+    }
+
+    @Test
+    void refusesFilesThatAreNotDocx() {
+        assertThatThrownBy(() -> extract(zip("word/other.xml", "<x/>")))
+                .isInstanceOf(DocxTextExtractor.InvalidDocxException.class);
+        assertThatThrownBy(() -> extract("not a zip".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(DocxTextExtractor.InvalidDocxException.class);
+    }
+
+    @Test
+    void refusesEntitiesAndOversizedDocuments() throws Exception {
+        byte[] entity = zip("word/document.xml", """
+                <?xml version="1.0"?>
+                <!DOCTYPE d [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+                <w:document xmlns:w="http://schemas.openxmlformats.org/wordprocessingml/2006/main">
+                <w:body><w:p><w:r><w:t>&xxe;</w:t></w:r></w:p></w:body></w:document>""");
+        assertThatThrownBy(() -> extract(entity)).isInstanceOf(DocxTextExtractor.InvalidDocxException.class);
+
+        byte[] large = render("{'type':'doc','content':[{'type':'paragraph','content':[{'type':'text','text':'"
+                + "x".repeat(10_000) + "'}]}]}");
+        assertThatThrownBy(() -> DocxTextExtractor.extract(new ByteArrayInputStream(large), 4096, 100, section -> {
+        })).isInstanceOf(DocxTextExtractor.InvalidDocxException.class);
+    }
+
+    private static List<Section> extract(byte[] docx) throws Exception {
+        List<Section> sections = new ArrayList<>();
+        DocxTextExtractor.extract(new ByteArrayInputStream(docx), Long.MAX_VALUE, 32_768, sections::add);
+        return sections;
+    }
+
+    private static byte[] render(String json) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DocxRenderer.render(MAPPER.readTree(json.replace('\'', '"')), out);
+        return out.toByteArray();
+    }
+
+    private static byte[] zip(String name, String content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return out.toByteArray();
+    }
+}
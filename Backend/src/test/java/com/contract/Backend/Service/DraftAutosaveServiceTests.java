@@ -0,0 +1,167 @@
+package com.contract.Backend.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Autosave against an embedded Postgres: a draft changed underneath the buffer, and writing
+ * the buffer in the transaction that makes the draft final. The coalescing delay is long
+ * enough that only explicit flushes write.
+ */
+class DraftAutosaveServiceTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static TransactionTemplate transaction;
+
+    private DraftAutosaveService autosave;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // One DataSource for both, so the template's statements join the transactions
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbc = new JdbcTemplate(dataSource);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("""
+                CREATE TABLE contract_drafts (id BIGINT PRIMARY KEY, content JSONB NOT NULL, revision BIGINT,
+                    is_final BOOLEAN, updated_at TIMESTAMP)""");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE contract_drafts");
+        jdbc.update("INSERT INTO contract_drafts VALUES (1, '{\"text\":\"a\"}', 0, false, now())");
+        autosave = new DraftAutosaveService(jdbc, MAPPER, new CollectionVersions(), 60_000, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        autosave.shutdown();
+    }
+
+    @Test
+    void keepsRevisionsTheRowMovedPastUntilTheClientRebases() {
+        autosave.patch(1L, 0, replace("/text", "b"));
+        jdbc.update("UPDATE contract_drafts SET content = '{\"text\":\"other\",\"n\":1}', revision = 5 WHERE id = 1");
+
+        assertThatThrownBy(() -> autosave.flush(1L))
+                .isInstanceOfSatisfying(DraftConflictException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(e.getServerRevision()).isEqualTo(5);
+                    assertThat(e.isFinalDraft()).isFalse();
+                });
+        // Still there for the editor, however often it asks
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> autosave.patch(1L, 1, replace("/text", "c")))
+                    .isInstanceOfSatisfying(DraftConflictException.class, e -> {
+                        assertThat(e.getUnsavedRevision()).isEqualTo(1);
+                        assertThat(e.getUnsavedDocument()).isEqualTo(json("{\"text\":\"b\"}"));
+                    });
+        }
+        assertDraft(5, "{\"text\":\"other\",\"n\":1}");
+
+        // Rebased onto revision 5
+        assertThat(autosave.patch(1L, 5, replace("/text", "b")).getRevision()).isEqualTo(6);
+        autosave.flush(1L);
+        assertDraft(6, "{\"text\":\"b\",\"n\":1}");
+    }
+
+    @Test
+    void handsBackRevisionsOfADraftMadeFinalElsewhere() {
+        autosave.patch(1L, 0, replace("/text", "b"));
+        jdbc.update("UPDATE contract_drafts SET is_final = true WHERE id = 1");
+
+        assertThatThrownBy(() -> autosave.flush(1L))
+                .isInstanceOfSatisfying(DraftConflictException.class, e -> assertThat(e.isFinalDraft()).isTrue());
+        assertThatThrownBy(() -> autosave.patch(1L, 1, replace("/text", "c")))
+                .isInstanceOfSatisfying(DraftConflictException.class,
+                        e -> assertThat(e.getUnsavedDocument()).isEqualTo(json("{\"text\":\"b\"}")));
+        // Handed back once; after that the draft is simply final
+        assertThatThrownBy(() -> autosave.patch(1L, 0, replace("/text", "c")))
+                .isNotInstanceOf(DraftConflictException.class)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertDraft(0, "{\"text\":\"a\"}");
+    }
+
+    @Test
+    void finalizingWritesTheBufferAndRefusesFurtherPatches() {
+        autosave.patch(1L, 0, replace("/text", "b"));
+
+        transaction.executeWithoutResult(status -> {
+            autosave.flushForFinal(1L);
+            assertThatThrownBy(() -> autosave.patch(1L, 1, replace("/text", "c")))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+            jdbc.update("UPDATE contract_drafts SET is_final = true WHERE id = 1");
+        });
+
+        assertDraft(1, "{\"text\":\"b\"}");
+        assertThatThrownBy(() -> autosave.patch(1L, 1, replace("/text", "c")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void keepsTheBufferWhenTheFinalizingTransactionRollsBack() {
+        autosave.patch(1L, 0, replace("/text", "b"));
+
+        transaction.executeWithoutResult(status -> {
+            autosave.flushForFinal(1L);
+            status.setRollbackOnly();
+        });
+
+        assertDraft(0, "{\"text\":\"a\"}");
+        // Editable again, on top of the revision that was rolled back
+        assertThat(autosave.patch(1L, 1, replace("/text", "c")).getPersistedRevision()).isEqualTo(0);
+        autosave.flush(1L);
+        assertDraft(2, "{\"text\":\"c\"}");
+    }
+
+    private static void assertDraft(long revision, String content) {
+        assertThat(jdbc.queryForObject("SELECT revision FROM contract_drafts WHERE id = 1", Long.class)).isEqualTo(revision);
+        // compared as trees: jsonb does not keep key order
+        assertThat(json(jdbc.queryForObject("SELECT content::text FROM contract_drafts WHERE id = 1", String.class)))
+                .isEqualTo(json(content));
+    }
+
+    private static JsonNode replace(String path, String value) {
+        return MAPPER.createArrayNode().add(MAPPER.createObjectNode()
+                .put("op", "replace")
+                .put("path", path)
+                .put("value", value));
+    }
+
+    private static JsonNode json(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
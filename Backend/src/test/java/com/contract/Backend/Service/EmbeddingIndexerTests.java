@@ -0,0 +1,160 @@
+package com.contract.Backend.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The indexer against an embedded Postgres, a {@link SimpleVectorStore} and the deterministic
+ * embedding stub: batching, incremental re-embedding, removal and resuming after a failure.
+ */
+class EmbeddingIndexerTests {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    private DeterministicEmbeddingModel model;
+    private SimpleVectorStore store;
+    private EmbeddingIndexer indexer;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("""
+                CREATE TABLE contract_templates (id BIGINT PRIMARY KEY, title TEXT NOT NULL, contract_type TEXT NOT NULL,
+                    description TEXT, content JSONB NOT NULL, is_active BOOLEAN)""");
+        jdbc.execute("""
+                CREATE TABLE contract_drafts (id BIGINT PRIMARY KEY, title TEXT NOT NULL, contract_type TEXT NOT NULL,
+                    content JSONB NOT NULL)""");
+        // The indexer's own tables, as shipped
+        String extras = new ClassPathResource("db/schema-extras.sql").getContentAsString(StandardCharsets.UTF_8);
+        Arrays.stream(extras.split(";"))
+                .filter(statement -> statement.contains("CREATE TABLE IF NOT EXISTS embedding_index"))
+                .forEach(jdbc::execute);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE contract_templates, contract_drafts, embedding_index_state, embedding_index_checkpoint");
+        model = new DeterministicEmbeddingModel();
+        store = SimpleVectorStore.builder(model).build();
+        indexer = newIndexer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        indexer.shutdown();
+    }
+
+    @Test
+    void embedsEveryRowInBatches() {
+        for (long id = 1; id <= 7; id++) {
+            template(id, "Template " + id, "clause " + id);
+        }
+        draft(3, "Draft 3", "draft body");
+
+        assertThat(indexer.sweep()).isTrue();
+
+        assertThat(model.embedded).hasSize(8);
+        assertThat(model.requestSizes).allMatch(size -> size <= 2);
+        assertThat(storedIds()).hasSize(8)
+                .contains(EmbeddingIndexer.documentId(EmbeddingIndexer.Kind.DRAFT, 3));
+        assertThat(model.embedded).anyMatch(text -> text.contains("Template 4") && text.contains("clause 4"));
+        assertThat(indexer.status()).allMatch(status -> status.getCursor() == 0 && status.getLastPassCompletedAt() != null);
+    }
+
+    @Test
+    void reEmbedsOnlyChangedRowsAndRemovesDeletedOnes() {
+        for (long id = 1; id <= 5; id++) {
+            template(id, "Template " + id, "clause " + id);
+        }
+        draft(1, "Draft", "first version");
+        indexer.sweep();
+        model.embedded.clear();
+
+        assertThat(indexer.sweep()).isTrue();
+        assertThat(model.embedded).isEmpty();
+
+        jdbc.update("UPDATE contract_drafts SET content = '{\"body\": \"second version\"}'::jsonb WHERE id = 1");
+        jdbc.update("UPDATE contract_templates SET is_active = FALSE WHERE id = 2");
+        jdbc.update("DELETE FROM contract_templates WHERE id = 5");
+        indexer.sweep();
+
+        assertThat(model.embedded).singleElement().asString().contains("second version");
+        assertThat(storedIds())
+                .hasSize(4)
+                .doesNotContain(EmbeddingIndexer.documentId(EmbeddingIndexer.Kind.TEMPLATE, 2),
+                        EmbeddingIndexer.documentId(EmbeddingIndexer.Kind.TEMPLATE, 5));
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM embedding_index_state", Long.class)).isEqualTo(4);
+    }
+
+    @Test
+    void resumesFromTheCheckpointAfterAFailure() {
+        for (long id = 1; id <= 6; id++) {
+            template(id, "Template " + id, id == 5 ? "poison" : "clause " + id);
+        }
+        model.failOn = "poison";
+
+        assertThat(indexer.sweep()).isFalse();
+        Map<String, Long> cursors = indexer.status().stream()
+                .collect(Collectors.toMap(s -> s.getKind(), s -> s.getCursor()));
+        assertThat(cursors.get("template")).isEqualTo(4); // batches [1,2], [3,4] done; [5,6] failed
+
+        // A restart picks up at the checkpoint
+        indexer.shutdown();
+        indexer = newIndexer();
+        model.failOn = null;
+        model.embedded.clear();
+
+        assertThat(indexer.sweep()).isTrue();
+        assertThat(model.embedded).allMatch(text -> text.contains("Template 5") || text.contains("Template 6"));
+        assertThat(storedIds()).hasSize(6);
+    }
+
+    private EmbeddingIndexer newIndexer() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("vectorStore", store));
+        return new EmbeddingIndexer(jdbc, new ObjectMapper(), beans.getBeanProvider(VectorStore.class),
+                true, 2, 2, 2, 8000);
+    }
+
+    private Set<String> storedIds() {
+        return store.similaritySearch(SearchRequest.builder().query("any").topK(100).similarityThresholdAll().build())
+                .stream().map(Document::getId).collect(Collectors.toSet());
+    }
+
+    private static void template(long id, String title, String clause) {
+        jdbc.update("INSERT INTO contract_templates (id, title, contract_type, description, content, is_active) " +
+                "VALUES (?, ?, 'NDA', 'template', ?::jsonb, TRUE)", id, title, "{\"sections\": [{\"text\": \"" + clause + "\"}]}");
+    }
+
+    private static void draft(long id, String title, String body) {
+        jdbc.update("INSERT INTO contract_drafts (id, title, contract_type, content) VALUES (?, ?, 'NDA', ?::jsonb)",
+                id, title, "{\"body\": \"" + body + "\"}");
+    }
+}
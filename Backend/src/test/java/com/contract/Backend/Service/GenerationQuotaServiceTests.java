@@ -0,0 +1,66 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.Config.QuotaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Quota buckets on a manual clock: which caller a header is metered as, and dropping buckets
+ * that have refilled. The defaults allow a burst of 3 requests per user.
+ */
+class GenerationQuotaServiceTests {
+
+    private final AtomicLong now = new AtomicLong();
+    private final UserDirectory directory = new UserDirectory(null, null, new SimpleMeterRegistry(), 10, 60_000, 10) {
+        @Override
+        public Optional<UserPrincipal> find(String username) {
+            return "alice".equals(username)
+                    ? Optional.of(new UserPrincipal(1L, "alice", null, null, "Legal", null))
+                    : Optional.empty();
+        }
+    };
+    private final GenerationQuotaService quotas = new GenerationQuotaService(directory, new QuotaProperties(), now::get);
+
+    @Test
+    void meterUnknownUsersAsOneAnonymousCaller() {
+        for (int i = 0; i < 3; i++) {
+            GenerationQuotaService.Caller caller = quotas.admit("made-up-" + i);
+            assertThat(caller.getUsername()).isEqualTo(GenerationQuotaService.ANONYMOUS);
+            assertThat(caller.getDepartment()).isEqualTo(GenerationQuotaService.NO_DEPARTMENT);
+        }
+
+        // A new name does not bring a new quota
+        assertThatThrownBy(() -> quotas.admit("made-up-3"))
+                .isInstanceOfSatisfying(QuotaExceededException.class, e -> assertThat(e.getScope()).isEqualTo("user"));
+        assertThatThrownBy(() -> quotas.admit(null)).isInstanceOf(QuotaExceededException.class);
+        assertThat(quotas.admit("alice").getDepartment()).isEqualTo("Legal");
+        // anonymous and alice, each with two user buckets; unassigned and Legal, with two each
+        assertThat(quotas.bucketCount()).isEqualTo(8);
+    }
+
+    @Test
+    void dropsBucketsOnceTheyHaveRefilled() {
+        GenerationQuotaService.Caller caller = quotas.admit("alice");
+        quotas.recordUsage(caller, 5_000);
+
+        quotas.evictIdle();
+        assertThat(quotas.bucketCount()).isEqualTo(4);
+
+        // A request refills in 10 s at 6 a minute; 5,000 model tokens take longer
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        quotas.evictIdle();
+        assertThat(quotas.bucketCount()).isEqualTo(2);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        quotas.evictIdle();
+        assertThat(quotas.bucketCount()).isZero();
+        assertThat(quotas.remaining(caller)).containsEntry("userRequests", 3.0);
+    }
+}
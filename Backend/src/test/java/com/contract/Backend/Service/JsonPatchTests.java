@@ -0,0 +1,71 @@
+package com.contract.Backend.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cases from the RFC 6902 appendix, plus the failure modes autosave relies on.
+ */
+class JsonPatchTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "{'foo':'bar'}                  | [{'op':'add','path':'/baz','value':'qux'}]                 | {'baz':'qux','foo':'bar'}",
+            "{'foo':['bar','baz']}          | [{'op':'add','path':'/foo/1','value':'qux'}]               | {'foo':['bar','qux','baz']}",
+            "{'foo':['bar']}                | [{'op':'add','path':'/foo/-','value':['abc','def']}]       | {'foo':['bar',['abc','def']]}",
+            "{'baz':'qux','foo':'bar'}      | [{'op':'remove','path':'/baz'}]                            | {'foo':'bar'}",
+            "{'foo':['bar','qux','baz']}    | [{'op':'remove','path':'/foo/1'}]                          | {'foo':['bar','baz']}",
+            "{'baz':'qux','foo':'bar'}      | [{'op':'replace','path':'/baz','value':'boo'}]             | {'baz':'boo','foo':'bar'}",
+            "{'foo':{'bar':'baz','waldo':'fred'},'qux':{'corge':'grault'}} | [{'op':'move','from':'/foo/waldo','path':'/qux/thud'}] | {'foo':{'bar':'baz'},'qux':{'corge':'grault','thud':'fred'}}",
+            "{'foo':['all','grass','cows','eat']} | [{'op':'move','from':'/foo/1','path':'/foo/3'}]      | {'foo':['all','cows','eat','grass']}",
+            "{'foo':'bar'}                  | [{'op':'copy','from':'/foo','path':'/baz'}]                | {'foo':'bar','baz':'bar'}",
+            "{'a/b':1,'m~n':2}              | [{'op':'replace','path':'/a~1b','value':3},{'op':'remove','path':'/m~0n'}] | {'a/b':3}",
+            "{'foo':'bar'}                  | [{'op':'add','path':'','value':{'x':1}}]                   | {'x':1}"
+    })
+    void appliesOperations(String document, String patch, String expected) {
+        assertThat(JsonPatch.apply(json(document), json(patch))).isEqualTo(json(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "{'foo':'bar'}         | [{'op':'add','path':'/baz/bat','value':'qux'}]",
+            "{'foo':['bar']}       | [{'op':'add','path':'/foo/2','value':'x'}]",
+            "{'foo':['bar']}       | [{'op':'remove','path':'/foo/01'}]",
+            "{'foo':'bar'}         | [{'op':'replace','path':'/missing','value':1}]",
+            "{'baz':'qux'}         | [{'op':'test','path':'/baz','value':'bar'}]",
+            "{'foo':{'bar':1}}     | [{'op':'move','from':'/foo','path':'/foo/bar/x'}]",
+            "{'foo':'bar'}         | [{'op':'frobnicate','path':'/foo'}]",
+            "{'foo':'bar'}         | {'op':'remove','path':'/foo'}"
+    })
+    void rejectsInvalidPatches(String document, String patch) {
+        assertThatThrownBy(() -> JsonPatch.apply(json(document), json(patch)))
+                .isInstanceOf(JsonPatch.InvalidPatchException.class);
+    }
+
+    @Test
+    void failedPatchLeavesDocumentUntouched() {
+        JsonNode document = json("{'title':'NDA','sections':[]}");
+        JsonNode patch = json("[{'op':'replace','path':'/title','value':'MSA'},{'op':'test','path':'/title','value':'NDA'}]");
+
+        assertThatThrownBy(() -> JsonPatch.apply(document, patch))
+                .isInstanceOf(JsonPatch.InvalidPatchException.class)
+                .hasMessageStartingWith("Operation 1");
+        assertThat(document).isEqualTo(json("{'title':'NDA','sections':[]}"));
+    }
+
+    private static JsonNode json(String relaxed) {
+        try {
+            return MAPPER.readTree(relaxed.trim().replace('\'', '"'));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(relaxed, e);
+        }
+    }
+}
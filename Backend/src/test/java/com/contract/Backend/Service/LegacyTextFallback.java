@@ -0,0 +1,86 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractDraftResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The original three-pass text fallback from ContractService, kept verbatim as the
+ * reference for equivalence tests and as the baseline in the JMH benchmarks.
+ */
+final class LegacyTextFallback {
+
+    private LegacyTextFallback() {
+    }
+
+    static List<ContractDraftResponse.ContractSection> extractSectionsFromText(String aiResponse) {
+        List<ContractDraftResponse.ContractSection> sections = new ArrayList<>();
+
+        // Split response into sections based on numbered headings
+        String[] lines = aiResponse.split("\n");
+        StringBuilder currentSection = new StringBuilder();
+        String currentTitle = "";
+        int sectionNumber = 1;
+
+        for (String line : lines) {
+            if (line.matches("^\\d+\\..*") || line.matches("^[A-Z][A-Z ]+:.*")) {
+                // Save previous section if exists
+                if (!currentTitle.isEmpty() && currentSection.length() > 0) {
+                    sections.add(ContractDraftResponse.ContractSection.builder()
+                            .title(currentTitle)
+                            .content(currentSection.toString().trim())
+                            .sectionNumber(sectionNumber++)
+                            .subsections(new ArrayList<>())
+                            .build());
+                }
+
+                // Start new section
+                currentTitle = line.replaceFirst("^\\d+\\.", "").trim();
+                currentSection = new StringBuilder();
+            } else if (!line.trim().isEmpty()) {
+                currentSection.append(line).append("\n");
+            }
+        }
+
+        // Add last section
+        if (!currentTitle.isEmpty() && currentSection.length() > 0) {
+            sections.add(ContractDraftResponse.ContractSection.builder()
+                    .title(currentTitle)
+                    .content(currentSection.toString().trim())
+                    .sectionNumber(sectionNumber)
+                    .subsections(new ArrayList<>())
+                    .build());
+        }
+
+        return sections;
+    }
+
+    static String extractPreamble(String aiResponse) {
+        String[] lines = aiResponse.split("\n");
+        StringBuilder preamble = new StringBuilder();
+
+        for (String line : lines) {
+            if (line.matches("^\\d+\\..*") || line.matches("^[A-Z][A-Z ]+:.*")) {
+                break; // Stop at first numbered section
+            }
+            if (!line.trim().isEmpty()) {
+                preamble.append(line).append("\n");
+            }
+        }
+
+        return preamble.toString().trim();
+    }
+
+    static String extractConclusion(String aiResponse) {
+        // Look for signature section or conclusion
+        if (aiResponse.toLowerCase().contains("signature")) {
+            int signatureIndex = aiResponse.toLowerCase().lastIndexOf("signature");
+            return aiResponse.substring(signatureIndex).trim();
+        }
+
+        return "IN WITNESS WHEREOF, the parties have executed this Agreement as of the date first written above.\n\n" +
+                "Party A: _________________________\n" +
+                "Party B: _________________________";
+    }
+}
@@ -0,0 +1,42 @@
+package com.contract.Backend.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Real-sized model outputs under src/test/resources/model-outputs, shared by the parser
+ * tests, the JMH benchmarks and the load-test stub. Apart from json-in-prose they are
+ * deliberately malformed (truncated JSON, trailing commas, CRLF markdown) so they
+ * exercise the text fallback.
+ */
+final class ModelOutputCorpus {
+
+    static final List<String> NAMES = List.of(
+            "json-in-prose",
+            "numbered-plain",
+            "numbered-large",
+            "caps-headings",
+            "crlf-markdown",
+            "truncated-json",
+            "json-trailing-commas",
+            "prose-no-headings"
+    );
+
+    private ModelOutputCorpus() {
+    }
+
+    static String load(String name) {
+        String path = "/model-outputs/" + name + ".txt";
+        try (InputStream in = ModelOutputCorpus.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown corpus entry: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
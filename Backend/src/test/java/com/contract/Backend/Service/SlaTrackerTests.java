@@ -0,0 +1,213 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.ContractChangeEvent;
+import com.contract.Backend.DTO.SlaEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The SLA tracker against an embedded Postgres: the startup load and what happens to pending
+ * timers when a request is rescheduled or closed. Timers are made to fire within a fraction
+ * of a second by setting app.sla.at-risk-before to just under the time left until the end of
+ * today.
+ */
+class SlaTrackerTests {
+
+    private static final long FIRE_AFTER_MILLIS = 300;
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+
+    private SlaTracker tracker;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username TEXT NOT NULL)");
+        jdbc.execute("""
+                CREATE TABLE contract_requests (id BIGINT PRIMARY KEY, status TEXT NOT NULL, due_date DATE,
+                    assigned_to BIGINT REFERENCES users (id))""");
+        String extras = new ClassPathResource("db/schema-extras.sql").getContentAsString(StandardCharsets.UTF_8);
+        Arrays.stream(extras.split(";"))
+                .filter(statement -> statement.contains("idx_contract_requests_open_due"))
+                .forEach(jdbc::execute);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE contract_requests, users");
+        jdbc.update("INSERT INTO users VALUES (1, 'alice')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tracker != null) {
+            tracker.stop();
+        }
+    }
+
+    @Test
+    void loadsOpenRequestsWithDueDatesAtStartupWithoutRaisingEvents() {
+        LocalDate today = LocalDate.now();
+        jdbc.update("INSERT INTO contract_requests VALUES (1, 'PENDING', ?, NULL)", today.plusDays(30));
+        jdbc.update("INSERT INTO contract_requests VALUES (2, 'IN_PROGRESS', ?, 1)", today.minusDays(10));
+        jdbc.update("INSERT INTO contract_requests VALUES (3, 'COMPLETED', ?, 1)", today.minusDays(10));
+        jdbc.update("INSERT INTO contract_requests VALUES (4, 'PENDING', NULL, NULL)");
+
+        tracker = start(Duration.ofHours(24));
+
+        assertThat(tracker.summary())
+                .containsEntry("on_track", 1L)
+                .containsEntry("at_risk", 0L)
+                .containsEntry("overdue", 0L)
+                .containsEntry("escalated", 1L);
+        assertThat(tracker.requestsInStage(SlaEvent.Stage.ESCALATED, 10))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getRequestId()).isEqualTo(2L);
+                    assertThat(event.getAssignedTo()).isEqualTo("alice");
+                });
+        assertThat(tracker.recentEvents(10)).isEmpty();
+    }
+
+    @Test
+    void startupQueryUsesTheOpenRequestsIndex() {
+        String plan = jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + SlaTracker.OPEN_REQUESTS)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return lines.toString();
+            }
+        });
+
+        assertThat(plan).contains("idx_contract_requests_open_due");
+    }
+
+    @Test
+    void reschedulesWhenTheDueDateChanges() {
+        tracker = start(untilEndOfTodayLess(FIRE_AFTER_MILLIS));
+        LocalDate today = LocalDate.now();
+
+        tracker.onChange(change(1, "pending", today.plusDays(30)));
+        assertThat(tracker.summary()).containsEntry("on_track", 1L);
+
+        // Due today now, so the new timer reaches AT_RISK
+        tracker.onChange(change(1, "pending", today));
+        awaitUntil(() -> tracker.summary().get("at_risk") == 1L);
+        assertThat(tracker.summary()).containsEntry("on_track", 0L);
+
+        // Due yesterday: already past the end of the due date
+        tracker.onChange(change(1, "in_progress", today.minusDays(1)));
+        assertThat(tracker.summary())
+                .containsEntry("at_risk", 0L)
+                .containsEntry("overdue", 1L);
+        assertThat(tracker.recentEvents(10))
+                .extracting(SlaEvent::getStage)
+                .containsExactly(SlaEvent.Stage.OVERDUE, SlaEvent.Stage.AT_RISK);
+    }
+
+    @Test
+    void cancelsTheTimerWhenTheRequestCompletes() throws InterruptedException {
+        tracker = start(untilEndOfTodayLess(FIRE_AFTER_MILLIS));
+        LocalDate today = LocalDate.now();
+
+        tracker.onChange(change(1, "in_progress", today));
+        tracker.onChange(change(1, "completed", today));
+        Thread.sleep(FIRE_AFTER_MILLIS * 3);
+
+        assertThat(tracker.summary().values()).containsOnly(0L);
+        assertThat(tracker.recentEvents(10)).isEmpty();
+    }
+
+    @Test
+    void ignoresTimersOfAnEarlierSchedule() throws InterruptedException {
+        tracker = start(untilEndOfTodayLess(FIRE_AFTER_MILLIS));
+        LocalDate today = LocalDate.now();
+
+        // The AT_RISK timer for today stays in the queue after the move to next month
+        tracker.onChange(change(1, "pending", today));
+        tracker.onChange(change(1, "pending", today.plusDays(30)));
+        Thread.sleep(FIRE_AFTER_MILLIS * 3);
+
+        assertThat(tracker.summary())
+                .containsEntry("on_track", 1L)
+                .containsEntry("at_risk", 0L);
+        assertThat(tracker.recentEvents(10)).isEmpty();
+
+        // Due today again: AT_RISK is raised once, for the current schedule only
+        tracker.onChange(change(1, "pending", today));
+        awaitUntil(() -> tracker.summary().get("at_risk") == 1L);
+        Thread.sleep(FIRE_AFTER_MILLIS);
+        assertThat(tracker.recentEvents(10)).hasSize(1);
+    }
+
+    private static SlaTracker start(Duration atRiskBefore) {
+        SlaTracker tracker = new SlaTracker(jdbc, new SimpleMeterRegistry(), atRiskBefore, Duration.ofHours(48), 100);
+        tracker.start();
+        return tracker;
+    }
+
+    /**
+     * An at-risk lead time that makes a request due today reach AT_RISK {@code millis} from now
+     */
+    private static Duration untilEndOfTodayLess(long millis) {
+        Instant endOfToday = LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        return Duration.between(Instant.now(), endOfToday).minusMillis(millis);
+    }
+
+    private static ContractChangeEvent change(long requestId, String status, LocalDate dueDate) {
+        return ContractChangeEvent.builder()
+                .type(ContractChangeEvent.Type.REQUEST_STATUS_CHANGED)
+                .requestId(requestId)
+                .status(status)
+                .dueDate(dueDate)
+                .assignedTo("alice")
+                .build();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("waiting for an SLA timer").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
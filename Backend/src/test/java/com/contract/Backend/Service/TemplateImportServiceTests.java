@@ -0,0 +1,229 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.TemplateImportJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Template imports of JSON files against an embedded Postgres: duplicates within a job, a
+ * failed insert that must not turn a later copy of the file into a duplicate, and the checks
+ * on what may be imported from where.
+ */
+class TemplateImportServiceTests {
+
+    private static final UserPrincipal ALICE = new UserPrincipal(1L, "alice", null, null, null, null);
+    private static final long MAX_ARCHIVE_BYTES = 4096;
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static DataSourceTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+    @TempDir
+    Path workDir;
+
+    private EmbeddingIndexer embeddingIndexer;
+    private TemplateImportService imports;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // One DataSource for both, so the template's statements join the batch transactions
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc.execute("""
+                CREATE TABLE contract_templates (id BIGINT PRIMARY KEY, title VARCHAR(255), contract_type VARCHAR(255),
+                    description TEXT, content JSONB, docx_bytes BYTEA, created_by BIGINT, times_used INT,
+                    is_active BOOLEAN, created_at TIMESTAMP, updated_at TIMESTAMP)""");
+        jdbc.execute("CREATE SEQUENCE contract_templates_seq INCREMENT 50");
+        String extras = new ClassPathResource("db/schema-extras.sql").getContentAsString(StandardCharsets.UTF_8);
+        Arrays.stream(extras.split(";"))
+                .filter(statement -> statement.contains("template_import_"))
+                .forEach(jdbc::execute);
+        // Fails the first two template inserts after the sequence is reset
+        jdbc.execute("CREATE SEQUENCE fail_inserts");
+        jdbc.execute("""
+                CREATE FUNCTION fail_first_inserts() RETURNS trigger AS $$
+                BEGIN
+                    IF nextval('fail_inserts') <= 2 THEN
+                        RAISE EXCEPTION 'disk full';
+                    END IF;
+                    RETURN NEW;
+                END $$ LANGUAGE plpgsql""");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("TRUNCATE contract_templates, template_import_jobs, template_import_files");
+        jdbc.execute("DROP TRIGGER IF EXISTS fail_first_inserts ON contract_templates");
+        embeddingIndexer = new EmbeddingIndexer(jdbc, new ObjectMapper(),
+                new StaticListableBeanFactory().getBeanProvider(VectorStore.class), false, 2, 2, 1, 8000);
+        imports = new TemplateImportService(jdbc, transactionManager, new ObjectMapper(), new CollectionVersions(),
+                null, embeddingIndexer, root.toString(), workDir.toString(), 2, 8, 10, 1 << 20, MAX_ARCHIVE_BYTES,
+                "General", 1 << 20, 32768);
+        imports.recoverInterruptedJobs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        imports.shutdown();
+        embeddingIndexer.shutdown();
+    }
+
+    @Test
+    void importsTheSameContentOnce() throws IOException {
+        write("nda/a.json", template("NDA"));
+        write("nda/b.json", template("NDA"));
+        write("msa/c.json", template("MSA"));
+
+        TemplateImportJob job = awaitDone(imports.importDirectory(".", ALICE));
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getFiles()).isEqualTo(3);
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getDuplicates()).isEqualTo(1);
+        assertThat(jdbc.queryForList("SELECT title FROM contract_templates ORDER BY title", String.class))
+                .containsExactly("MSA", "NDA");
+    }
+
+    @Test
+    void importsACopyOfAFileThatFailedToStore() throws IOException {
+        jdbc.execute("SELECT setval('fail_inserts', 1, false)");
+        jdbc.execute("""
+                CREATE TRIGGER fail_first_inserts BEFORE INSERT ON contract_templates
+                FOR EACH ROW EXECUTE FUNCTION fail_first_inserts()""");
+        write("a.json", template("NDA"));
+        write("b.json", template("NDA"));
+
+        TemplateImportJob job = awaitDone(imports.importDirectory(".", ALICE));
+
+        // The batch fails, then the first file on its own; the copy is all that is left to store
+        assertThat(job.getImported()).isEqualTo(1);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(job.getDuplicates()).isZero();
+        assertThat(job.getFailures()).singleElement()
+                .satisfies(failure -> assertThat(failure.getError()).contains("disk full"));
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM contract_templates", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject(
+                "SELECT count(*) FROM template_import_files WHERE status = 'IMPORTED'", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void recordsAnInvalidFileAndCarriesOn() throws IOException {
+        write("broken.json", "{\"title\": ");
+        write("incomplete.json", "{\"title\": \"No content\"}");
+        write("nda.json", template("NDA"));
+
+        TemplateImportJob job = awaitDone(imports.importDirectory(".", ALICE));
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getImported()).isEqualTo(1);
+        assertThat(job.getFailed()).isEqualTo(2);
+        assertThat(job.getFailures())
+                .extracting(TemplateImportJob.FileError::getName)
+                .containsExactly("broken.json", "incomplete.json");
+    }
+
+    @Test
+    void refusesDirectoriesOutsideTheImportRoot() throws IOException {
+        Path outside = Files.createDirectories(root.resolveSibling(root.getFileName() + "-outside"));
+        Files.writeString(outside.resolve("nda.json"), template("NDA"));
+        try {
+            for (String directory : new String[]{"../" + outside.getFileName(), outside.toString(), "missing"}) {
+                assertThatThrownBy(() -> imports.importDirectory(directory, ALICE))
+                        .isInstanceOfSatisfying(ResponseStatusException.class,
+                                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+            }
+            assertThat(jdbc.queryForObject("SELECT count(*) FROM template_import_jobs", Integer.class)).isZero();
+        } finally {
+            Files.delete(outside.resolve("nda.json"));
+            Files.delete(outside);
+        }
+    }
+
+    @Test
+    void refusesAnOversizedArchiveWithoutKeepingIt() throws IOException {
+        assertThatThrownBy(() -> imports.importArchive(new ByteArrayInputStream(new byte[(int) MAX_ARCHIVE_BYTES + 1]), ALICE))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        try (var files = Files.list(workDir)) {
+            assertThat(files).isEmpty();
+        }
+
+        // Not left marked as running
+        TemplateImportJob job = awaitDone(imports.importArchive(new ByteArrayInputStream(zip("nda.json", template("NDA"))), ALICE));
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getImported()).isEqualTo(1);
+    }
+
+    private void write(String name, String content) throws IOException {
+        Path file = root.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private static String template(String title) {
+        return "{\"title\": \"" + title + "\", \"contractType\": \"General\", "
+                + "\"content\": {\"type\": \"doc\", \"content\": [{\"type\": \"paragraph\"}]}}";
+    }
+
+    private static byte[] zip(String name, String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+    private TemplateImportJob awaitDone(TemplateImportJob started) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        TemplateImportJob job = started;
+        while ("RUNNING".equals(job.getStatus())) {
+            assertThat(System.currentTimeMillis()).as("waiting for import " + started.getId()).isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            job = imports.status(started.getId());
+        }
+        return job;
+    }
+}
@@ -0,0 +1,120 @@
+package com.contract.Backend.Service;
+
+import com.contract.Backend.DTO.UserSearchResponse;
+import com.contract.Backend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * User directory search against an embedded Postgres with the schema-extras indexes: prefix
+ * matches for short queries, substring and word-similarity matches for longer ones, and what
+ * the pg_trgm statement needs from the role that runs it.
+ */
+class UserDirectoryTests {
+
+    private static final String CREATE_TRIGRAMS = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbc;
+    private static UserDirectory directory;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbc.execute("""
+                CREATE TABLE users (id BIGINT PRIMARY KEY, username TEXT NOT NULL, full_name TEXT,
+                    email TEXT NOT NULL, department TEXT, role TEXT NOT NULL)""");
+        String extras = new ClassPathResource("db/schema-extras.sql").getContentAsString(StandardCharsets.UTF_8);
+        Arrays.stream(extras.split(";"))
+                .filter(statement -> statement.contains(CREATE_TRIGRAMS) || statement.contains("ON users"))
+                .forEach(jdbc::execute);
+        jdbc.update("INSERT INTO users VALUES (1, 'alice', 'Alice Smith', 'alice@example.com', 'Legal', 'LEGAL_TEAM')");
+        jdbc.update("INSERT INTO users VALUES (2, 'albert', 'Albert Jones', 'ajones@example.com', 'Finance', 'EMPLOYEE')");
+        jdbc.update("INSERT INTO users VALUES (3, 'bob', 'Bob Alison', 'bob@example.com', 'Legal', 'LEGAL_TEAM')");
+        jdbc.update("INSERT INTO users VALUES (4, 'carol', 'Carol King', 'carol.bobbins@example.com', 'Procurement', 'EMPLOYEE')");
+        directory = new UserDirectory(null, jdbc, new SimpleMeterRegistry(), 100, 60_000, 50);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void shortQueriesMatchOnlyTheStartOfNames() {
+        // Bob Alison contains "al", but no name of his starts with it
+        assertThat(usernames("Al", null)).containsExactly("albert", "alice");
+        assertThat(usernames("al", User.UserRole.LEGAL_TEAM)).containsExactly("alice");
+        // LIKE wildcards in the query are matched literally
+        assertThat(usernames("a%", null)).isEmpty();
+        assertThat(usernames("_l", null)).isEmpty();
+    }
+
+    @Test
+    void longerQueriesMatchAnywherePrefixesFirst() {
+        assertThat(usernames("alis", null)).startsWith("bob");
+        assertThat(usernames("legal", null)).containsExactly("alice", "bob");
+        // bob by username, carol only by her email
+        assertThat(usernames("bob", null)).containsExactly("bob", "carol");
+    }
+
+    @Test
+    void longerQueriesMatchMisspellingsByWordSimilarity() {
+        assertThat(usernames("albrt", null)).containsExactly("albert");
+        assertThat(usernames("smiht", null)).isEmpty();
+    }
+
+    @Test
+    void pagesWithoutCounting() {
+        UserSearchResponse first = directory.search("", null, 0, 3);
+        UserSearchResponse second = directory.search("", null, 1, 3);
+
+        assertThat(first.getUsers()).extracting(UserSearchResponse.UserSummary::getUsername)
+                .containsExactly("albert", "alice", "bob");
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getUsers()).extracting(UserSearchResponse.UserSummary::getUsername)
+                .containsExactly("carol");
+        assertThat(second.isHasMore()).isFalse();
+    }
+
+    @Test
+    void creatingTheExtensionNeedsCreateOnTheDatabaseUnlessItExists() {
+        jdbc.execute("CREATE ROLE directory_app LOGIN");
+        jdbc.execute("CREATE DATABASE directory_app_db");
+        try {
+            JdbcTemplate app = new JdbcTemplate(postgres.getDatabase("directory_app", "directory_app_db"));
+
+            assertThatThrownBy(() -> app.execute(CREATE_TRIGRAMS))
+                    .isInstanceOf(DataAccessException.class)
+                    .rootCause().hasMessageContaining("permission denied");
+
+            // As a DBA would
+            new JdbcTemplate(postgres.getDatabase("postgres", "directory_app_db")).execute("CREATE EXTENSION pg_trgm");
+            app.execute(CREATE_TRIGRAMS);
+        } finally {
+            jdbc.execute("DROP DATABASE directory_app_db");
+            jdbc.execute("DROP ROLE directory_app");
+        }
+    }
+
+    private static List<String> usernames(String query, User.UserRole role) {
+        return directory.search(query, role, 0, 10).getUsers().stream()
+                .map(UserSearchResponse.UserSummary::getUsername)
+                .toList();
+    }
+}
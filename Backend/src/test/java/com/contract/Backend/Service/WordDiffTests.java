@@ -0,0 +1,101 @@
+package com.contract.Backend.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The edit script must turn one sequence into the other and be as short as the LCS allows.
+ */
+class WordDiffTests {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "a b c a b b a | c b a b a c",
+            "the parties agree | the parties hereby agree",
+            "the parties hereby agree | the parties agree",
+            "one | two",
+            "x y z | x y z",
+            "' ' | a b",
+            "a b | ' '"
+    })
+    void findsShortestEditScript(String left, String right) {
+        assertShortest(words(left), words(right));
+    }
+
+    @Test
+    void matchesLcsOnRandomSequences() {
+        Random random = new Random(7);
+        for (int run = 0; run < 500; run++) {
+            int[] a = random.ints(random.nextInt(40), 0, 4).toArray();
+            int[] b = random.ints(random.nextInt(40), 0, 4).toArray();
+            assertShortest(a, b);
+        }
+    }
+
+    @Test
+    void reportsSpansInOrder() {
+        List<WordDiff.Span> spans = WordDiff.diff(words("the fee is due monthly"), words("the fee is payable monthly"));
+
+        assertThat(spans).containsExactly(
+                new WordDiff.Span(WordDiff.Op.EQUAL, 0, 3),
+                new WordDiff.Span(WordDiff.Op.DELETE, 3, 4),
+                new WordDiff.Span(WordDiff.Op.INSERT, 3, 4),
+                new WordDiff.Span(WordDiff.Op.EQUAL, 4, 5));
+    }
+
+    private static void assertShortest(String[] a, String[] b) {
+        List<WordDiff.Span> spans = WordDiff.diff(a, b);
+        List<String> oldSide = new ArrayList<>();
+        List<String> newSide = new ArrayList<>();
+        int edits = 0;
+        for (WordDiff.Span span : spans) {
+            for (int i = span.from(); i < span.to(); i++) {
+                switch (span.op()) {
+                    case EQUAL -> {
+                        oldSide.add(a[i]);
+                        newSide.add(a[i]);
+                    }
+                    case DELETE -> oldSide.add(a[i]);
+                    case INSERT -> newSide.add(b[i]);
+                }
+            }
+            edits += span.op() == WordDiff.Op.EQUAL ? 0 : span.length();
+        }
+        assertThat(oldSide).containsExactly(a);
+        assertThat(newSide).containsExactly(b);
+        assertThat(edits).isEqualTo(a.length + b.length - 2 * lcs(a, b));
+    }
+
+    private static void assertShortest(int[] a, int[] b) {
+        String[] x = new String[a.length];
+        String[] y = new String[b.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = String.valueOf(a[i]);
+        }
+        for (int i = 0; i < b.length; i++) {
+            y[i] = String.valueOf(b[i]);
+        }
+        assertShortest(x, y);
+    }
+
+    private static int lcs(String[] a, String[] b) {
+        int[][] length = new int[a.length + 1][b.length + 1];
+        for (int i = a.length - 1; i >= 0; i--) {
+            for (int j = b.length - 1; j >= 0; j--) {
+                length[i][j] = a[i].equals(b[j]) ? length[i + 1][j + 1] + 1 : Math.max(length[i + 1][j], length[i][j + 1]);
+            }
+        }
+        return length[0][0];
+    }
+
+    private static String[] words(String text) {
+        return text.isBlank() ? new String[0] : text.trim().split("\\s+");
+    }
+}
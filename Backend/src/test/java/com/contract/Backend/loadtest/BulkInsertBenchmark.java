@@ -0,0 +1,103 @@
+package com.contract.Backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insert throughput for contract requests (each with two tag rows) through the public API,
+ * with and without JDBC batching. batch_size=1 stands in for the old IDENTITY ids, which
+ * made Hibernate send every row on its own.
+ *
+ * Each configuration gets a fresh embedded Postgres and backend and inserts
+ * {@code bulk.rows} requests one POST at a time and then through /requests/bulk.
+ */
+@Slf4j
+public class BulkInsertBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    public static void main(String[] args) throws Exception {
+        new BulkInsertBenchmark().run(Integer.getInteger("bulk.rows", 5000), Integer.getInteger("bulk.chunk", 500));
+    }
+
+    void run(int rows, int chunk) throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-26s %-12s %8s %10s %10s", "configuration", "mode", "rows", "seconds", "rows/s"));
+        for (int batchSize : new int[]{1, 50}) {
+            String configuration = batchSize == 1 ? "no batching (batch_size=1)" : "batch_size=" + batchSize;
+            try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+                 StubOllamaServer ollama = new StubOllamaServer(StubOllamaServer.Settings.builder().build()).start();
+                 ConfigurableApplicationContext app = LoadTestHarness.startBackend(postgres, ollama,
+                         Map.of("spring.jpa.properties.hibernate.jdbc.batch_size", batchSize))) {
+
+                String baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+                // warm up the JIT and the connection pool before timing
+                insertBulk(baseUrl, 0, Math.min(rows, 1000), chunk);
+
+                long started = System.nanoTime();
+                for (int i = 0; i < rows; i++) {
+                    post(baseUrl + "/api/v1/requests", request(i));
+                }
+                report.add(line(configuration, "single", rows, System.nanoTime() - started));
+
+                started = System.nanoTime();
+                insertBulk(baseUrl, rows, rows, chunk);
+                report.add(line(configuration, "bulk/" + chunk, rows, System.nanoTime() - started));
+            }
+        }
+        System.out.println();
+        report.forEach(System.out::println);
+    }
+
+    private void insertBulk(String baseUrl, int offset, int rows, int chunk) throws IOException, InterruptedException {
+        for (int from = 0; from < rows; from += chunk) {
+            List<Map<String, Object>> batch = new ArrayList<>(chunk);
+            for (int i = from; i < Math.min(rows, from + chunk); i++) {
+                batch.add(request(offset + i));
+            }
+            post(baseUrl + "/api/v1/requests/bulk", batch);
+        }
+    }
+
+    private static Map<String, Object> request(int i) {
+        return Map.of(
+                "title", "Bulk engagement " + i,
+                "contractType", i % 3 == 0 ? "NDA" : "Service Agreement",
+                "description", "Twelve month professional services engagement for contract analytics.",
+                "priority", List.of("LOW", "MEDIUM", "HIGH").get(i % 3),
+                "dueDate", LocalDate.now().plusDays(7 + i % 30).toString(),
+                "tags", List.of("gdpr", "services"));
+    }
+
+    private void post(String url, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("X-USER", "employee")
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(url + " failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static String line(String configuration, String mode, int rows, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        return String.format("%-26s %-12s %8d %10.2f %10.0f", configuration, mode, rows, seconds, rows / seconds);
+    }
+}
@@ -0,0 +1,80 @@
+package com.contract.Backend.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint latency samples for one virtual user. Each user owns its recorder, so
+ * recording needs no synchronisation; recorders are merged once the run is over.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean error) {
+        samples.computeIfAbsent(endpoint, k -> new Samples()).add(latencyNanos, error);
+    }
+
+    void mergeInto(LatencyRecorder target) {
+        samples.forEach((endpoint, s) -> target.samples.computeIfAbsent(endpoint, k -> new Samples()).addAll(s));
+    }
+
+    String report(double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-22s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        samples.forEach((endpoint, s) -> {
+            long[] sorted = s.sorted();
+            sb.append(String.format("%-22s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint, s.count, s.errors, s.count / seconds,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+                    millis(percentile(sorted, 99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Nearest-rank percentile
+     */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        void add(long latency, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.contract.Backend.loadtest;
+
+import com.contract.Backend.BackendApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Self-contained load test: boots the backend against an embedded Postgres and the stub
+ * Ollama server, seeds data through the public API, then drives a weighted mix of draft
+ * generation, template listing and request-queue views from concurrent virtual users.
+ *
+ * Prints throughput and p50/p95/p99 latency per endpoint. Configured through system
+ * properties (see the loadtest profile in pom.xml for the defaults).
+ */
+@Slf4j
+public class LoadTestHarness {
+
+    private static final String EMPLOYEE = "employee";
+    private static final String LEGAL = "legal";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, Function<Random, HttpRequest>> operations = new LinkedHashMap<>();
+    private final String templateContent = modelJson();
+    private final boolean conditional = Boolean.parseBoolean(System.getProperty("loadtest.conditional", "true"));
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestHarness().run(
+                Integer.getInteger("loadtest.users", 32),
+                Integer.getInteger("loadtest.duration", 60),
+                Integer.getInteger("loadtest.warmup", 10),
+                System.getProperty("loadtest.mix", "draft:1,templates:4,pending:3,unassigned:3,myDrafts:2"));
+    }
+
+    void run(int users, int durationSeconds, int warmupSeconds, String mix) throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             StubOllamaServer ollama = new StubOllamaServer(StubOllamaServer.Settings.fromSystemProperties()).start();
+             ConfigurableApplicationContext app = startBackend(postgres, ollama)) {
+
+            baseUrl = "http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port");
+            registerOperations();
+            seed();
+
+            List<String> schedule = weightedSchedule(mix);
+            log.info("Driving {} users for {}s (+{}s warm-up), mix {}", users, durationSeconds, warmupSeconds, mix);
+            LatencyRecorder total = drive(users, schedule, warmupSeconds, durationSeconds);
+
+            System.out.println();
+            System.out.println(total.report(durationSeconds));
+            System.out.println(ollama.stats());
+        }
+    }
+
+    private ConfigurableApplicationContext startBackend(EmbeddedPostgres postgres, StubOllamaServer ollama) {
+        return startBackend(postgres, ollama, Map.of());
+    }
+
+    /**
+     * Boots the backend on a random port with the loadtest profile, pointed at the embedded
+     * Postgres and the stub; {@code overrides} win over every other property source
+     */
+    static ConfigurableApplicationContext startBackend(EmbeddedPostgres postgres, StubOllamaServer ollama,
+                                                       Map<String, Object> overrides) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.ai.ollama.base-url", ollama.baseUrl());
+        properties.put("server.port", 0);
+
+        List<String> args = new ArrayList<>();
+        overrides.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("loadtest")
+                .properties(properties)
+                .run(args.toArray(new String[0]));
+    }
+
+    private void registerOperations() {
+        operations.put("draft", random -> post("/api/v1/contracts/draft", LEGAL, Map.of(
+                "contractType", random.nextBoolean() ? "NDA" : "Service Agreement",
+                "partyA", "Acme Analytics, Inc.",
+                "partyB", "Northwind Legal Services LLC " + random.nextInt(1000),
+                "prompt", "Twelve month engagement with GDPR obligations and a liability cap of 12 months of fees.")));
+        operations.put("templates", random -> get("/api/v1/templates", LEGAL));
+        operations.put("pending", random -> get("/api/v1/requests/pending", LEGAL));
+        operations.put("unassigned", random -> get("/api/v1/requests/unassigned", LEGAL));
+        operations.put("myDrafts", random -> get("/api/v1/drafts/my", LEGAL));
+        operations.put("myRequests", random -> get("/api/v1/requests/my-requests", EMPLOYEE));
+    }
+
+    private void seed() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            expectOk(post("/api/v1/templates", LEGAL, Map.of(
+                    "title", "Services template " + i,
+                    "contractType", i % 2 == 0 ? "NDA" : "Service Agreement",
+                    "description", "Seeded template for load testing",
+                    "content", templateContent)));
+        }
+        for (int i = 0; i < 200; i++) {
+            expectOk(post("/api/v1/requests", EMPLOYEE, Map.of(
+                    "title", "Analytics engagement " + i,
+                    "contractType", i % 3 == 0 ? "NDA" : "Service Agreement",
+                    "description", "Twelve month professional services engagement for contract analytics.",
+                    "priority", List.of("LOW", "MEDIUM", "HIGH").get(i % 3),
+                    "dueDate", LocalDate.now().plusDays(7 + i % 30).toString(),
+                    "tags", List.of("gdpr", "services"))));
+        }
+        for (int i = 0; i < 20; i++) {
+            expectOk(post("/api/v1/drafts", LEGAL, Map.of(
+                    "title", "Seeded draft " + i,
+                    "contractType", "Service Agreement",
+                    "content", templateContent)));
+        }
+        log.info("Seeded 25 templates, 200 requests and 20 drafts");
+    }
+
+    private LatencyRecorder drive(int users, List<String> schedule, int warmupSeconds, int durationSeconds)
+            throws Exception {
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            long seed = u;
+            futures.add(pool.submit(() -> virtualUser(new Random(seed), schedule, measureFrom, deadline)));
+        }
+
+        LatencyRecorder total = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            future.get().mergeInto(total);
+        }
+        pool.shutdown();
+        return total;
+    }
+
+    private LatencyRecorder virtualUser(Random random, List<String> schedule, long measureFrom, long deadline) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        // Like a browser cache: remember each GET's ETag and revalidate with If-None-Match
+        Map<String, String> etags = new HashMap<>();
+        while (System.nanoTime() < deadline) {
+            String operation = schedule.get(random.nextInt(schedule.size()));
+            HttpRequest request = operations.get(operation).apply(random);
+            String etag = etags.get(operation);
+            if (conditional && etag != null && request.method().equals("GET")) {
+                request = HttpRequest.newBuilder(request, (name, value) -> true)
+                        .header("If-None-Match", etag)
+                        .build();
+            }
+            long started = System.nanoTime();
+            boolean error;
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                error = response.statusCode() >= 400;
+                response.headers().firstValue("ETag").ifPresent(value -> etags.put(operation, value));
+            } catch (IOException e) {
+                error = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (started >= measureFrom) {
+                recorder.record(operation, System.nanoTime() - started, error);
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * Expands "draft:1,templates:4" into a list where each operation appears weight times
+     */
+    private List<String> weightedSchedule(String mix) {
+        List<String> schedule = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (!operations.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Unknown operation '" + parts[0] + "', expected one of " + operations.keySet());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                schedule.add(parts[0]);
+            }
+        }
+        return schedule;
+    }
+
+    private HttpRequest get(String path, String username) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-USER", username)
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String username, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("X-USER", username)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofMinutes(2))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void expectOk(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding " + request.uri() + " failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    /**
+     * The JSON object inside the stub's well-formed model output, used as realistic
+     * template and draft content
+     */
+    private static String modelJson() {
+        try (InputStream in = LoadTestHarness.class.getResourceAsStream("/model-outputs/json-in-prose.txt")) {
+            String output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return output.substring(output.indexOf('{'), output.lastIndexOf('}') + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
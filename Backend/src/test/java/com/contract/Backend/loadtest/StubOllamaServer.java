@@ -0,0 +1,222 @@
+package com.contract.Backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded stand-in for Ollama's /api/generate.
+ *
+ * Answers with a real-sized contract, paced by a configurable time-to-first-token and
+ * token rate, either as one JSON envelope or as NDJSON chunks when streaming. A share of
+ * calls can fail with HTTP 500 or return malformed model JSON that forces the text fallback.
+ */
+@Slf4j
+public class StubOllamaServer implements AutoCloseable {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    @Value
+    @Builder
+    public static class Settings {
+        @Builder.Default
+        long firstTokenMs = 400;
+        @Builder.Default
+        double tokensPerSecond = 400;
+        /** auto honours the request's "stream" flag (Ollama defaults it to true); always/never force it */
+        @Builder.Default
+        String stream = "auto";
+        @Builder.Default
+        int chunkTokens = 8;
+        @Builder.Default
+        double errorRate = 0.0;
+        @Builder.Default
+        double malformedRate = 0.0;
+
+        public static Settings fromSystemProperties() {
+            return Settings.builder()
+                    .firstTokenMs(Long.getLong("stub.firstTokenMs", 400))
+                    .tokensPerSecond(Double.parseDouble(System.getProperty("stub.tokensPerSecond", "400")))
+                    .stream(System.getProperty("stub.stream", "auto"))
+                    .errorRate(Double.parseDouble(System.getProperty("stub.errorRate", "0")))
+                    .malformedRate(Double.parseDouble(System.getProperty("stub.malformedRate", "0")))
+                    .build();
+        }
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String validOutput = resource("/model-outputs/json-in-prose.txt");
+    private final String malformedOutput = resource("/model-outputs/truncated-json.txt");
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder injectedMalformed = new LongAdder();
+
+    public StubOllamaServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/api/generate", this::handleGenerate);
+        this.server.setExecutor(executor);
+    }
+
+    public StubOllamaServer start() {
+        server.start();
+        log.info("Stub Ollama listening on {} with {}", baseUrl(), settings);
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String stats() {
+        return String.format("stub calls=%d injectedErrors=%d injectedMalformed=%d",
+                requests.sum(), injectedErrors.sum(), injectedMalformed.sum());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String model = request.path("model").asText("stub");
+            int promptTokens = Math.max(1, request.path("prompt").asText().length() / CHARS_PER_TOKEN);
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < settings.errorRate) {
+                injectedErrors.increment();
+                send(exchange, 500, "{\"error\":\"injected failure\"}");
+                return;
+            }
+
+            String output = validOutput;
+            if (random.nextDouble() < settings.malformedRate) {
+                injectedMalformed.increment();
+                output = malformedOutput;
+            }
+
+            long started = System.nanoTime();
+            sleep(settings.firstTokenMs);
+            if (isStreaming(request)) {
+                stream(exchange, model, output, promptTokens, started);
+            } else {
+                int outputTokens = tokens(output);
+                sleep((long) (outputTokens * 1000 / settings.tokensPerSecond));
+                ObjectNode envelope = chunk(model, output, true);
+                addStats(envelope, promptTokens, outputTokens, started);
+                send(exchange, 200, objectMapper.writeValueAsString(envelope));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean isStreaming(JsonNode request) {
+        return switch (settings.stream) {
+            case "always" -> true;
+            case "never" -> false;
+            default -> request.path("stream").asBoolean(true);
+        };
+    }
+
+    private void stream(HttpExchange exchange, String model, String output, int promptTokens, long started)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        int chunkChars = settings.chunkTokens * CHARS_PER_TOKEN;
+        long chunkPauseMs = (long) (settings.chunkTokens * 1000 / settings.tokensPerSecond);
+        for (int offset = 0; offset < output.length(); offset += chunkChars) {
+            String piece = output.substring(offset, Math.min(output.length(), offset + chunkChars));
+            out.write(objectMapper.writeValueAsBytes(chunk(model, piece, false)));
+            out.write('\n');
+            out.flush();
+            sleep(chunkPauseMs);
+        }
+
+        ObjectNode done = chunk(model, "", true);
+        addStats(done, promptTokens, tokens(output), started);
+        out.write(objectMapper.writeValueAsBytes(done));
+        out.write('\n');
+        out.flush();
+    }
+
+    private ObjectNode chunk(String model, String response, boolean done) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("model", model);
+        node.put("created_at", Instant.now().toString());
+        node.put("response", response);
+        node.put("done", done);
+        if (done) {
+            node.put("done_reason", "stop");
+        }
+        return node;
+    }
+
+    private void addStats(ObjectNode node, int promptTokens, int outputTokens, long started) {
+        long total = System.nanoTime() - started;
+        long firstToken = settings.firstTokenMs * 1_000_000;
+        node.put("total_duration", total);
+        node.put("load_duration", firstToken / 10);
+        node.put("prompt_eval_count", promptTokens);
+        node.put("prompt_eval_duration", firstToken - firstToken / 10);
+        node.put("eval_count", outputTokens);
+        node.put("eval_duration", Math.max(0, total - firstToken));
+    }
+
+    private static int tokens(String text) {
+        return Math.max(1, text.length() / CHARS_PER_TOKEN);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static String resource(String path) {
+        try (InputStream in = StubOllamaServer.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
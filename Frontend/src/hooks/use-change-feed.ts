@@ -0,0 +1,77 @@
+import * as React from "react";
+
+export type ChangeFeedView = "my_requests" | "assigned" | "unassigned" | "my_drafts" | "all";
+
+export type ContractChangeEvent = {
+  offset: number;
+  type: "REQUEST_CREATED" | "REQUEST_ASSIGNED" | "REQUEST_STATUS_CHANGED" | "DRAFT_SAVED";
+  requestId?: number | null;
+  draftId?: number | null;
+  status?: string | null;
+  requestedBy?: string | null;
+  assignedTo?: string | null;
+  actor?: string | null;
+  unassignedQueue: boolean;
+  occurredAt: string;
+};
+
+const EVENT_NAMES = ["request_created", "request_assigned", "request_status_changed", "draft_saved"];
+const COALESCE_MS = 250;
+
+/**
+ * Subscribes to /api/v1/events and calls onChange (at most once per 250 ms burst) with the
+ * events received. A "reset" from the server means events were missed; onChange is then
+ * called with an empty list and the caller should refetch everything.
+ * EventSource reconnects on its own and resumes with Last-Event-ID.
+ */
+export function useChangeFeed(
+  apiBase: string,
+  username: string,
+  views: ChangeFeedView[],
+  onChange: (events: ContractChangeEvent[]) => void,
+) {
+  const handler = React.useRef(onChange);
+  handler.current = onChange;
+  const viewKey = views.join(",");
+
+  React.useEffect(() => {
+    const params = new URLSearchParams({ user: username });
+    viewKey.split(",").filter(Boolean).forEach((view) => params.append("view", view));
+    const source = new EventSource(`${apiBase}/api/v1/events?${params}`);
+
+    let pending: ContractChangeEvent[] = [];
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    const flush = () => {
+      timer = undefined;
+      const events = pending;
+      pending = [];
+      handler.current(events);
+    };
+    const schedule = () => {
+      if (!timer) {
+        timer = setTimeout(flush, COALESCE_MS);
+      }
+    };
+
+    const onEvent = (e: MessageEvent) => {
+      try {
+        pending.push(JSON.parse(e.data));
+      } catch {
+        // ignore malformed payloads, the next refetch picks the change up anyway
+      }
+      schedule();
+    };
+    const onReset = () => {
+      pending = [];
+      schedule();
+    };
+
+    EVENT_NAMES.forEach((name) => source.addEventListener(name, onEvent as EventListener));
+    source.addEventListener("reset", onReset);
+
+    return () => {
+      if (timer) clearTimeout(timer);
+      source.close();
+    };
+  }, [apiBase, username, viewKey]);
+}
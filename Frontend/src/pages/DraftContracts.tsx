@@ -23,7 +23,6 @@ import {
 import { useToast } from "@/hooks/use-toast";
 import { EditorContent, useEditor } from "@tiptap/react";
 import StarterKit from "@tiptap/starter-kit";
-import { Document, Packer, Paragraph, HeadingLevel, TextRun } from "docx";
 
 // API constants for saving drafts
 const API_BASE = import.meta.env.VITE_API_BASE_URL || "http://localhost:3001";
@@ -101,10 +100,14 @@ export default function DraftContracts() {
       const baseUrl = import.meta.env.VITE_API_BASE_URL || "http://localhost:3001";
       const res = await fetch(`${baseUrl}/api/v1/contracts/draft`, {
         method: "POST",
-        headers: { "Content-Type": "application/json" },
+        headers: { "Content-Type": "application/json", [USER_HEADER]: LEGAL_USERNAME },
         body: JSON.stringify({ prompt, contractType, partyA, partyB }),
       });
 
+      if (res.status === 429) {
+        const retryAfter = res.headers.get("Retry-After");
+        throw new Error(`Generation quota reached. Try again in ${retryAfter ?? "a few"} seconds.`);
+      }
       if (!res.ok) {
         throw new Error(`Request failed: ${res.status} ${res.statusText}`);
       }
@@ -179,111 +182,44 @@ export default function DraftContracts() {
     return { type: "doc", content };
   };
 
-  const tiptapJsonToDocx = (docJson: any) => {
-    const paragraphs: Paragraph[] = [];
-    const toTextRuns = (node: any): TextRun[] => {
-      if (!node?.content) return [];
-      return node.content.filter((c: any) => c.type === "text").map((t: any) => new TextRun({
-        text: t.text || "",
-        bold: !!t.marks?.some((m: any) => m.type === "bold"),
-        italics: !!t.marks?.some((m: any) => m.type === "italic"),
-        strike: !!t.marks?.some((m: any) => m.type === "strike"),
-      }));
-    };
-    const walk = (node: any) => {
-      if (!node) return;
-      switch (node.type) {
-        case "heading": {
-          const level = node.attrs?.level || 1;
-          const text = (node.content || []).map((c: any) => c.text || "").join("");
-          let headingLevel = HeadingLevel.HEADING_1;
-          if (level === 1) headingLevel = HeadingLevel.HEADING_1;
-          else if (level === 2) headingLevel = HeadingLevel.HEADING_2;
-          else if (level === 3) headingLevel = HeadingLevel.HEADING_3;
-          else headingLevel = HeadingLevel.HEADING_4 as any;
-          paragraphs.push(new Paragraph({ text, heading: headingLevel }));
-          break;
-        }
-        case "paragraph": {
-          const runs = toTextRuns(node);
-          paragraphs.push(new Paragraph({ children: runs.length ? runs : [new TextRun("")] }));
-          break;
-        }
-        case "bulletList": {
-          (node.content || []).forEach((li: any) => {
-            const paraNode = li.content?.find((n: any) => n.type === "paragraph");
-            const runs = toTextRuns(paraNode || {});
-            paragraphs.push(new Paragraph({ children: runs, bullet: { level: 0 } }));
-          });
-          break;
-        }
-        case "orderedList": {
-          let index = 1;
-          (node.content || []).forEach((li: any) => {
-            const paraNode = li.content?.find((n: any) => n.type === "paragraph");
-            const text = (paraNode?.content || []).map((c: any) => c.text || "").join("");
-            paragraphs.push(new Paragraph({ text: `${index}. ${text}` }));
-            index++;
-          });
-          break;
-        }
-        case "blockquote": {
-          const paraNode = (node.content || []).find((n: any) => n.type === "paragraph");
-          const runs = toTextRuns(paraNode || {});
-          paragraphs.push(new Paragraph({ children: runs }));
-          break;
-        }
-        case "horizontalRule": {
-          paragraphs.push(new Paragraph(""));
-          break;
-        }
-        default: {
-          if (Array.isArray(node.content)) node.content.forEach(walk);
-        }
-      }
-    };
-    if (Array.isArray(docJson?.content)) docJson.content.forEach(walk);
-    const doc = new Document({ sections: [{ properties: {}, children: paragraphs }] });
-    return doc;
-  };
-
   const handleCopyFromEditorClick = () => {
     handleCopyFromEditor();
   };
 
+  // Saves a DOCX response from the backend under the draft's name
+  const downloadDocx = async (res: Response) => {
+    if (!res.ok) {
+      const txt = await res.text();
+      throw new Error(txt || "Could not render DOCX");
+    }
+    const blob = await res.blob();
+    const url = URL.createObjectURL(blob);
+    const a = document.createElement("a");
+    // Define name for the exported docx
+    const name = (responseJson?.contractTitle || "contract-draft").toString().replace(/\s+/g, "-");
+    a.href = url;
+    a.download = `${name}.docx`;
+    a.click();
+    URL.revokeObjectURL(url);
+  };
+
   const handleExportDocx = async () => {
     if (!editor) return;
     try {
-      const tiptapJson = editor.getJSON();
-      const doc = tiptapJsonToDocx(tiptapJson);
-      const blob = await Packer.toBlob(doc);
-      const url = URL.createObjectURL(blob);
-      const a = document.createElement("a");
-      // Define name for the exported docx
-      const name = (responseJson?.contractTitle || "contract-draft").toString().replace(/\s+/g, "-");
-      a.href = url;
-      a.download = `${name}.docx`;
-      a.click();
-      URL.revokeObjectURL(url);
+      // Rendered on the server from the editor JSON
+      const title = (responseJson?.contractTitle || "contract-draft").toString();
+      const res = await fetch(`${API_BASE}/api/v1/drafts/docx?title=${encodeURIComponent(title)}`, {
+        method: "POST",
+        headers: { "Content-Type": "application/json", [USER_HEADER]: LEGAL_USERNAME },
+        body: JSON.stringify(editor.getJSON()),
+      });
+      await downloadDocx(res);
       toast({ title: "Exported", description: "DOCX file downloaded" });
     } catch (e: any) {
       toast({ title: "Export Failed", description: e?.message || "Could not export DOCX", variant: "destructive" });
     }
   };
 
-  // Helper to convert Blob to Base64 string
-  const blobToBase64 = (blob: Blob) =>
-    new Promise<string>((resolve, reject) => {
-      const reader = new FileReader();
-      reader.onloadend = () => {
-        const dataUrl = reader.result as string;
-        const base64 = dataUrl?.split(",")[1] || "";
-        resolve(base64);
-      };
-      reader.onerror = reject;
-      reader.readAsDataURL(blob);
-    });
-
   // Save editor content as a Draft via backend API
   const handleSaveDraft = async () => {
     if (!editor) {
@@ -292,24 +228,11 @@ export default function DraftContracts() {
     }
     try {
       const tiptapJson = editor.getJSON();
-      const doc = tiptapJsonToDocx(tiptapJson);
-      const blob = await Packer.toBlob(doc);
-      const docxBase64 = await blobToBase64(blob);
-
-      // Also download DOCX locally
-      const name = (responseJson?.contractTitle || "contract-draft").toString().replace(/\s+/g, "-");
-      const url = URL.createObjectURL(blob);
-      const a = document.createElement("a");
-      a.href = url;
-      a.download = `${name}.docx`;
-      a.click();
-      URL.revokeObjectURL(url);
-
+      // The DOCX is rendered by the backend from the saved content, no upload needed
       const payload = {
         title: (responseJson?.contractTitle || "Draft Contract").toString(),
         contractType,
         content: JSON.stringify(tiptapJson),
-        docxBase64,
       };
       const res = await fetch(`${API_BASE}/api/v1/drafts`, {
         method: "POST",
@@ -324,6 +247,7 @@ export default function DraftContracts() {
         throw new Error(txt || "Failed to save draft");
       }
       const data = await res.json();
+      await downloadDocx(await fetch(`${API_BASE}/api/v1/drafts/${data.id}/docx`, { headers: { [USER_HEADER]: LEGAL_USERNAME } }));
       toast({ title: "Saved", description: `Draft saved (ID: ${data?.id || "unknown"}) and DOCX downloaded` });
     } catch (e: any) {
       toast({ title: "Save Failed", description: e?.message || "Could not save draft", variant: "destructive" });
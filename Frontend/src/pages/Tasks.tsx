@@ -38,6 +38,7 @@ import {
   Calendar,
 } from "lucide-react";
 import { useToast } from "@/hooks/use-toast";
+import { useChangeFeed } from "@/hooks/use-change-feed";
 
 // Add API constants and types
 const API_BASE = import.meta.env.VITE_API_BASE_URL || "http://localhost:3001";
@@ -287,6 +288,17 @@ export default function Tasks() {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  // Refresh the queue and drafts when someone else changes them instead of polling
+  useChangeFeed(API_BASE, LEGAL_USERNAME, ["unassigned", "assigned", "my_drafts"], (events) => {
+    const draftsOnly = events.length > 0 && events.every((e) => e.type === "DRAFT_SAVED" && e.requestId == null);
+    if (!draftsOnly) {
+      fetchLegalRequests();
+    }
+    if (events.length === 0 || events.some((e) => e.type === "DRAFT_SAVED")) {
+      fetchMyDrafts();
+    }
+  });
+
   const getPriorityBadge = (priority: string) => {
     const variants = {
       high: "bg-red-500/10 text-red-500 border-red-500/30",